@@ -7,7 +7,9 @@ import java.util.UUID;
 
 
 public interface ExternalDiscoveryRequestInterface {
+    // Returns the premium company ids, or null when the request failed or timed out
     List<Object> sendGetAllPremiumCompaniesRequest();
+    // Returns the premium status, or null when the request failed or timed out
     Boolean sendGetCompanyPremiumStatusRequest(UUID companyId);
     void sendMatchNotification(ApplicantMatchNotificationRecord notification, boolean isUpdate);
 }
@@ -0,0 +1,54 @@
+package rmit.saintgiong.discoveryapi.internal.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of an applicant sync from the user profile service")
+public class ApplicantSyncSummaryDto {
+
+    @Schema(description = "FULL fetches every applicant, DELTA only those updated since the last sync", example = "DELTA")
+    private String mode;
+
+    @Schema(description = "Lower bound on updatedAt requested from the user profile service; empty for a full sync")
+    private LocalDateTime updatedSince;
+
+    @Schema(description = "Whether every page was fetched; false when the sync stopped early", example = "true")
+    private boolean completed;
+
+    @Schema(description = "Pages fetched from the user profile service", example = "4")
+    private int pages;
+
+    @Schema(description = "Applicants received", example = "1500")
+    private long fetched;
+
+    @Schema(description = "Applicants written to the index, new and updated", example = "120")
+    private long indexed;
+
+    @Schema(description = "Applicants that were not in the index yet", example = "20")
+    private long created;
+
+    @Schema(description = "Known applicants whose content changed", example = "100")
+    private long updated;
+
+    @Schema(description = "Applicants skipped because their content was unchanged", example = "1378")
+    private long skipped;
+
+    @Schema(description = "Applicants that could not be mapped or indexed", example = "2")
+    private long failed;
+
+    @Schema(description = "Duration of the sync in milliseconds", example = "5230")
+    private long durationMillis;
+
+    @Schema(description = "First errors encountered, capped to keep the response small")
+    private List<String> errors;
+}
@@ -0,0 +1,50 @@
+package rmit.saintgiong.discoveryapi.internal.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobStatus;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "State of a background job such as an applicant sync or an index rebuild")
+public class BackgroundJobDto {
+
+    @Schema(description = "Job id, used to poll or cancel the job")
+    private UUID jobId;
+
+    @Schema(description = "Kind of job", example = "APPLICANT_SYNC")
+    private JobType type;
+
+    @Schema(description = "Current status", example = "RUNNING")
+    private JobStatus status;
+
+    @Schema(description = "Step the job is currently in", example = "Fetched page 3")
+    private String phase;
+
+    @Schema(description = "Items processed so far", example = "1500")
+    private long processed;
+
+    @Schema(description = "Whether cancellation was requested; the job stops at its next checkpoint", example = "false")
+    private boolean cancelRequested;
+
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Result of a finished job, e.g. the sync summary")
+    private Object result;
+
+    @Schema(description = "Failure reason of a failed job")
+    private String error;
+}
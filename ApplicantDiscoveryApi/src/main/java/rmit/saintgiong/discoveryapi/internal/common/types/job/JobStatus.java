@@ -0,0 +1,14 @@
+package rmit.saintgiong.discoveryapi.internal.common.types.job;
+
+// Enum representing the lifecycle of a background job.
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
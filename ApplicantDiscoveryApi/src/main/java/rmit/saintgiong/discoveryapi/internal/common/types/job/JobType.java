@@ -0,0 +1,19 @@
+package rmit.saintgiong.discoveryapi.internal.common.types.job;
+
+// Enum representing the kinds of background jobs.
+// Jobs sharing a lock name never run at the same time, on any instance.
+public enum JobType {
+    APPLICANT_SYNC("applicant-sync"),
+    APPLICANT_INDEX_REBUILD("applicant-index-rebuild"),
+    APPLICANT_SEED("applicant-seed");
+
+    private final String lockName;
+
+    JobType(String lockName) {
+        this.lockName = lockName;
+    }
+
+    public String getLockName() {
+        return lockName;
+    }
+}
@@ -1,15 +1,19 @@
 package rmit.saintgiong.discoveryapi.internal.document;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
-@Document(indexName = "applicants")
+@Document(indexName = "applicants", createIndex = false)
 public record ApplicantDocument(
         @Id @Field(type = FieldType.Keyword) UUID applicantId,
 
@@ -21,7 +25,9 @@ public record ApplicantDocument(
 
         @Field(type = FieldType.Text) String address,
 
-        @Field(type = FieldType.Keyword) String city,
+        @MultiField(mainField = @Field(type = FieldType.Keyword),
+                otherFields = @InnerField(suffix = NORMALIZED, type = FieldType.Keyword, normalizer = KEYWORD_NORMALIZER))
+        String city,
 
         @Field(type = FieldType.Text) String biography,
 
@@ -29,7 +35,9 @@ public record ApplicantDocument(
 
         @Field(type = FieldType.Keyword) String avatarUrl,
 
-        @Field(type = FieldType.Keyword) String country,
+        @MultiField(mainField = @Field(type = FieldType.Keyword),
+                otherFields = @InnerField(suffix = NORMALIZED, type = FieldType.Keyword, normalizer = KEYWORD_NORMALIZER))
+        String country,
 
         @Field(type = FieldType.Nested) List<Education> educations,
 
@@ -41,6 +49,59 @@ public record ApplicantDocument(
 
         @Field(type = FieldType.Date, format = {}, pattern = "uuuu-MM-dd'T'HH:mm:ss") LocalDateTime createdAt,
 
-        @Field(type = FieldType.Date, format = {}, pattern = "uuuu-MM-dd'T'HH:mm:ss") LocalDateTime updatedAt
+        @Field(type = FieldType.Date, format = {}, pattern = "uuuu-MM-dd'T'HH:mm:ss") LocalDateTime updatedAt,
+
+        // Hash of the searchable content, used to skip unchanged applicants on sync; never searched
+        @Field(type = FieldType.Keyword, index = false, docValues = false) String contentHash,
+
+        // Work experience summary (see WorkExperienceSummary), so experience filters need no nested query
+        @Field(type = FieldType.Boolean) boolean hasWorkExperience,
+
+        @Field(type = FieldType.Integer) int workExperienceCount,
+
+        @Field(type = FieldType.Integer) int totalExperienceMonths,
+
+        @Field(type = FieldType.Boolean) boolean currentlyEmployed
 ) {
+
+    // Lowercased, ASCII-folded copy of a keyword field for case- and accent-insensitive term filters,
+    // e.g. "city.normalized"; the normalizer is defined in the index settings
+    public static final String NORMALIZED = "normalized";
+    public static final String KEYWORD_NORMALIZER = "lowercase_ascii";
+
+    /**
+     * Keeps the summary fields as given, so a stored document reads back with the values it was indexed with.
+     */
+    @JsonCreator
+    @PersistenceCreator
+    public ApplicantDocument {
+    }
+
+    public ApplicantDocument(UUID applicantId, String firstName, String lastName, String phone, String address,
+                             String city, String biography, String aboutMe, String avatarUrl, String country,
+                             List<Education> educations, List<WorkExperience> workExperiences, List<Long> skillIds,
+                             List<String> skillNames, LocalDateTime createdAt, LocalDateTime updatedAt,
+                             String contentHash) {
+        this(applicantId, firstName, lastName, phone, address, city, biography, aboutMe, avatarUrl, country,
+                educations, workExperiences, skillIds, skillNames, createdAt, updatedAt, contentHash,
+                false, 0, 0, false);
+    }
+
+    public ApplicantDocument withContentHash(String contentHash) {
+        return new ApplicantDocument(applicantId, firstName, lastName, phone, address, city, biography, aboutMe,
+                avatarUrl, country, educations, workExperiences, skillIds, skillNames, createdAt, updatedAt, contentHash,
+                hasWorkExperience, workExperienceCount, totalExperienceMonths, currentlyEmployed);
+    }
+
+    /**
+     * Derives the summary fields from {@code workExperiences}; a current job counts up to {@code now}.
+     * Called once when the document is indexed.
+     */
+    public ApplicantDocument withWorkExperienceSummary(LocalDateTime now) {
+        WorkExperienceSummary summary = WorkExperienceSummary.of(workExperiences, now);
+        return new ApplicantDocument(applicantId, firstName, lastName, phone, address, city, biography, aboutMe,
+                avatarUrl, country, educations, workExperiences, skillIds, skillNames, createdAt, updatedAt, contentHash,
+                summary.hasWorkExperience(), summary.workExperienceCount(), summary.totalExperienceMonths(),
+                summary.currentlyEmployed());
+    }
 }
\ No newline at end of file
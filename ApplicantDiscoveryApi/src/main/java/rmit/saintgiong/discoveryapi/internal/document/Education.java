@@ -2,6 +2,8 @@ package rmit.saintgiong.discoveryapi.internal.document;
 
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
 
 import java.time.LocalDateTime;
 
@@ -9,7 +11,9 @@ public record Education(
         @Field(type = FieldType.Text)
         String institutionName,
 
-        @Field(type = FieldType.Keyword)
+        @MultiField(mainField = @Field(type = FieldType.Keyword),
+                otherFields = @InnerField(suffix = ApplicantDocument.NORMALIZED, type = FieldType.Keyword,
+                        normalizer = ApplicantDocument.KEYWORD_NORMALIZER))
         String degree,
 
         @Field(type = FieldType.Double)
@@ -0,0 +1,64 @@
+package rmit.saintgiong.discoveryapi.internal.document;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Root-level summary of an applicant's work experiences, stored on {@link ApplicantDocument} so experience
+ * filters do not need nested queries.
+ *
+ * @param totalExperienceMonths whole months covered by at least one experience; overlapping jobs count once and
+ *                              a current job (or one without end date) counts up to {@code now}
+ */
+public record WorkExperienceSummary(
+        boolean hasWorkExperience,
+        int workExperienceCount,
+        int totalExperienceMonths,
+        boolean currentlyEmployed
+) {
+
+    public static WorkExperienceSummary of(List<WorkExperience> workExperiences, LocalDateTime now) {
+        if (workExperiences == null || workExperiences.isEmpty()) {
+            return new WorkExperienceSummary(false, 0, 0, false);
+        }
+
+        List<LocalDateTime[]> periods = new ArrayList<>();
+        boolean currentlyEmployed = false;
+        for (WorkExperience experience : workExperiences) {
+            boolean current = Boolean.TRUE.equals(experience.isCurrent());
+            currentlyEmployed |= current;
+            if (experience.startDate() == null) {
+                continue;
+            }
+            LocalDateTime end = current || experience.endDate() == null ? now : experience.endDate();
+            if (end.isAfter(experience.startDate())) {
+                periods.add(new LocalDateTime[]{experience.startDate(), end});
+            }
+        }
+
+        // Merge overlapping periods so concurrent jobs do not add up
+        periods.sort(Comparator.comparing(period -> period[0]));
+        long months = 0;
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (LocalDateTime[] period : periods) {
+            if (end == null || period[0].isAfter(end)) {
+                if (end != null) {
+                    months += ChronoUnit.MONTHS.between(start, end);
+                }
+                start = period[0];
+                end = period[1];
+            } else if (period[1].isAfter(end)) {
+                end = period[1];
+            }
+        }
+        if (end != null) {
+            months += ChronoUnit.MONTHS.between(start, end);
+        }
+
+        return new WorkExperienceSummary(true, workExperiences.size(), (int) months, currentlyEmployed);
+    }
+}
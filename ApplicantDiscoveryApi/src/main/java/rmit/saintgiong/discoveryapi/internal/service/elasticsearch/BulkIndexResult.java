@@ -0,0 +1,24 @@
+package rmit.saintgiong.discoveryapi.internal.service.elasticsearch;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-document outcome of a bulk indexing request.
+ *
+ * @param indexedIds ids of the documents that were indexed
+ * @param failures   failure reason keyed by the id of each document that was not indexed
+ */
+public record BulkIndexResult(
+        List<String> indexedIds,
+        Map<String, String> failures
+) {
+
+    public static BulkIndexResult empty() {
+        return new BulkIndexResult(List.of(), Map.of());
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
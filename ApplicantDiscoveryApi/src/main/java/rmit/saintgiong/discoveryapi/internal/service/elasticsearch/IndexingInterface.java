@@ -2,7 +2,28 @@ package rmit.saintgiong.discoveryapi.internal.service.elasticsearch;
 
 import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface IndexingInterface {
     void indexApplicant(ApplicantDocument document);
+
+    /**
+     * Indexes several applicants in one bulk request. A failing document does not fail the others.
+     */
+    BulkIndexResult indexApplicants(Collection<ApplicantDocument> documents);
+
+    /**
+     * Applies updated applicants as partial updates containing only the changed fields, keeping the stored
+     * createdAt. Unchanged applicants are not written; unknown applicants are indexed in full.
+     */
+    BulkIndexResult updateApplicants(Collection<ApplicantDocument> documents);
+
     void deleteApplicant(String applicantId);
-}
\ No newline at end of file
+
+    /**
+     * Returns the stored content hash of each known applicant, keyed by applicant id. Unknown applicants are
+     * absent; applicants indexed before hashes were stored map to {@code null}.
+     */
+    Map<String, String> getContentHashes(Collection<String> applicantIds);
+}
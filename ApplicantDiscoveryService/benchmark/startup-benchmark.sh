@@ -0,0 +1,113 @@
+#!/usr/bin/env bash
+# Measures how long the service takes to start against local stand-ins (benchmark/docker-compose.yml).
+#
+# Usage: build with `mvn -Pfast-startup package`, then run benchmark/startup-benchmark.sh [runs]
+#
+# The AppCDS archive is recorded here against the stand-ins unless the build already produced one
+# (-Dfast-startup.skip-cds=false).
+#
+# Each mode is started once to warm the file cache, then [runs] times (default 5). The startup time is the
+# "process running for" value Spring Boot logs once the application is ready. Results are appended to
+# target/startup-benchmark.csv so runs can be compared over time.
+set -euo pipefail
+
+RUNS="${1:-5}"
+MODULE_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+APP_DIR="$MODULE_DIR/target/fast-startup"
+RESULTS="$MODULE_DIR/target/startup-benchmark.csv"
+COMPOSE=(docker compose -f "$MODULE_DIR/benchmark/docker-compose.yml")
+STARTUP_TIMEOUT_SECONDS=180
+
+FAT_JAR="$(ls "$MODULE_DIR"/target/discovery-service-*.jar 2>/dev/null | grep -v -- '-plain.jar' | head -1 || true)"
+APP_JAR="$(ls "$APP_DIR"/discovery-service-*.jar 2>/dev/null | head -1 || true)"
+if [[ -z "$FAT_JAR" || -z "$APP_JAR" ]]; then
+    echo "Build first: mvn -Pfast-startup package" >&2
+    exit 1
+fi
+
+"${COMPOSE[@]}" up -d --wait
+if [[ -z "${KEEP_STANDINS:-}" ]]; then
+    trap '"${COMPOSE[@]}" down -v > /dev/null 2>&1' EXIT
+fi
+
+# Configuration pointing at the stand-ins; anything already set in the environment wins
+if [[ -z "${PUBLIC_KEY_B64:-}" ]]; then
+    key_file="$(mktemp)"
+    openssl genpkey -algorithm RSA -pkeyopt rsa_keygen_bits:2048 -out "$key_file" 2> /dev/null
+    export PRIVATE_KEY_B64="$(openssl pkcs8 -topk8 -nocrypt -in "$key_file" -outform DER | base64 | tr -d '\n')"
+    export PUBLIC_KEY_B64="$(openssl rsa -in "$key_file" -pubout -outform DER 2> /dev/null | base64 | tr -d '\n')"
+    rm -f "$key_file"
+fi
+export JWE_ISSUER="${JWE_ISSUER:-startup-benchmark}"
+export JWE_TEMP_TOKEN_TTL_SECONDS="${JWE_TEMP_TOKEN_TTL_SECONDS:-300}"
+export JWE_ACCESS_TOKEN_TTL_SECONDS="${JWE_ACCESS_TOKEN_TTL_SECONDS:-900}"
+export JWE_REFRESH_TOKEN_TTL_SECONDS="${JWE_REFRESH_TOKEN_TTL_SECONDS:-604800}"
+export CLOUDKAFKA_BROKERS="${CLOUDKAFKA_BROKERS:-localhost:9192}"
+export CLOUDKAFKA_API_KEY="${CLOUDKAFKA_API_KEY:-benchmark}"
+export CLOUDKAFKA_API_SECRET="${CLOUDKAFKA_API_SECRET:-benchmark}"
+export SCHEMA_REGISTRY_URL="${SCHEMA_REGISTRY_URL:-http://localhost:9191}"
+export SCHEMA_REGISTRY_KEY="${SCHEMA_REGISTRY_KEY:-benchmark}"
+export SCHEMA_REGISTRY_SECRET="${SCHEMA_REGISTRY_SECRET:-benchmark}"
+APP_ARGS=(--eureka.client.enabled=false --server.port=0)
+
+# Training run: records the classes loaded while the context starts, then exits after refresh
+if [[ ! -f "$APP_DIR/application.jsa" ]]; then
+    echo "Recording the AppCDS archive"
+    (cd "$APP_DIR" && exec java -XX:ArchiveClassesAtExit=application.jsa -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh -jar "$APP_JAR" "${APP_ARGS[@]}") > /dev/null
+fi
+
+# Prints the startup time in seconds of one run
+measure() {
+    local jar="$1"
+    shift
+    local log
+    log="$(mktemp)"
+    # Started from the build directory so a developer's .env is not picked up
+    (cd "$APP_DIR" && exec java "$@" -jar "$jar" "${APP_ARGS[@]}") > "$log" 2>&1 &
+    local pid=$!
+
+    local waited=0
+    until grep -q "process running for" "$log"; do
+        if ! kill -0 "$pid" 2> /dev/null || (( waited >= STARTUP_TIMEOUT_SECONDS * 10 )); then
+            kill "$pid" 2> /dev/null || true
+            echo "Startup failed, see $log" >&2
+            return 1
+        fi
+        sleep 0.1
+        waited=$((waited + 1))
+    done
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+
+    grep -oE "process running for [0-9.]+" "$log" | grep -oE "[0-9.]+$"
+    rm -f "$log"
+}
+
+benchmark() {
+    local mode="$1"
+    shift
+    measure "$@" > /dev/null
+    local times=()
+    for ((run = 1; run <= RUNS; run++)); do
+        times+=("$(measure "$@")")
+    done
+
+    local sorted
+    sorted="$(printf '%s\n' "${times[@]}" | sort -n)"
+    local median min max
+    median="$(echo "$sorted" | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : (values[NR / 2] + values[NR / 2 + 1]) / 2 }')"
+    min="$(echo "$sorted" | head -1)"
+    max="$(echo "$sorted" | tail -1)"
+    printf '%-14s median %6.2fs   min %6.2fs   max %6.2fs\n' "$mode" "$median" "$min" "$max"
+
+    [[ -f "$RESULTS" ]] || echo "timestamp,commit,mode,runs,median,min,max" > "$RESULTS"
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$(git -C "$MODULE_DIR" rev-parse --short HEAD 2> /dev/null || echo unknown),$mode,$RUNS,$median,$min,$max" >> "$RESULTS"
+}
+
+echo "Startup time over $RUNS runs:"
+benchmark "jar" "$FAT_JAR"
+benchmark "extracted" "$APP_JAR"
+benchmark "aot" "$APP_JAR" -Dspring.aot.enabled=true
+benchmark "aot+cds" "$APP_JAR" -Dspring.aot.enabled=true -XX:SharedArchiveFile="$APP_DIR/application.jsa"
+echo "Results appended to $RESULTS"
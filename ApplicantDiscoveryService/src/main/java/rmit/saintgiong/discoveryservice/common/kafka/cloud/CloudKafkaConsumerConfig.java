@@ -4,6 +4,7 @@ import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroDeserializerConfig;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
@@ -12,15 +13,21 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.Map;
+import java.util.Properties;
 import java.util.UUID;
 
 @Configuration
 public class CloudKafkaConsumerConfig {
 
     private final CloudKafkaConfig cloudKafkaConfig;
+    private final int batchMaxPollRecords;
 
-    public CloudKafkaConsumerConfig(CloudKafkaConfig cloudKafkaConfig) {
+    public CloudKafkaConsumerConfig(
+            CloudKafkaConfig cloudKafkaConfig,
+            @Value("${kafka.cloud.batch.max-poll-records:500}") int batchMaxPollRecords
+    ) {
         this.cloudKafkaConfig = cloudKafkaConfig;
+        this.batchMaxPollRecords = batchMaxPollRecords;
     }
 
     @Bean(name = "cloudConsumerFactory")
@@ -50,6 +57,19 @@ public class CloudKafkaConsumerConfig {
         return factory;
     }
 
+    // Delivers each poll as a List<ConsumerRecord> so applicant events can be indexed with one bulk request
+    @Bean(name = "cloudBatchKafkaListenerContainerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, Object> cloudBatchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(cloudConsumerFactory());
+        factory.setBatchListener(true);
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        return factory;
+    }
+
 //    // --- REQUEST-REPLY CONFIGURATION ---
 //
 //    @Bean
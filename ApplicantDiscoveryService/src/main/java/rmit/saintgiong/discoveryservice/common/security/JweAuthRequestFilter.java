@@ -4,7 +4,8 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
 import org.springframework.http.HttpHeaders;
@@ -22,13 +23,24 @@ import rmit.saintgiong.shared.token.TokenClaimsDto;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class JweAuthRequestFilter extends OncePerRequestFilter {
 
+    // Authentication of the initial dispatch, reused when an async controller result is dispatched again
+    private static final String AUTHENTICATION_ATTRIBUTE = JweAuthRequestFilter.class.getName() + ".AUTHENTICATION";
+
     private final JweTokenService jweTokenService;
+    private final DistributionSummary decryptsPerRequest;
+
+    public JweAuthRequestFilter(JweTokenService jweTokenService, MeterRegistry meterRegistry) {
+        this.jweTokenService = jweTokenService;
+        this.decryptsPerRequest = DistributionSummary.builder("discovery.security.jwe.decrypts")
+                .description("JWE tokens decrypted per request, zero when all claims came from the cache")
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -38,36 +50,47 @@ public class JweAuthRequestFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         SecurityContext context = SecurityContextHolder.createEmptyContext();
+
+        if (isAsyncDispatch(request) && request.getAttribute(AUTHENTICATION_ATTRIBUTE) instanceof UsernamePasswordAuthenticationToken auth) {
+            context.setAuthentication(auth);
+            SecurityContextHolder.setContext(context);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         List<GrantedAuthority> authorityList = new ArrayList<>();
 
         String accessHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         String refreshHeader = request.getHeader("X-Refresh-Token");
 
         String currentUserId = "";
+        AtomicInteger decrypts = new AtomicInteger();
         if (accessHeader != null && accessHeader.startsWith("Bearer ")) {
             String accessToken = accessHeader.substring(7);
-            String userId = extractAndSetRoleForSecurityContext(accessToken, authorityList, false);
+            String userId = extractAndSetRoleForSecurityContext(accessToken, authorityList, false, decrypts);
             if (userId != null) currentUserId = userId;
         }
 
         if (refreshHeader != null && !refreshHeader.isEmpty()) {
-            String userId = extractAndSetRoleForSecurityContext(refreshHeader, authorityList, true);
+            String userId = extractAndSetRoleForSecurityContext(refreshHeader, authorityList, true, decrypts);
             if (userId != null && currentUserId.isEmpty()) currentUserId = userId;
         }
+        decryptsPerRequest.record(decrypts.get());
 
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(currentUserId, null, authorityList);
         auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         context.setAuthentication(auth);
         SecurityContextHolder.setContext(context);
+        request.setAttribute(AUTHENTICATION_ATTRIBUTE, auth);
 
         filterChain.doFilter(request, response);
     }
 
-    private String extractAndSetRoleForSecurityContext(String tokenValue, List<GrantedAuthority> authorityList, boolean isRefresh) {
+    private String extractAndSetRoleForSecurityContext(String tokenValue, List<GrantedAuthority> authorityList, boolean isRefresh, AtomicInteger decrypts) {
         try {
             if (tokenValue == null || tokenValue.trim().isEmpty()) return null;
 
-            TokenClaimsDto tokenClaimsDto = jweTokenService.validateAccessToken(tokenValue);
+            TokenClaimsDto tokenClaimsDto = jweTokenService.validateAccessToken(tokenValue, decrypts::incrementAndGet);
 
             if (tokenClaimsDto != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 SimpleGrantedAuthority auth = new SimpleGrantedAuthority("ROLE_" + tokenClaimsDto.getRole().name() + (isRefresh ? "_REFRESH" : ""));
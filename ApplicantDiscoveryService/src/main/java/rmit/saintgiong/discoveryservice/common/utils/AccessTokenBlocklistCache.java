@@ -0,0 +1,208 @@
+package rmit.saintgiong.discoveryservice.common.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rmit.saintgiong.discoveryservice.common.config.JweConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * In-process view of the revoked access token ids in the Redis blocklist.
+ * <p>
+ * A Bloom filter of all revoked ids is rebuilt from a {@code SCAN} every refresh interval. Revocations seen since
+ * then arrive as Redis keyspace notifications (the server needs {@code notify-keyspace-events} with {@code K$})
+ * and are kept in an exact set, as are ids that Redis confirmed. Only ids that the Bloom filter might contain
+ * are left to Redis. Notifications can be lost, so a filter older than the max staleness is not trusted and
+ * every lookup goes to Redis until the next successful refresh; a revocation is therefore seen locally at the
+ * latest after the max staleness.
+ * <p>
+ * Without notifications the filter could hide a revocation for a whole refresh interval, so each refresh,
+ * starting at startup, reads {@code CONFIG GET notify-keyspace-events} first. While the server does not send
+ * the needed events, or does not answer {@code CONFIG}, the cache is not warm: every lookup goes to Redis and
+ * only confirmed revocations are answered locally.
+ */
+@Component
+@Slf4j
+public class AccessTokenBlocklistCache implements MessageListener {
+
+    enum Verdict { BLOCKED, NOT_BLOCKED, UNKNOWN }
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long MIN_EXPECTED_INSERTIONS = 1024;
+    private static final String NOTIFY_KEYSPACE_EVENTS = "notify-keyspace-events";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final boolean enabled;
+    private final Duration maxStaleness;
+    private final Cache<String, Boolean> revoked;
+    private final Map<Verdict, Counter> lookupCounters = new EnumMap<>(Verdict.class);
+
+    private volatile Snapshot snapshot;
+    private volatile boolean notificationsEnabled;
+    private boolean notificationsChecked;
+
+    public AccessTokenBlocklistCache(
+            RedisTemplate<String, String> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            JweConfig jweConfig,
+            MeterRegistry meterRegistry,
+            @Value("${jwe.blocklist-cache.enabled:true}") boolean enabled,
+            @Value("${jwe.blocklist-cache.max-staleness:90s}") Duration maxStaleness,
+            @Value("${jwe.blocklist-cache.maximum-size:100000}") long maximumSize
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.maxStaleness = maxStaleness;
+        // A revoked token stays usable for at most its access token TTL, so the entry is not needed afterwards
+        this.revoked = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(jweConfig.getAccessTokenTtlSeconds()))
+                .build();
+
+        for (Verdict verdict : Verdict.values()) {
+            lookupCounters.put(verdict, Counter.builder("discovery.security.blocklist.lookups")
+                    .description("Access token blocklist lookups answered by the near cache; unknown ones go to Redis")
+                    .tag("verdict", verdict.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        if (enabled) {
+            listenerContainer.addMessageListener(this,
+                    new PatternTopic("__keyspace@*__:" + TokenStorageService.BLOCKLIST_ACCESS_TOKEN_PREFIX + "*"));
+        }
+    }
+
+    /**
+     * Answers from local state when possible. {@link Verdict#UNKNOWN} means Redis has to be asked.
+     */
+    Verdict lookup(String tokenId) {
+        Verdict verdict = resolve(tokenId);
+        lookupCounters.get(verdict).increment();
+        return verdict;
+    }
+
+    /**
+     * Records an id that Redis reported as revoked, so later lookups do not ask again.
+     */
+    void confirmBlocked(String tokenId) {
+        if (enabled) {
+            revoked.put(tokenId, Boolean.TRUE);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwe.blocklist-cache.refresh-interval:30s}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        updateNotificationsEnabled();
+        if (!notificationsEnabled) {
+            // Revocations would only be seen at the next scan, so the filter is not worth building
+            snapshot = null;
+            return;
+        }
+
+        // Revocations after the scan started may be missing from it, so staleness counts from here
+        Instant startedAt = Instant.now();
+        String prefix = TokenStorageService.BLOCKLIST_ACCESS_TOKEN_PREFIX;
+        List<String> tokenIds = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(prefix + "*").count(1000).build())) {
+            cursor.forEachRemaining(key -> tokenIds.add(key.substring(prefix.length())));
+        } catch (Exception e) {
+            log.warn("Could not refresh the access token blocklist cache: {}", e.getMessage());
+            return;
+        }
+
+        BloomFilter bloomFilter = new BloomFilter(Math.max(tokenIds.size() * 2L, MIN_EXPECTED_INSERTIONS), FALSE_POSITIVE_RATE);
+        tokenIds.forEach(bloomFilter::put);
+        snapshot = new Snapshot(bloomFilter, startedAt);
+        log.debug("Access token blocklist cache refreshed with {} revoked tokens", tokenIds.size());
+    }
+
+    private void updateNotificationsEnabled() {
+        boolean enabledNow;
+        try {
+            Properties config = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                    connection.serverCommands().getConfig(NOTIFY_KEYSPACE_EVENTS));
+            enabledNow = config != null && sendsBlocklistEvents(config.getProperty(NOTIFY_KEYSPACE_EVENTS));
+        } catch (Exception e) {
+            // Managed Redis services often reject CONFIG; without knowing the events arrive, nothing is trusted
+            log.debug("Could not read {} from Redis: {}", NOTIFY_KEYSPACE_EVENTS, e.getMessage());
+            enabledNow = false;
+        }
+
+        if (!notificationsChecked || enabledNow != notificationsEnabled) {
+            if (enabledNow) {
+                log.info("Redis sends keyspace notifications, the access token blocklist cache answers locally");
+            } else {
+                log.warn("Redis does not send keyspace notifications ({} needs K$), every access token lookup asks Redis",
+                        NOTIFY_KEYSPACE_EVENTS);
+            }
+        }
+        notificationsChecked = true;
+        notificationsEnabled = enabledNow;
+    }
+
+    // Keyspace events ('K') for string commands ('$', or 'A' for all commands)
+    static boolean sendsBlocklistEvents(String flags) {
+        return flags != null && flags.contains("K") && (flags.contains("$") || flags.contains("A"));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String key = channel.substring(channel.indexOf("__:") + 3);
+        if (!key.startsWith(TokenStorageService.BLOCKLIST_ACCESS_TOKEN_PREFIX)) {
+            return;
+        }
+
+        String tokenId = key.substring(TokenStorageService.BLOCKLIST_ACCESS_TOKEN_PREFIX.length());
+        switch (new String(message.getBody(), StandardCharsets.UTF_8)) {
+            case "set" -> revoked.put(tokenId, Boolean.TRUE);
+            case "del", "expired" -> revoked.invalidate(tokenId);
+            default -> {
+                // Other events, such as expire, do not change whether the token is revoked
+            }
+        }
+    }
+
+    private Verdict resolve(String tokenId) {
+        if (!enabled) {
+            return Verdict.UNKNOWN;
+        }
+        if (revoked.getIfPresent(tokenId) != null) {
+            return Verdict.BLOCKED;
+        }
+
+        Snapshot current = snapshot;
+        if (current == null || !notificationsEnabled || current.loadedAt().isBefore(Instant.now().minus(maxStaleness))) {
+            return Verdict.UNKNOWN;
+        }
+        return current.bloomFilter().mightContain(tokenId) ? Verdict.UNKNOWN : Verdict.NOT_BLOCKED;
+    }
+
+    private record Snapshot(BloomFilter bloomFilter, Instant loadedAt) {
+    }
+}
@@ -0,0 +1,74 @@
+package rmit.saintgiong.discoveryservice.common.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rmit.saintgiong.shared.token.TokenClaimsDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Cache of decrypted access token claims, shared across requests.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token, so raw tokens are not kept in memory, and expire when the token
+ * does, capped at the configured maximum TTL. Only successfully validated claims are cached; revocation is not
+ * part of the cached state and must still be checked on every use. Hit and miss counts are published as
+ * {@code cache.*} metrics with {@code cache=jweAccessTokenClaims}.
+ */
+@Component
+public class AccessTokenClaimsCache {
+
+    private final Cache<String, TokenClaimsDto> cache;
+
+    public AccessTokenClaimsCache(
+            MeterRegistry meterRegistry,
+            @Value("${jwe.claims-cache.max-ttl:15m}") Duration maxTtl,
+            @Value("${jwe.claims-cache.maximum-size:10000}") long maximumSize
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String key, TokenClaimsDto claims) -> ttlOf(claims, maxTtl)))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jweAccessTokenClaims");
+    }
+
+    /**
+     * Returns the cached claims of the token, or decrypts and caches them. Exceptions thrown by
+     * {@code decrypt} are passed on and nothing is cached.
+     */
+    public TokenClaimsDto get(String token, Function<String, TokenClaimsDto> decrypt) {
+        return cache.get(keyOf(token), key -> decrypt.apply(token));
+    }
+
+    static Duration ttlOf(TokenClaimsDto claims, Duration maxTtl) {
+        if (claims.getExp() <= 0) {
+            return maxTtl;
+        }
+        Duration remaining = Duration.between(Instant.now(), Instant.ofEpochSecond(claims.getExp()));
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(maxTtl) < 0 ? remaining : maxTtl;
+    }
+
+    static String keyOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
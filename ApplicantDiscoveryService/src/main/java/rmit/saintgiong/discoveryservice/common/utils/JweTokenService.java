@@ -32,6 +32,7 @@ public class JweTokenService {
     private final JweConfig jweConfig;
     private final RsaKeyLoader keyLoader;
     private final TokenStorageService tokenStorageService;
+    private final AccessTokenClaimsCache accessTokenClaimsCache;
 
     private RSAPublicKey publicKey;
     private RSAPrivateKey privateKey;
@@ -54,9 +55,31 @@ public class JweTokenService {
      * @return TokenClaimsDto containing the token claims
      */
     public TokenClaimsDto validateAccessToken(String accessToken) {
-        TokenClaimsDto tokenClaimsDto = getTokenClaimsDtoDecryptedFromTokenString(accessToken);
-        if (tokenClaimsDto.getType() != TokenType.ACCESS) {
-            throw new InvalidTokenException("Invalid token type. Expected TokenType: ACCESS");
+        return validateAccessToken(accessToken, () -> {});
+    }
+
+    /**
+     * Validates an access token like {@link #validateAccessToken(String)}. Decrypted claims are cached until
+     * the token expires. The blocklist is consulted on every call through {@link TokenStorageService}, whose
+     * near cache may answer without Redis: a revocation takes effect immediately while Redis sends keyspace
+     * notifications, and at the latest after {@code jwe.blocklist-cache.max-staleness} (90s by default) when
+     * a notification is lost. Without notifications every call asks Redis.
+     *
+     * @param onDecrypt called when the token was not cached and had to be decrypted
+     */
+    public TokenClaimsDto validateAccessToken(String accessToken, Runnable onDecrypt) {
+        TokenClaimsDto tokenClaimsDto = accessTokenClaimsCache.get(accessToken, token -> {
+            onDecrypt.run();
+            TokenClaimsDto decrypted = getTokenClaimsDtoDecryptedFromTokenString(token);
+            if (decrypted.getType() != TokenType.ACCESS) {
+                throw new InvalidTokenException("Invalid token type. Expected TokenType: ACCESS");
+            }
+            return decrypted;
+        });
+
+        // Re-checked for cached claims, which were valid when they were cached
+        if (tokenClaimsDto.getExp() > 0 && Instant.now().getEpochSecond() > tokenClaimsDto.getExp()) {
+            throw new TokenExpiredException("Token has expired.");
         }
 
         String accessTokenId = tokenClaimsDto.getJti();
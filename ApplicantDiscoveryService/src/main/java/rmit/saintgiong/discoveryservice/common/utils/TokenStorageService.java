@@ -15,13 +15,24 @@ import org.springframework.stereotype.Service;
 public class TokenStorageService {
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final AccessTokenBlocklistCache accessTokenBlocklistCache;
 
-    private static final String BLOCKLIST_ACCESS_TOKEN_PREFIX = "blocklist:access_token:";
+    static final String BLOCKLIST_ACCESS_TOKEN_PREFIX = "blocklist:access_token:";
 
+    // Asks Redis only when the local blocklist cache cannot rule the token in or out
     public boolean isAccessTokenBlocked(String tokenId) {
+        AccessTokenBlocklistCache.Verdict verdict = accessTokenBlocklistCache.lookup(tokenId);
+        if (verdict != AccessTokenBlocklistCache.Verdict.UNKNOWN) {
+            return verdict == AccessTokenBlocklistCache.Verdict.BLOCKED;
+        }
+
         String key = BLOCKLIST_ACCESS_TOKEN_PREFIX + tokenId;
         Boolean exists = redisTemplate.hasKey(key);
-        return Boolean.TRUE.equals(exists);
+        boolean blocked = Boolean.TRUE.equals(exists);
+        if (blocked) {
+            accessTokenBlocklistCache.confirmBlocked(tokenId);
+        }
+        return blocked;
     }
 
 }
@@ -0,0 +1,40 @@
+package rmit.saintgiong.discoveryservice.domain.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import rmit.saintgiong.discoveryapi.internal.common.dto.BackgroundJobDto;
+import rmit.saintgiong.discoveryservice.domain.services.job.BackgroundJobService;
+
+import java.util.List;
+import java.util.UUID;
+
+// Status and cancellation of the background jobs (applicant syncs, index rebuilds), whichever instance runs them
+@RestController
+public class JobController {
+
+    private final BackgroundJobService backgroundJobService;
+
+    public JobController(BackgroundJobService backgroundJobService) {
+        this.backgroundJobService = backgroundJobService;
+    }
+
+    @GetMapping("applicants/jobs")
+    public ResponseEntity<List<BackgroundJobDto>> getJobs() {
+        return ResponseEntity.ok(backgroundJobService.getJobs());
+    }
+
+    @GetMapping("applicants/jobs/{jobId}")
+    public ResponseEntity<BackgroundJobDto> getJob(@PathVariable UUID jobId) {
+        return ResponseEntity.of(backgroundJobService.getJob(jobId));
+    }
+
+    @PostMapping("applicants/jobs/{jobId}/cancel")
+    public ResponseEntity<BackgroundJobDto> cancelJob(@PathVariable UUID jobId) {
+        return backgroundJobService.cancel(jobId)
+                .map(job -> ResponseEntity.accepted().body(job))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
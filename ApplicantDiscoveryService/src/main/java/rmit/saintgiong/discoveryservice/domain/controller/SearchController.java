@@ -1,15 +1,20 @@
 package rmit.saintgiong.discoveryservice.domain.controller;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import rmit.saintgiong.discoveryapi.internal.common.dto.BackgroundJobDto;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobType;
 import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
 import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.SearchingInterface;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.ApplicantIndexRebuildService;
 import rmit.saintgiong.discoveryservice.domain.services.external.ExternalUserProfileService;
+import rmit.saintgiong.discoveryservice.domain.services.job.BackgroundJobService;
 
 import java.util.List;
 import java.util.UUID;
@@ -19,15 +24,22 @@ public class SearchController {
 
     private final SearchingInterface searchingInterface;
     private final ExternalUserProfileService externalUserProfileService;
+    private final ApplicantIndexRebuildService applicantIndexRebuildService;
+    private final BackgroundJobService backgroundJobService;
 
-    public SearchController(SearchingInterface searchingInterface, rmit.saintgiong.discoveryservice.domain.services.external.ExternalUserProfileService externalUserProfileService) {
+    public SearchController(SearchingInterface searchingInterface, rmit.saintgiong.discoveryservice.domain.services.external.ExternalUserProfileService externalUserProfileService, ApplicantIndexRebuildService applicantIndexRebuildService, BackgroundJobService backgroundJobService) {
         this.searchingInterface = searchingInterface;
         this.externalUserProfileService = externalUserProfileService;
+        this.applicantIndexRebuildService = applicantIndexRebuildService;
+        this.backgroundJobService = backgroundJobService;
     }
 
+    // Starts a sync job; poll applicants/jobs/{jobId} for progress and the summary
     @PostMapping("applicants/sync")
-    public ResponseEntity<List<ApplicantDocument>> syncApplicants() {
-        return ResponseEntity.ok(externalUserProfileService.syncApplicants());
+    public ResponseEntity<BackgroundJobDto> syncApplicants(@RequestParam(defaultValue = "false") boolean full) {
+        return backgroundJobService.submit(JobType.APPLICANT_SYNC, context -> externalUserProfileService.syncApplicants(full, context))
+                .map(job -> ResponseEntity.accepted().body(job))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
     }
 
     @GetMapping("applicants/all")
@@ -61,12 +73,17 @@ public class SearchController {
                 name, keyword, location, isCountry, education, skills, experienceType, pageable));
     }
 
+    // Searches keep using the current index until the rebuild job completes
+    @PostMapping("applicants/index/rebuild")
+    public ResponseEntity<BackgroundJobDto> rebuildIndex() {
+        return backgroundJobService.submit(JobType.APPLICANT_INDEX_REBUILD, applicantIndexRebuildService::rebuild)
+                .map(job -> ResponseEntity.accepted().body(job))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    // Kept for existing clients: rebuilds behind the aliases instead of deleting the live index
     @DeleteMapping("applicants/index")
-    public ResponseEntity<String> resetIndex() {
-        if (searchingInterface instanceof rmit.saintgiong.discoveryservice.domain.services.elasticsearch.SearchingService) {
-            ((rmit.saintgiong.discoveryservice.domain.services.elasticsearch.SearchingService) searchingInterface).deleteIndex();
-            return ResponseEntity.ok("Index deleted. Please call /applicants/sync to re-populate.");
-        }
-        return ResponseEntity.status(501).body("Not implemented or interface mismatch");
+    public ResponseEntity<BackgroundJobDto> resetIndex() {
+        return rebuildIndex();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package rmit.saintgiong.discoveryservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobStatus;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * State of a background job, shared by all instances: the instance running the job writes its progress, and
+ * any instance can read it or request cancellation.
+ */
+@Entity(name = "background_job")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BackgroundJobEntity {
+    @Id
+    @Column(name = "job_id")
+    private UUID jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private JobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private JobStatus status;
+
+    @Column(name = "phase")
+    private String phase;
+
+    @Column(name = "processed")
+    private long processed;
+
+    @Column(name = "cancel_requested")
+    private boolean cancelRequested;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Job result as JSON
+    @Column(name = "result", columnDefinition = "text")
+    private String result;
+
+    @Column(name = "error", columnDefinition = "text")
+    private String error;
+}
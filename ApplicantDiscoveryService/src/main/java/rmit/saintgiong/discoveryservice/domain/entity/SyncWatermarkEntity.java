@@ -0,0 +1,26 @@
+package rmit.saintgiong.discoveryservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * High-water mark of an incremental sync: the latest source {@code updatedAt} that has been fully indexed.
+ */
+@Entity(name = "sync_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncWatermarkEntity {
+    @Id
+    @Column(name = "sync_name")
+    private String syncName;
+
+    @Column(name = "high_water_mark")
+    private LocalDateTime highWaterMark;
+
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+}
@@ -0,0 +1,73 @@
+package rmit.saintgiong.discoveryservice.domain.services;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobStatus;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobType;
+import rmit.saintgiong.discoveryservice.domain.entity.BackgroundJobEntity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Updates touch only the columns their writer owns, so progress written by the running instance never
+// overwrites a cancellation requested by another one
+@Repository
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJobEntity, UUID> {
+    List<BackgroundJobEntity> findAllByOrderBySubmittedAtDesc();
+
+    @Query("select j.cancelRequested from background_job j where j.jobId = :jobId")
+    Optional<Boolean> findCancelRequested(@Param("jobId") UUID jobId);
+
+    @Modifying
+    @Transactional
+    @Query("update background_job j set j.cancelRequested = true where j.jobId = :jobId and j.finishedAt is null")
+    int requestCancel(@Param("jobId") UUID jobId);
+
+    @Modifying
+    @Transactional
+    @Query("update background_job j set j.status = :status, j.startedAt = :startedAt where j.jobId = :jobId")
+    int markStarted(@Param("jobId") UUID jobId, @Param("status") JobStatus status, @Param("startedAt") LocalDateTime startedAt);
+
+    @Modifying
+    @Transactional
+    @Query("update background_job j set j.phase = :phase, j.processed = :processed where j.jobId = :jobId")
+    int updateProgress(@Param("jobId") UUID jobId, @Param("phase") String phase, @Param("processed") long processed);
+
+    @Modifying
+    @Transactional
+    @Query("update background_job j set j.status = :status, j.phase = :phase, j.processed = :processed, "
+            + "j.finishedAt = :finishedAt, j.result = :result, j.error = :error where j.jobId = :jobId")
+    int markFinished(
+            @Param("jobId") UUID jobId,
+            @Param("status") JobStatus status,
+            @Param("phase") String phase,
+            @Param("processed") long processed,
+            @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("result") String result,
+            @Param("error") String error
+    );
+
+    // Only called while holding the lock of these types, so no instance is running any of them
+    @Modifying
+    @Transactional
+    @Query("update background_job j set j.status = :status, j.finishedAt = :finishedAt, j.error = :error "
+            + "where j.type in :types and j.finishedAt is null")
+    int failUnfinished(
+            @Param("types") Collection<JobType> types,
+            @Param("status") JobStatus status,
+            @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("error") String error
+    );
+
+    @Modifying
+    @Transactional
+    @Query("delete from background_job j where j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
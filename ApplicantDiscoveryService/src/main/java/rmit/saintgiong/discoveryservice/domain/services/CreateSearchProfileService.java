@@ -3,13 +3,15 @@ package rmit.saintgiong.discoveryservice.domain.services;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import rmit.saintgiong.discoveryapi.external.services.ExternalDiscoveryRequestInterface;
 import rmit.saintgiong.discoveryapi.internal.service.InternalCreateSearchProfileInterface;
 import rmit.saintgiong.discoveryapi.internal.common.dto.CreateSearchProfileRequestDto;
 import rmit.saintgiong.discoveryapi.internal.common.dto.SearchProfileResponseDto;
 import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
 import rmit.saintgiong.discoveryservice.domain.mapper.SearchProfileMapper;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.SearchProfilePercolatorService;
+import rmit.saintgiong.discoveryservice.domain.services.external.CompanyPremiumStatusCache;
+import rmit.saintgiong.discoveryservice.domain.services.external.PremiumCompanyRegistry;
+import rmit.saintgiong.discoveryservice.domain.services.matching.SearchProfileMatchIndex;
 
 @Service
 @AllArgsConstructor
@@ -18,7 +20,10 @@ public class CreateSearchProfileService implements InternalCreateSearchProfileIn
 
     private final SearchProfileRepository searchProfileRepository;
     private final SearchProfileMapper searchProfileMapper;
-    private final ExternalDiscoveryRequestInterface externalDiscoveryRequestInterface;
+    private final PremiumCompanyRegistry premiumCompanyRegistry;
+    private final CompanyPremiumStatusCache companyPremiumStatusCache;
+    private final SearchProfileMatchIndex searchProfileMatchIndex;
+    private final SearchProfilePercolatorService searchProfilePercolatorService;
 
     /**
      * Creates a new search profile for applicant discovery.
@@ -30,17 +35,20 @@ public class CreateSearchProfileService implements InternalCreateSearchProfileIn
      *         details including the generated profile ID
      * @throws IllegalArgumentException if the request is null
      */
+    // Not @Transactional: the premium check may wait on a Kafka reply and must not hold a
+    // pooled connection meanwhile. save() runs in its own transaction, cascading to skill tags.
     @Override
-    @Transactional
     public SearchProfileResponseDto createSearchProfile(CreateSearchProfileRequestDto request) {
         // Validate request is not null
         if (request == null) {
             throw new IllegalArgumentException("Request cannot be null");
         }
 
-        Boolean companyPremiumStatus = externalDiscoveryRequestInterface.sendGetCompanyPremiumStatusRequest(request.getCompanyId());
+        // Companies in the premium snapshot need no request; others may have upgraded since the last refresh
+        boolean companyPremiumStatus = premiumCompanyRegistry.isPremium(request.getCompanyId())
+                || companyPremiumStatusCache.isPremium(request.getCompanyId());
 
-        if(companyPremiumStatus == null || !companyPremiumStatus) {
+        if (!companyPremiumStatus) {
             throw new IllegalArgumentException("Company is not premium or does not exist: " + request.getCompanyId());
         }
 
@@ -61,7 +69,11 @@ public class CreateSearchProfileService implements InternalCreateSearchProfileIn
         // Persist the search profile entity to the database
         SearchProfileEntity savedEntity = searchProfileRepository.save(entity);
         log.info("Search profile created successfully with ID: {}", savedEntity.getProfileId());
-        
+
+        // Make the new profile visible to applicant matching
+        searchProfileMatchIndex.upsert(savedEntity);
+        searchProfilePercolatorService.register(savedEntity);
+
         // Convert the saved entity back to response DTO
         return searchProfileMapper.entityToResponseDto(savedEntity);
     }
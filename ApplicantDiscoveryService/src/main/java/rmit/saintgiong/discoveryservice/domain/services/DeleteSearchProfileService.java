@@ -6,6 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rmit.saintgiong.discoveryapi.internal.service.InternalDeleteSearchProfileInterface;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.SearchProfilePercolatorService;
+import rmit.saintgiong.discoveryservice.domain.services.matching.SearchProfileMatchIndex;
 
 import java.util.UUID;
 
@@ -15,6 +17,8 @@ import java.util.UUID;
 public class DeleteSearchProfileService implements InternalDeleteSearchProfileInterface {
 
     private final SearchProfileRepository searchProfileRepository;
+    private final SearchProfileMatchIndex searchProfileMatchIndex;
+    private final SearchProfilePercolatorService searchProfilePercolatorService;
 
     /**
      * Deletes a search profile by its unique identifier.
@@ -40,6 +44,8 @@ public class DeleteSearchProfileService implements InternalDeleteSearchProfileIn
 
         // Delete the profile (cascades to skill tags due to orphanRemoval=true)
         searchProfileRepository.deleteById(profileId);
+        searchProfileMatchIndex.remove(profileId);
+        searchProfilePercolatorService.deregister(profileId);
         log.info("Search profile deleted successfully with ID: {}", profileId);
     }
 }
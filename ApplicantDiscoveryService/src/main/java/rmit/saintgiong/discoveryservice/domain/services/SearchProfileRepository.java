@@ -2,6 +2,7 @@ package rmit.saintgiong.discoveryservice.domain.services;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
 
@@ -12,6 +13,11 @@ import java.util.UUID;
 public interface SearchProfileRepository extends JpaRepository<SearchProfileEntity, UUID> {
     List<SearchProfileEntity> findByCompanyId(UUID companyId);
 
+    // Loads every profile with its skill tags in one query, for the in-memory index and the percolator
+    @EntityGraph(attributePaths = "skillTags")
+    @Query("select p from search_profile p")
+    List<SearchProfileEntity> findAllWithSkillTags();
+
     @EntityGraph(attributePaths = "skillTags")
     List<SearchProfileEntity> findByCompanyIdIn(List<UUID> companyIds);
 }
@@ -0,0 +1,9 @@
+package rmit.saintgiong.discoveryservice.domain.services;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import rmit.saintgiong.discoveryservice.domain.entity.SyncWatermarkEntity;
+
+@Repository
+public interface SyncWatermarkRepository extends JpaRepository<SyncWatermarkEntity, String> {
+}
@@ -10,6 +10,8 @@ import rmit.saintgiong.discoveryapi.internal.service.InternalUpdateSearchProfile
 import rmit.saintgiong.discoveryapi.internal.common.dto.SearchProfileResponseDto;
 import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
 import rmit.saintgiong.discoveryservice.domain.mapper.SearchProfileMapper;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.SearchProfilePercolatorService;
+import rmit.saintgiong.discoveryservice.domain.services.matching.SearchProfileMatchIndex;
 
 import java.util.UUID;
 
@@ -20,6 +22,8 @@ public class UpdateSearchProfileService implements InternalUpdateSearchProfileIn
 
     private final SearchProfileRepository searchProfileRepository;
     private final SearchProfileMapper searchProfileMapper;
+    private final SearchProfileMatchIndex searchProfileMatchIndex;
+    private final SearchProfilePercolatorService searchProfilePercolatorService;
 
     /**
      * Updates an existing search profile with the provided data.
@@ -69,6 +73,10 @@ public class UpdateSearchProfileService implements InternalUpdateSearchProfileIn
         SearchProfileEntity savedEntity = searchProfileRepository.save(existingEntity);
         log.info("Search profile updated successfully with ID: {}", savedEntity.getProfileId());
 
+        // Refresh the profile's posting lists used by applicant matching
+        searchProfileMatchIndex.upsert(savedEntity);
+        searchProfilePercolatorService.register(savedEntity);
+
         // Convert and return the updated entity as response DTO
         return searchProfileMapper.entityToResponseDto(savedEntity);
     }
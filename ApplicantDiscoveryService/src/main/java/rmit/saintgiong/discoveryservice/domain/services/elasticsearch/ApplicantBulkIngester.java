@@ -0,0 +1,281 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.document.Education;
+import rmit.saintgiong.discoveryapi.internal.document.WorkExperience;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.BulkIndexResult;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.IndexingInterface;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous, buffered bulk writer for applicant documents.
+ * <p>
+ * Documents are buffered and sent through {@link IndexingInterface#indexApplicants} once the buffer holds
+ * {@code max-documents} documents, reaches roughly {@code max-bytes} of source, or the oldest buffered document
+ * has waited {@code max-linger}. At most {@code max-in-flight} bulk requests run at once; a flush that would
+ * exceed it blocks the caller until a request completes. Every added document gets a future that completes
+ * once its bulk request has been answered, or fails with the reason Elasticsearch rejected it. Callers waiting
+ * for those futures give up once no request has been answered for {@code request-timeout}.
+ */
+@Component
+@Slf4j
+public class ApplicantBulkIngester {
+
+    // Rough per-field and per-entry JSON overhead used by the size estimate
+    private static final int FIELD_OVERHEAD_BYTES = 16;
+    private static final int DATE_BYTES = 21;
+
+    private final IndexingInterface indexingInterface;
+    private final int maxDocuments;
+    private final long maxBytes;
+    private final Duration maxLinger;
+    private final Duration requestTimeout;
+
+    private final Semaphore inFlight;
+    private final ExecutorService flushExecutor;
+    private final ScheduledExecutorService lingerScheduler;
+
+    private final Timer flushTimer;
+    private final Counter indexedCounter;
+    private final Counter failedCounter;
+
+    private final Object lock = new Object();
+    private List<PendingDocument> buffer = new ArrayList<>();
+    private long bufferedBytes;
+    private ScheduledFuture<?> lingerFlush;
+
+    public ApplicantBulkIngester(
+            IndexingInterface indexingInterface,
+            MeterRegistry meterRegistry,
+            @Value("${discovery.indexing.bulk.max-documents:500}") int maxDocuments,
+            @Value("${discovery.indexing.bulk.max-bytes:5242880}") long maxBytes,
+            @Value("${discovery.indexing.bulk.max-linger:1s}") Duration maxLinger,
+            @Value("${discovery.indexing.bulk.max-in-flight:2}") int maxInFlight,
+            @Value("${discovery.indexing.bulk.request-timeout:2m}") Duration requestTimeout
+    ) {
+        this.indexingInterface = indexingInterface;
+        this.maxDocuments = maxDocuments;
+        this.maxBytes = maxBytes;
+        this.maxLinger = maxLinger;
+        this.requestTimeout = requestTimeout;
+
+        this.inFlight = new Semaphore(maxInFlight);
+        this.flushExecutor = Executors.newFixedThreadPool(maxInFlight, daemonThreads("bulk-ingest"));
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("bulk-ingest-linger"));
+
+        this.flushTimer = Timer.builder("discovery.indexing.bulk.flush")
+                .description("Latency of applicant bulk index requests")
+                .register(meterRegistry);
+        this.indexedCounter = Counter.builder("discovery.indexing.bulk.documents")
+                .tag("outcome", "indexed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("discovery.indexing.bulk.documents")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffers a document for the next bulk request. May block while the maximum number of bulk requests is in flight.
+     */
+    public CompletableFuture<Void> add(ApplicantDocument document) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        List<PendingDocument> full = null;
+
+        synchronized (lock) {
+            buffer.add(new PendingDocument(document, result));
+            bufferedBytes += estimateSize(document);
+
+            if (buffer.size() >= maxDocuments || bufferedBytes >= maxBytes) {
+                full = drain();
+            } else if (lingerFlush == null) {
+                lingerFlush = lingerScheduler.schedule(this::flush, maxLinger.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (full != null) {
+            send(full);
+        }
+        return result;
+    }
+
+    /**
+     * Adds every document, flushes the remainder and returns a future of their combined outcome. The future
+     * itself does not fail; rejected documents are listed in its failures.
+     */
+    public CompletableFuture<BulkIndexResult> addAll(Collection<ApplicantDocument> documents) {
+        List<String> indexedIds = Collections.synchronizedList(new ArrayList<>());
+        Map<String, String> failures = new ConcurrentHashMap<>();
+
+        List<CompletableFuture<Void>> results = new ArrayList<>(documents.size());
+        for (ApplicantDocument document : documents) {
+            String id = document.applicantId().toString();
+            results.add(add(document).handle((ignored, e) -> {
+                if (e == null) {
+                    indexedIds.add(id);
+                } else {
+                    failures.put(id, String.valueOf(e.getMessage()));
+                }
+                return null;
+            }));
+        }
+        flush();
+
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> new BulkIndexResult(List.copyOf(indexedIds), Map.copyOf(failures)));
+    }
+
+    /**
+     * Returns how long a bulk request may take to be answered before waiting for it is given up.
+     */
+    public Duration requestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Sends whatever is buffered without waiting for the size or linger thresholds.
+     */
+    public void flush() {
+        List<PendingDocument> pending;
+        synchronized (lock) {
+            pending = drain();
+        }
+        if (!pending.isEmpty()) {
+            send(pending);
+        }
+    }
+
+    private List<PendingDocument> drain() {
+        List<PendingDocument> pending = buffer;
+        buffer = new ArrayList<>();
+        bufferedBytes = 0;
+        if (lingerFlush != null) {
+            lingerFlush.cancel(false);
+            lingerFlush = null;
+        }
+        return pending;
+    }
+
+    private void send(List<PendingDocument> pending) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.forEach(entry -> entry.result().completeExceptionally(e));
+            return;
+        }
+
+        try {
+            flushExecutor.execute(() -> {
+                try {
+                    List<ApplicantDocument> documents = pending.stream().map(PendingDocument::document).toList();
+                    BulkIndexResult result = flushTimer.record(() -> indexingInterface.indexApplicants(documents));
+                    complete(pending, result);
+                } catch (Exception e) {
+                    log.error("Bulk request for {} applicants failed", pending.size(), e);
+                    failedCounter.increment(pending.size());
+                    pending.forEach(entry -> entry.result().completeExceptionally(e));
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            pending.forEach(entry -> entry.result().completeExceptionally(e));
+        }
+    }
+
+    private void complete(List<PendingDocument> pending, BulkIndexResult result) {
+        for (PendingDocument entry : pending) {
+            String failure = result.failures().get(entry.document().applicantId().toString());
+            if (failure == null) {
+                indexedCounter.increment();
+                entry.result().complete(null);
+            } else {
+                failedCounter.increment();
+                entry.result().completeExceptionally(new IllegalStateException(failure));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flush();
+        lingerScheduler.shutdownNow();
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Estimates the JSON source size of a document without serializing it.
+     */
+    static long estimateSize(ApplicantDocument document) {
+        long size = 64 + 2 * DATE_BYTES
+                + length(document.firstName()) + length(document.lastName()) + length(document.phone())
+                + length(document.address()) + length(document.city()) + length(document.biography())
+                + length(document.aboutMe()) + length(document.avatarUrl()) + length(document.country())
+                + 16L * FIELD_OVERHEAD_BYTES;
+
+        if (document.educations() != null) {
+            for (Education education : document.educations()) {
+                size += 7 * FIELD_OVERHEAD_BYTES + 2 * DATE_BYTES
+                        + length(education.institutionName()) + length(education.degree())
+                        + length(education.description());
+            }
+        }
+        if (document.workExperiences() != null) {
+            for (WorkExperience experience : document.workExperiences()) {
+                size += 7 * FIELD_OVERHEAD_BYTES + 2 * DATE_BYTES
+                        + length(experience.companyName()) + length(experience.position())
+                        + length(experience.description()) + length(experience.country());
+            }
+        }
+        if (document.skillIds() != null) {
+            size += 8L * document.skillIds().size();
+        }
+        if (document.skillNames() != null) {
+            for (String skillName : document.skillNames()) {
+                size += 3 + length(skillName);
+            }
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record PendingDocument(ApplicantDocument document, CompletableFuture<Void> result) {
+    }
+}
@@ -0,0 +1,61 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.stereotype.Component;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Computes a stable hash of the content an applicant is indexed with.
+ * <p>
+ * The document is hashed in its stored form with keys sorted, so the hash only changes when a stored value
+ * changes. Timestamps are left out: a profile saved again without changes keeps its hash. So is the currently
+ * employed flag, which repeats a hashed field. The total experience months stay in although they depend on the
+ * time of indexing: a current job adds a month every month, and the changed hash is what makes the next sync
+ * index the new total instead of skipping the applicant.
+ */
+@Component
+public class ApplicantContentHasher {
+
+    public static final String CONTENT_HASH_FIELD = "contentHash";
+    private static final Set<String> IGNORED_FIELDS = Set.of(
+            "createdAt", "updatedAt", CONTENT_HASH_FIELD, "currentlyEmployed");
+
+    private final ElasticsearchConverter converter;
+    private final ObjectWriter writer;
+
+    public ApplicantContentHasher(ElasticsearchOperations elasticsearchOperations, ObjectMapper objectMapper) {
+        this.converter = elasticsearchOperations.getElasticsearchConverter();
+        this.writer = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    public String hash(ApplicantDocument document) {
+        Document stored = converter.mapObject(document);
+        IGNORED_FIELDS.forEach(stored::remove);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(writer.writeValueAsBytes(stored));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash applicant " + document.applicantId(), e);
+        }
+    }
+
+    /**
+     * Returns the document as it is indexed: with its work experience summary derived now and its content hash.
+     */
+    public ApplicantDocument withHash(ApplicantDocument document) {
+        ApplicantDocument summarized = document.withWorkExperienceSummary(LocalDateTime.now());
+        return summarized.withContentHash(hash(summarized));
+    }
+}
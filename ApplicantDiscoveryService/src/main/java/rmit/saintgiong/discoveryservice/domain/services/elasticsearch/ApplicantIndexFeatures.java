@@ -0,0 +1,13 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+/**
+ * Optional fields the live applicants index can be searched on. Indices from before a field was introduced
+ * lack it until they are rebuilt or backfilled, and are searched the former way.
+ *
+ * @param normalizedKeywords    lowercase-normalized keyword subfields such as {@code city.normalized}
+ * @param workExperienceSummary root-level work experience summary fields such as {@code hasWorkExperience}
+ */
+public record ApplicantIndexFeatures(boolean normalizedKeywords, boolean workExperienceSummary) {
+
+    public static final ApplicantIndexFeatures ALL = new ApplicantIndexFeatures(true, true);
+}
@@ -0,0 +1,747 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.get_mapping.IndexMappingRecord;
+import co.elastic.clients.json.JsonData;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.NoSuchIndexException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryservice.domain.services.job.JobLockService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Owns the lifecycle of the applicants index.
+ * <p>
+ * Applicants live in versioned indices ({@code applicants_v1}, {@code applicants_v2}, ...). Searches go through
+ * the {@code applicants} read alias and writes through the {@code applicants_write} alias, so an index can be
+ * rebuilt next to the live one and swapped in atomically (see {@link ApplicantIndexRebuildService}). While a
+ * rebuild runs, the index being built carries the {@code applicants_rebuild} alias and writes are sent to both
+ * indices.
+ * <p>
+ * The aliases are the shared state between instances. Writes go through the write alias, which Elasticsearch
+ * resolves per request, and each write re-reads the aliases once it completed (see {@link WritePlan}): a rebuild
+ * or swap started on another instance is followed by the very next write, without relying on timing. Deletions
+ * made during a rebuild are collected in Redis for the same reason, and instances bulk loading the index hold a
+ * shared lock, so the live settings are only restored once no instance is loading any more. Reads of the layout
+ * for searches and settings are cached for the refresh interval.
+ * <p>
+ * The layout is created with the mapping derived from {@link ApplicantDocument} and explicit settings from
+ * configuration, or validated against them when it already exists, once per application run. The outcome is
+ * remembered, so writes do not pay an existence check per document; it is only re-checked after an
+ * operation reports that the index is missing. A concrete {@code applicants} index from before the versioned
+ * layout keeps being served as is until the first rebuild replaces it.
+ */
+@Component
+public class ApplicantIndexManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicantIndexManager.class);
+    public static final String APPLICANTS_INDEX = "applicants";
+    public static final String WRITE_ALIAS = "applicants_write";
+    public static final String REBUILD_ALIAS = "applicants_rebuild";
+    private static final String VERSION_PREFIX = "applicants_v";
+    // Set in _meta once every applicant in the index has the work experience summary fields
+    private static final String WORK_EXPERIENCE_SUMMARY_META = "applicants_work_experience_summary";
+    private static final String DELETED_DURING_REBUILD_KEY = "discovery:applicants:deleted-during-rebuild";
+    private static final Duration DELETED_DURING_REBUILD_TTL = Duration.ofDays(1);
+    private static final String INGEST_LOCK = "applicant-index-ingest";
+    private static final Pattern VERSIONED_INDEX = Pattern.compile(Pattern.quote(VERSION_PREFIX) + "(\\d+)");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JobLockService jobLockService;
+    private final int shards;
+    private final int replicas;
+    private final String refreshInterval;
+    private final Duration layoutRefresh;
+
+    private volatile boolean ready;
+    private volatile IndexLayout layout;
+    // Bumped whenever the cached layout is dropped, so a read that started earlier does not cache stale aliases
+    private final AtomicLong layoutChanges = new AtomicLong();
+    // Guards the ingest sessions; kept apart from the layout monitor, since entering and leaving ingest mode
+    // waits for Postgres and Elasticsearch
+    private final Object ingestState = new Object();
+    private int activeIngestSessions;
+    private JobLockService.JobLock ingestLock;
+
+    public ApplicantIndexManager(
+            ElasticsearchOperations elasticsearchOperations,
+            ElasticsearchClient elasticsearchClient,
+            RedisTemplate<String, String> redisTemplate,
+            JobLockService jobLockService,
+            @Value("${discovery.indexing.applicants.shards:1}") int shards,
+            @Value("${discovery.indexing.applicants.replicas:1}") int replicas,
+            @Value("${discovery.indexing.applicants.refresh-interval:1s}") String refreshInterval,
+            @Value("${discovery.indexing.applicants.layout-refresh:5s}") Duration layoutRefresh
+    ) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.redisTemplate = redisTemplate;
+        this.jobLockService = jobLockService;
+        this.shards = shards;
+        this.replicas = replicas;
+        this.refreshInterval = refreshInterval;
+        this.layoutRefresh = layoutRefresh;
+    }
+
+    /**
+     * Prepares the index at startup. Failures are logged and retried on the first write.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            ensureReady();
+        } catch (Exception e) {
+            log.warn("Could not prepare index '{}' at startup, retrying on first use: {}", APPLICANTS_INDEX, e.getMessage());
+        }
+    }
+
+    /**
+     * Creates or validates the index layout unless that already succeeded.
+     */
+    public void ensureReady() {
+        if (ready) {
+            return;
+        }
+        synchronized (this) {
+            if (!ready) {
+                createOrValidate();
+                ready = true;
+            }
+        }
+    }
+
+    /**
+     * Forgets the cached state, so the next operation creates or validates the index again.
+     */
+    public void invalidate() {
+        ready = false;
+    }
+
+    /**
+     * Runs an operation against the index, recreating the index and retrying once when it turns out to be missing.
+     */
+    public <T> T execute(Supplier<T> operation) {
+        ensureReady();
+        try {
+            return operation.get();
+        } catch (NoSuchIndexException e) {
+            log.warn("Index '{}' is missing, recreating it", APPLICANTS_INDEX);
+            invalidate();
+            ensureReady();
+            return operation.get();
+        }
+    }
+
+    /**
+     * Starts a write: the caller writes to {@link WritePlan#target()}, then repeats the write on
+     * {@link WritePlan#followUpTargets()}.
+     */
+    public WritePlan planWrite() {
+        IndexLayout current = layout();
+        return new WritePlan(current.liveIndex(), current.writeTarget());
+    }
+
+    /**
+     * Remembers a deletion made while a rebuild runs, so it is not undone by documents copied afterwards.
+     */
+    public void recordDeletion(String applicantId) {
+        redisTemplate.opsForSet().add(DELETED_DURING_REBUILD_KEY, applicantId);
+        redisTemplate.expire(DELETED_DURING_REBUILD_KEY, DELETED_DURING_REBUILD_TTL);
+    }
+
+    /**
+     * One write against the applicants, kept consistent with rebuilds and swaps made by any instance.
+     * <p>
+     * The write goes to the write alias first. Only then are the aliases read again, and the write is repeated
+     * on the index being rebuilt, if any, and on the write alias when it moved to another index in between. A
+     * rebuild adds its alias and refreshes the live index before copying it, so a write that completed before
+     * the alias existed is part of the copy, and any later write sees the alias.
+     */
+    public final class WritePlan {
+
+        private final String liveIndex;
+        private final IndexCoordinates target;
+        private boolean rebuilding;
+
+        private WritePlan(String liveIndex, String writeTarget) {
+            this.liveIndex = liveIndex;
+            this.target = IndexCoordinates.of(writeTarget);
+        }
+
+        public IndexCoordinates target() {
+            return target;
+        }
+
+        /**
+         * Re-reads the aliases, once the write to {@link #target()} completed, and returns where it must be
+         * repeated.
+         */
+        public List<IndexCoordinates> followUpTargets() {
+            AliasTargets current = readAliases();
+            if (current == null) {
+                return List.of();
+            }
+            rebuilding = current.rebuildIndex() != null;
+
+            List<IndexCoordinates> targets = new ArrayList<>(2);
+            if (!current.liveIndex().equals(liveIndex)) {
+                // Swapped since the layout was read: the write may have reached the previous index only
+                targets.add(IndexCoordinates.of(writeTargetOf(current.liveIndex())));
+                forgetLayout();
+            }
+            if (rebuilding) {
+                targets.add(IndexCoordinates.of(current.rebuildIndex()));
+            }
+            return targets;
+        }
+
+        /**
+         * Whether {@link #followUpTargets()} found a rebuild in progress.
+         */
+        public boolean rebuilding() {
+            return rebuilding;
+        }
+    }
+
+    /**
+     * Returns the concrete index currently served by the read alias (or the legacy un-versioned index).
+     */
+    public String liveIndex() {
+        return layout().liveIndex();
+    }
+
+    /**
+     * Returns the name of the next versioned index after the live one.
+     */
+    public String nextIndexName() {
+        Matcher matcher = VERSIONED_INDEX.matcher(liveIndex());
+        int version = matcher.matches() ? Integer.parseInt(matcher.group(1)) + 1 : 1;
+        return VERSION_PREFIX + version;
+    }
+
+    /**
+     * Returns which optional fields the live index can be searched on.
+     */
+    public ApplicantIndexFeatures features() {
+        return layout().features();
+    }
+
+    /**
+     * Analysis settings needed by the applicant mapping, as flat index settings.
+     */
+    public static Map<String, Object> analysisSettings() {
+        String normalizer = "index.analysis.normalizer." + ApplicantDocument.KEYWORD_NORMALIZER;
+        return Map.of(
+                normalizer + ".type", "custom",
+                normalizer + ".filter", List.of("lowercase", "asciifolding")
+        );
+    }
+
+    /**
+     * Creates a versioned index with the applicant mapping, the configured shard count and the given dynamic settings.
+     */
+    public void createIndex(String index, int replicas, String refreshInterval) {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(index));
+        Map<String, Object> settings = new HashMap<>(analysisSettings());
+        settings.put("index.number_of_shards", shards);
+        settings.put("index.number_of_replicas", replicas);
+        settings.put("index.refresh_interval", refreshInterval);
+        indexOps.create(settings, elasticsearchOperations.indexOps(ApplicantDocument.class).createMapping());
+    }
+
+    /**
+     * Applies replica count and refresh interval to an existing index.
+     */
+    public void updateSettings(String index, int replicas, String refreshInterval) {
+        try {
+            elasticsearchClient.indices().putSettings(request -> request
+                    .index(index)
+                    .settings(settings -> settings
+                            .numberOfReplicas(String.valueOf(replicas))
+                            .refreshInterval(time -> time.time(refreshInterval))));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to update settings of index '" + index + "'", e);
+        }
+    }
+
+    /**
+     * Restores the configured replica count and refresh interval, e.g. after a bulk load.
+     */
+    public void restoreSettings(String index) {
+        updateSettings(index, replicas, refreshInterval);
+    }
+
+    /**
+     * Restores the live settings unless an instance is bulk loading the index; the last one to finish restores
+     * them instead.
+     */
+    private void restoreSettingsUnlessIngesting(String index) {
+        Optional<JobLockService.JobLock> lock;
+        try {
+            lock = jobLockService.tryAcquire(INGEST_LOCK);
+        } catch (IllegalStateException e) {
+            // Restoring too early only slows a running load down, while bulk settings left behind hide updates
+            log.warn("Could not check for ingest sessions on '{}', restoring its settings: {}", index, e.getMessage());
+            restoreSettings(index);
+            return;
+        }
+        if (lock.isEmpty()) {
+            log.info("Index '{}' is being bulk loaded, leaving its settings to the loading instance", index);
+            return;
+        }
+        try (JobLockService.JobLock ignored = lock.get()) {
+            restoreSettings(index);
+        }
+    }
+
+    /**
+     * Switches the live index to bulk-load settings (no refresh, no replicas) until the returned session is closed.
+     * Concurrent sessions, on this or other instances, share the bulk settings; the live settings are restored
+     * when the last one closes.
+     *
+     * @param forceMerge whether to merge the index down to one segment once the load completes
+     */
+    public IngestSession beginIngest(boolean forceMerge) {
+        String index = liveIndex();
+        synchronized (ingestState) {
+            if (activeIngestSessions == 0) {
+                ingestLock = jobLockService.acquireShared(INGEST_LOCK);
+                log.info("Entering ingest mode on '{}'", index);
+                try {
+                    updateSettings(index, 0, "-1");
+                } catch (RuntimeException e) {
+                    ingestLock.close();
+                    ingestLock = null;
+                    throw e;
+                }
+            }
+            activeIngestSessions++;
+        }
+        return new IngestSession(index, forceMerge);
+    }
+
+    private void endIngest(String index, boolean forceMerge) {
+        JobLockService.JobLock released;
+        synchronized (ingestState) {
+            if (--activeIngestSessions > 0) {
+                return;
+            }
+            released = ingestLock;
+            ingestLock = null;
+        }
+        // A session starting meanwhile takes its own shared lock, so either it keeps the restore below out, or
+        // it waits for the restore to finish before applying the bulk settings again
+        released.close();
+        restoreSettingsUnlessIngesting(index);
+        elasticsearchOperations.indexOps(IndexCoordinates.of(index)).refresh();
+
+        if (forceMerge) {
+            // Runs as a background task on the cluster; a large merge outlives the client socket timeout
+            try {
+                elasticsearchClient.indices().forcemerge(request -> request
+                        .index(index)
+                        .maxNumSegments(1L)
+                        .waitForCompletion(false));
+            } catch (IOException e) {
+                log.warn("Failed to start force merge of '{}': {}", index, e.getMessage());
+            }
+        }
+        log.info("Left ingest mode on '{}'{}", index, forceMerge ? " and started a force merge" : "");
+    }
+
+    /**
+     * Bulk-load window on the live index, meant for try-with-resources. Closing it restores the live settings
+     * and refreshes the index, also when the load failed.
+     */
+    public final class IngestSession implements AutoCloseable {
+
+        private final String index;
+        private final boolean forceMerge;
+        private boolean closed;
+
+        private IngestSession(String index, boolean forceMerge) {
+            this.index = index;
+            this.forceMerge = forceMerge;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                endIngest(index, forceMerge);
+            }
+        }
+    }
+
+    /**
+     * Starts sending writes to the given index in addition to the live one. Every write completing after this
+     * call, on any instance, is repeated on the index (see {@link WritePlan}).
+     */
+    public void beginDualWrite(String index) {
+        redisTemplate.delete(DELETED_DURING_REBUILD_KEY);
+        elasticsearchOperations.indexOps(IndexCoordinates.of(index)).alias(new AliasActions(
+                new AliasAction.Add(AliasActionParameters.builder()
+                        .withIndices(index)
+                        .withAliases(REBUILD_ALIAS)
+                        .build())));
+        forgetLayout();
+        log.info("Dual-writing applicants to '{}' and '{}'", liveIndex(), index);
+    }
+
+    /**
+     * Returns and forgets the deletions recorded since the rebuild started. Writes keep going to both indices.
+     */
+    public Set<String> drainDeletions() {
+        Set<String> deleted = redisTemplate.opsForSet().members(DELETED_DURING_REBUILD_KEY);
+        redisTemplate.delete(DELETED_DURING_REBUILD_KEY);
+        return deleted == null ? Set.of() : Set.copyOf(deleted);
+    }
+
+    /**
+     * Stops sending writes to the index being built, for a rebuild that is abandoned. Writes that read the alias
+     * just before may still reach the index, so it must be closed rather than deleted. A completed rebuild ends
+     * dual-writing with {@link #swapAliases(String)} instead.
+     */
+    public void endDualWrite() {
+        IndexLayout current = resolveLayout(null);
+        if (current != null && current.rebuildTarget() != null) {
+            elasticsearchOperations.indexOps(IndexCoordinates.of(current.rebuildTarget())).alias(new AliasActions(
+                    new AliasAction.Remove(AliasActionParameters.builder()
+                            .withIndices(current.rebuildTarget())
+                            .withAliases(REBUILD_ALIAS)
+                            .build())));
+        }
+        redisTemplate.delete(DELETED_DURING_REBUILD_KEY);
+        forgetLayout();
+    }
+
+    /**
+     * Points both aliases at the new index in one atomic request and drops the previous live index from them.
+     * A legacy concrete {@code applicants} index is removed in the same request, since the alias takes its name.
+     * The rebuild alias is removed in the same request, so writes move from both indices to the new one at once.
+     */
+    public void swapAliases(String newIndex) {
+        IndexLayout current = resolveLayout(null);
+        if (current == null) {
+            throw new IllegalStateException("Index '" + APPLICANTS_INDEX + "' disappeared during the rebuild");
+        }
+        String previous = current.liveIndex();
+        AliasActions actions = new AliasActions();
+
+        if (APPLICANTS_INDEX.equals(previous)) {
+            actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(previous).build()));
+        } else {
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(previous)
+                    .withAliases(APPLICANTS_INDEX, WRITE_ALIAS)
+                    .build()));
+        }
+        actions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(newIndex)
+                .withAliases(APPLICANTS_INDEX)
+                .build()));
+        actions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(newIndex)
+                .withAliases(WRITE_ALIAS)
+                .withIsWriteIndex(true)
+                .build()));
+        if (newIndex.equals(current.rebuildTarget())) {
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(newIndex)
+                    .withAliases(REBUILD_ALIAS)
+                    .build()));
+        }
+
+        // The rebuilt index holds copies of the previous documents, so it is as complete as the previous index
+        if (current.features().workExperienceSummary()) {
+            writeMeta(newIndex, WORK_EXPERIENCE_SUMMARY_META, "true");
+        }
+        elasticsearchOperations.indexOps(IndexCoordinates.of(newIndex)).alias(actions);
+        forgetLayout();
+        log.info("Swapped aliases '{}' and '{}' from '{}' to '{}'", APPLICANTS_INDEX, WRITE_ALIAS, previous, newIndex);
+    }
+
+    /**
+     * Reads a value from the {@code _meta} of the live index mapping, or {@code null} when it is not set.
+     * Metadata belongs to the concrete index, so it does not carry over to a rebuilt index.
+     */
+    public String getMeta(String key) {
+        return readMeta(liveIndex(), key);
+    }
+
+    /**
+     * Stores a value in the {@code _meta} of the live index mapping, keeping the other entries.
+     */
+    public void putMeta(String key, String value) {
+        writeMeta(liveIndex(), key, value);
+    }
+
+    /**
+     * Records that every applicant in the live index carries the work experience summary fields, e.g. after a
+     * full sync rewrote the applicants indexed before those fields existed.
+     */
+    public void markWorkExperienceSummaryComplete() {
+        IndexLayout current = layout();
+        if (!current.features().workExperienceSummary()) {
+            writeMeta(current.liveIndex(), WORK_EXPERIENCE_SUMMARY_META, "true");
+            forgetLayout();
+            log.info("Index '{}' now filters on the work experience summary fields", current.liveIndex());
+        }
+    }
+
+    /**
+     * Returns the aliases as last read, reading them again once the refresh interval has passed.
+     */
+    private IndexLayout layout() {
+        ensureReady();
+        IndexLayout current = layout;
+        if (current != null && System.nanoTime() < current.expiresAt()) {
+            return current;
+        }
+        synchronized (this) {
+            current = layout;
+            if (current == null || System.nanoTime() >= current.expiresAt()) {
+                long changes = layoutChanges.get();
+                current = resolveLayout(current);
+                if (current == null) {
+                    log.warn("Index '{}' is missing, recreating it", APPLICANTS_INDEX);
+                    invalidate();
+                    ensureReady();
+                    current = layout;
+                }
+                if (changes == layoutChanges.get()) {
+                    layout = current;
+                }
+            }
+            return current;
+        }
+    }
+
+    // Alias changes are made without the monitor, so they do not wait for a layout read in progress
+    private void forgetLayout() {
+        layoutChanges.incrementAndGet();
+        layout = null;
+    }
+
+    /**
+     * Reads which concrete indices serve applicants and are being rebuilt, or returns {@code null} when there is
+     * none. The searchable fields are read again when the live index changed or still lacks the summary fields.
+     */
+    private IndexLayout resolveLayout(IndexLayout previous) {
+        AliasTargets aliases = readAliases();
+        if (aliases == null) {
+            return null;
+        }
+        String live = aliases.liveIndex();
+
+        ApplicantIndexFeatures features = previous != null && live.equals(previous.liveIndex())
+                && previous.features().workExperienceSummary()
+                ? previous.features()
+                : readFeatures(live);
+        return new IndexLayout(live, writeTargetOf(live), aliases.rebuildIndex(), features,
+                System.nanoTime() + layoutRefresh.toNanos());
+    }
+
+    /**
+     * Reads which concrete indices carry the read and rebuild aliases in one request, or returns {@code null}
+     * when there is no applicants index.
+     */
+    private AliasTargets readAliases() {
+        // Keyed by concrete index; the legacy 'applicants' index is listed under its own name without aliases
+        Map<String, Set<AliasData>> indices = elasticsearchOperations.indexOps(IndexCoordinates.of(APPLICANTS_INDEX))
+                .getAliasesForIndex(APPLICANTS_INDEX + "*");
+
+        String live = null;
+        String rebuild = null;
+        for (Map.Entry<String, Set<AliasData>> index : indices.entrySet()) {
+            Set<String> aliases = index.getValue().stream().map(AliasData::getAlias).collect(Collectors.toSet());
+            if (APPLICANTS_INDEX.equals(index.getKey()) || aliases.contains(APPLICANTS_INDEX)) {
+                live = index.getKey();
+            }
+            if (aliases.contains(REBUILD_ALIAS)) {
+                rebuild = index.getKey();
+            }
+        }
+        return live == null ? null : new AliasTargets(live, rebuild);
+    }
+
+    // The legacy index is written under its own name; versioned indices through the write alias
+    private static String writeTargetOf(String liveIndex) {
+        return APPLICANTS_INDEX.equals(liveIndex) ? APPLICANTS_INDEX : WRITE_ALIAS;
+    }
+
+    private ApplicantIndexFeatures readFeatures(String index) {
+        Settings settings = elasticsearchOperations.indexOps(IndexCoordinates.of(index)).getSettings().flatten();
+        boolean normalizedKeywords =
+                settings.getString("index.analysis.normalizer." + ApplicantDocument.KEYWORD_NORMALIZER + ".type") != null;
+        return new ApplicantIndexFeatures(normalizedKeywords, "true".equals(readMeta(index, WORK_EXPERIENCE_SUMMARY_META)));
+    }
+
+    private String readMeta(String index, String key) {
+        try {
+            IndexMappingRecord mapping = elasticsearchClient.indices().getMapping(request -> request.index(index)).get(index);
+            Map<String, JsonData> meta = mapping == null ? null : mapping.mappings().meta();
+            JsonData value = meta == null ? null : meta.get(key);
+            return value == null ? null : value.to(String.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read metadata of index '" + index + "'", e);
+        }
+    }
+
+    private void writeMeta(String index, String key, String value) {
+        try {
+            IndexMappingRecord mapping = elasticsearchClient.indices().getMapping(request -> request.index(index)).get(index);
+            Map<String, JsonData> meta = new HashMap<>();
+            if (mapping != null && mapping.mappings().meta() != null) {
+                meta.putAll(mapping.mappings().meta());
+            }
+            // _meta is replaced as a whole by a mapping update
+            meta.put(key, JsonData.of(value));
+            elasticsearchClient.indices().putMapping(request -> request.index(index).meta(meta));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to update metadata of index '" + index + "'", e);
+        }
+    }
+
+    private void createOrValidate() {
+        IndexOperations readOps = elasticsearchOperations.indexOps(IndexCoordinates.of(APPLICANTS_INDEX));
+
+        if (!readOps.exists()) {
+            String index = VERSION_PREFIX + 1;
+            log.info("Creating index '{}' with {} shards, {} replicas and refresh interval {}",
+                    index, shards, replicas, refreshInterval);
+            createIndex(index, replicas, refreshInterval);
+            writeMeta(index, WORK_EXPERIENCE_SUMMARY_META, "true");
+            addAliases(index);
+            layout = resolveLayout(null);
+            return;
+        }
+
+        // Keyed by the concrete index behind the name: the versioned index, or 'applicants' itself when legacy
+        Map<String, Set<AliasData>> indices = readOps.getAliasesForIndex(APPLICANTS_INDEX);
+        String liveIndex = indices.keySet().iterator().next();
+        if (APPLICANTS_INDEX.equals(liveIndex)) {
+            // Un-versioned index from before the alias layout; replaced by the first rebuild
+            log.info("Index '{}' is not versioned yet, run a rebuild to move it behind aliases", APPLICANTS_INDEX);
+        } else {
+            boolean hasWriteAlias = indices.get(liveIndex).stream().anyMatch(alias -> WRITE_ALIAS.equals(alias.getAlias()));
+            if (!hasWriteAlias) {
+                addAliases(liveIndex);
+            }
+        }
+
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(liveIndex));
+
+        // The shard count is fixed at creation, so a mismatch can only be reported
+        Settings current = indexOps.getSettings().flatten();
+        String currentShards = current.getString("index.number_of_shards");
+        if (!String.valueOf(shards).equals(currentShards)) {
+            log.warn("Index '{}' has {} shards but {} are configured; the shard count only changes when the index is rebuilt",
+                    liveIndex, currentShards, shards);
+        }
+
+        // Replicas and refresh interval are dynamic and applied in place, unless another instance is bulk loading
+        restoreSettingsUnlessIngesting(liveIndex);
+
+        // New fields are added to the mapping; conflicting changes to existing fields are rejected by Elasticsearch
+        Document mapping = elasticsearchOperations.indexOps(ApplicantDocument.class).createMapping();
+        IndexLayout resolved = resolveLayout(null);
+        if (!resolved.features().normalizedKeywords()) {
+            log.warn("Index '{}' has no '{}' normalizer; searches use the raw keyword fields until the index is rebuilt",
+                    liveIndex, ApplicantDocument.KEYWORD_NORMALIZER);
+            removeNormalizedFields(mapping);
+        }
+        indexOps.putMapping(mapping);
+        if (!resolved.features().workExperienceSummary()) {
+            log.warn("Index '{}' may hold applicants without the work experience summary fields; experience filters use "
+                    + "nested queries until a full sync completes", liveIndex);
+        }
+        layout = resolved;
+        log.info("Validated index '{}' ({} replicas, refresh interval {})", liveIndex, replicas, refreshInterval);
+    }
+
+    // Drops the subfields that need the normalizer, so the rest of the mapping can still be applied
+    @SuppressWarnings("unchecked")
+    static void removeNormalizedFields(Map<String, Object> mapping) {
+        Object properties = mapping.get("properties");
+        if (!(properties instanceof Map<?, ?> fields)) {
+            return;
+        }
+        for (Object field : fields.values()) {
+            if (field instanceof Map<?, ?> definition) {
+                Map<String, Object> fieldMapping = (Map<String, Object>) definition;
+                if (fieldMapping.get("fields") instanceof Map<?, ?> subfields) {
+                    subfields.remove(ApplicantDocument.NORMALIZED);
+                    if (subfields.isEmpty()) {
+                        fieldMapping.remove("fields");
+                    }
+                }
+                removeNormalizedFields(fieldMapping);
+            }
+        }
+    }
+
+    private void addAliases(String index) {
+        elasticsearchOperations.indexOps(IndexCoordinates.of(index)).alias(new AliasActions(
+                new AliasAction.Add(AliasActionParameters.builder()
+                        .withIndices(index)
+                        .withAliases(APPLICANTS_INDEX)
+                        .build()),
+                new AliasAction.Add(AliasActionParameters.builder()
+                        .withIndices(index)
+                        .withAliases(WRITE_ALIAS)
+                        .withIsWriteIndex(true)
+                        .build())));
+    }
+
+    /**
+     * Concrete indices carrying the read alias and the rebuild alias ({@code null} without a rebuild).
+     */
+    private record AliasTargets(String liveIndex, String rebuildIndex) {
+    }
+
+    /**
+     * Concrete indices behind the aliases as read at one point in time.
+     *
+     * @param writeTarget   where single writes go: the write alias, or the legacy index itself
+     * @param rebuildTarget index being built that also receives writes, or {@code null}
+     * @param expiresAt     {@link System#nanoTime()} after which the aliases are read again
+     */
+    private record IndexLayout(
+            String liveIndex,
+            String writeTarget,
+            String rebuildTarget,
+            ApplicantIndexFeatures features,
+            long expiresAt
+    ) {
+    }
+}
@@ -0,0 +1,156 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.OpType;
+import co.elastic.clients.elasticsearch.core.ReindexResponse;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Service;
+import rmit.saintgiong.discoveryservice.domain.services.job.JobContext;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds the applicants index without downtime.
+ * <p>
+ * A new versioned index is created with bulk-load settings (no replicas, no refresh) and filled from the live
+ * index by a server-side reindex, while live updates are written to both indices by every instance (see
+ * {@link ApplicantIndexManager.WritePlan}). Copied documents never overwrite documents written in the meantime,
+ * and deletions made during the copy are applied again once it finishes. The aliases are then swapped in a single
+ * request, which also ends the dual writes, and the previous index is dropped, so searches always see a complete
+ * index and no write is lost in between.
+ * <p>
+ * Runs as a background job; a cancelled rebuild stops the copy, closes the new index and leaves the live one as
+ * it was. The closed index is dropped by the next rebuild.
+ */
+@Service
+public class ApplicantIndexRebuildService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicantIndexRebuildService.class);
+    private static final long TASK_POLL_MILLIS = 1000;
+
+    private final ApplicantIndexManager applicantIndexManager;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    public ApplicantIndexRebuildService(
+            ApplicantIndexManager applicantIndexManager,
+            ElasticsearchClient elasticsearchClient,
+            ElasticsearchOperations elasticsearchOperations
+    ) {
+        this.applicantIndexManager = applicantIndexManager;
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+    }
+
+    /**
+     * Rebuilds the index and returns the name of the index now serving applicants.
+     */
+    public String rebuild(JobContext context) {
+        try {
+            return rebuildIndex(context);
+        } catch (IOException e) {
+            throw new IllegalStateException("Rebuild of index '" + ApplicantIndexManager.APPLICANTS_INDEX + "' failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Rebuild interrupted");
+        }
+    }
+
+    private String rebuildIndex(JobContext context) throws IOException, InterruptedException {
+        String source = applicantIndexManager.liveIndex();
+        String target = applicantIndexManager.nextIndexName();
+        log.info("Rebuilding applicants from '{}' into '{}'", source, target);
+        context.phase("Creating " + target);
+
+        // Leftover from an interrupted rebuild
+        elasticsearchOperations.indexOps(IndexCoordinates.of(target)).delete();
+        applicantIndexManager.createIndex(target, 0, "-1");
+
+        applicantIndexManager.beginDualWrite(target);
+        boolean swapped = false;
+        try {
+            // Writes completed before the rebuild alias existed must be visible to the copy; later ones are
+            // repeated on the target by the writers themselves
+            elasticsearchOperations.indexOps(IndexCoordinates.of(source)).refresh();
+
+            context.phase("Copying " + source + " into " + target);
+            copy(source, target, context);
+            context.checkCancelled();
+
+            // Writes keep going to both indices until the swap, so nothing written from here on is lost
+            context.phase("Switching to " + target);
+            Set<String> deleted = applicantIndexManager.drainDeletions();
+            for (String applicantId : deleted) {
+                elasticsearchOperations.delete(applicantId, IndexCoordinates.of(target));
+            }
+
+            applicantIndexManager.restoreSettings(target);
+            elasticsearchOperations.indexOps(IndexCoordinates.of(target)).refresh();
+
+            applicantIndexManager.swapAliases(target);
+            swapped = true;
+        } finally {
+            if (!swapped) {
+                abandon(target);
+            }
+        }
+
+        // Writers only address the previous index through the aliases, which no longer point at it. The legacy
+        // un-versioned index was already removed by the alias swap.
+        if (!ApplicantIndexManager.APPLICANTS_INDEX.equals(source)) {
+            elasticsearchOperations.indexOps(IndexCoordinates.of(source)).delete();
+        }
+        log.info("Rebuild finished, '{}' now serves applicants", target);
+        return target;
+    }
+
+    /**
+     * Stops the dual writes and closes the new index. A write that read the rebuild alias just before may still
+     * arrive; a closed index rejects it, whereas a dropped one would be created again with a dynamic mapping.
+     */
+    private void abandon(String target) {
+        try {
+            applicantIndexManager.endDualWrite();
+            elasticsearchClient.indices().close(request -> request.index(target));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to abandon rebuild index '{}': {}", target, e.getMessage());
+        }
+    }
+
+    /**
+     * Copies every document that does not exist in the target yet, so documents dual-written during the copy win.
+     * Runs as a server-side task polled until completion, since a large copy outlives the client socket timeout.
+     * Cancelling the job cancels the task.
+     */
+    private void copy(String source, String target, JobContext context) throws IOException, InterruptedException {
+        ReindexResponse started = elasticsearchClient.reindex(request -> request
+                .source(s -> s.index(source))
+                .dest(d -> d.index(target).opType(OpType.Create))
+                .conflicts(Conflicts.Proceed)
+                .waitForCompletion(false));
+
+        String taskId = started.task();
+        GetTasksResponse task = elasticsearchClient.tasks().get(request -> request.taskId(taskId));
+        while (!task.completed()) {
+            if (context.isCancelled()) {
+                elasticsearchClient.tasks().cancel(request -> request.taskId(taskId));
+                throw new CancellationException("Reindex into '" + target + "' cancelled");
+            }
+            TimeUnit.MILLISECONDS.sleep(TASK_POLL_MILLIS);
+            task = elasticsearchClient.tasks().get(request -> request.taskId(taskId));
+        }
+
+        if (task.error() != null) {
+            throw new IllegalStateException("Reindex into '" + target + "' failed: " + task.error().reason());
+        }
+        log.info("Copied applicants from '{}' into '{}': {}", source, target, task.response());
+    }
+}
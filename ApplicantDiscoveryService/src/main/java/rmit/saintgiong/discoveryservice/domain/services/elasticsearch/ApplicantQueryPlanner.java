@@ -0,0 +1,187 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.QueryBuilders;
+import org.springframework.stereotype.Component;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns applicant search criteria into Elasticsearch queries.
+ * <p>
+ * Only the full-text clauses (name and keyword) go into {@code must} and affect the score. Location, degree,
+ * skills and work experience are yes/no conditions, so they go into {@code filter} or {@code must_not}, where
+ * Elasticsearch skips scoring and can cache the matching documents per segment. Clauses are always added in
+ * the same order, so equal criteria give the same query.
+ * <p>
+ * Location and degree filters are {@code term} filters on the normalized keyword subfields, which match
+ * regardless of case and accents. Indices created before those subfields existed are queried with the former
+ * {@code match} filters on the raw keyword fields, which are exact.
+ * <p>
+ * Work experience is filtered on the root-level {@code hasWorkExperience} flag instead of a {@code nested}
+ * query over {@code workExperiences}, once every applicant in the index carries it.
+ */
+@Component
+public class ApplicantQueryPlanner {
+
+    /**
+     * @param features optional fields the index can be searched on
+     */
+    public Query plan(ApplicantSearchCriteria criteria, ApplicantIndexFeatures features) {
+        boolean normalizedKeywords = features.normalizedKeywords();
+        List<Query> scoring = new ArrayList<>();
+        List<Query> filters = new ArrayList<>();
+        List<Query> exclusions = new ArrayList<>();
+
+        if (criteria.name() != null) {
+            scoring.add(QueryBuilders.multiMatch()
+                    .fields("firstName", "lastName")
+                    .query(criteria.name())
+                    .fuzziness("AUTO")
+                    .build()._toQuery());
+        }
+
+        if (criteria.keyword() != null) {
+            scoring.add(keywordQuery(criteria.keyword()));
+        }
+
+        String locationField = criteria.locationIsCountry() ? "country" : "city";
+        filters.add(normalizedKeywords
+                ? normalizedTerm(locationField, criteria.location())
+                : QueryBuilders.match().field(locationField).query(criteria.location()).build()._toQuery());
+
+        if (!criteria.educationLevels().isEmpty()) {
+            filters.add(QueryBuilders.nested()
+                    .path("educations")
+                    .query(normalizedKeywords
+                            ? normalizedTerms("educations.degree", criteria.educationLevels())
+                            : anyDegreeMatch(criteria.educationLevels()))
+                    .build()._toQuery());
+        }
+
+        if (!criteria.skillIds().isEmpty()) {
+            List<FieldValue> values = criteria.skillIds().stream().map(FieldValue::of).toList();
+            filters.add(QueryBuilders.terms()
+                    .field("skillIds")
+                    .terms(t -> t.value(values))
+                    .build()._toQuery());
+        }
+
+        if (criteria.workExperienceType() != null) {
+            boolean required = "ANY".equals(criteria.workExperienceType());
+            if (features.workExperienceSummary()) {
+                filters.add(QueryBuilders.term().field("hasWorkExperience").value(required).build()._toQuery());
+            } else if (required) {
+                filters.add(anyWorkExperience());
+            } else {
+                exclusions.add(anyWorkExperience());
+            }
+        }
+
+        return bool(scoring, filters, exclusions);
+    }
+
+    /**
+     * Plans the comprehensive search: full text over name, biography and address, with city and country filters.
+     */
+    public Query planComprehensive(String keyword, String city, String country, ApplicantIndexFeatures features) {
+        boolean normalizedKeywords = features.normalizedKeywords();
+        List<Query> scoring = new ArrayList<>();
+        List<Query> filters = new ArrayList<>();
+
+        if (keyword != null && !keyword.isBlank()) {
+            scoring.add(QueryBuilders.multiMatch()
+                    .fields("firstName", "lastName", "biography", "address")
+                    .query(keyword)
+                    .fuzziness("AUTO")
+                    .build()._toQuery());
+        }
+
+        if (city != null && !city.isBlank()) {
+            filters.add(normalizedKeywords
+                    ? normalizedTerm("city", city)
+                    : QueryBuilders.term().field("city").value(city).build()._toQuery());
+        }
+
+        if (country != null && !country.isBlank()) {
+            filters.add(normalizedKeywords
+                    ? normalizedTerm("country", country)
+                    : QueryBuilders.term().field("country").value(country).build()._toQuery());
+        }
+
+        return bool(scoring, filters, List.of());
+    }
+
+    private static Query keywordQuery(String keyword) {
+        Query profileQuery = QueryBuilders.multiMatch()
+                .fields("biography", "aboutMe", "skillNames")
+                .query(keyword)
+                .fuzziness("AUTO")
+                .build()._toQuery();
+
+        Query workExperienceQuery = QueryBuilders.nested()
+                .path("workExperiences")
+                .query(QueryBuilders.multiMatch()
+                        .fields("workExperiences.description", "workExperiences.position", "workExperiences.companyName")
+                        .query(keyword)
+                        .fuzziness("AUTO")
+                        .build()._toQuery())
+                .build()._toQuery();
+
+        return QueryBuilders.bool()
+                .should(profileQuery, workExperienceQuery)
+                .minimumShouldMatch("1")
+                .build()._toQuery();
+    }
+
+    // The field's normalizer is applied to the value at search time, so it is passed as entered
+    private static Query normalizedTerm(String field, String value) {
+        return QueryBuilders.term()
+                .field(field + "." + ApplicantDocument.NORMALIZED)
+                .value(value.trim())
+                .build()._toQuery();
+    }
+
+    private static Query normalizedTerms(String field, List<String> values) {
+        List<FieldValue> terms = values.stream().map(FieldValue::of).toList();
+        return QueryBuilders.terms()
+                .field(field + "." + ApplicantDocument.NORMALIZED)
+                .terms(t -> t.value(terms))
+                .build()._toQuery();
+    }
+
+    private static Query anyDegreeMatch(List<String> degrees) {
+        List<Query> degreeQueries = degrees.stream()
+                .map(degree -> QueryBuilders.match()
+                        .field("educations.degree")
+                        .query(degree)
+                        .build()._toQuery())
+                .toList();
+        return QueryBuilders.bool().should(degreeQueries).minimumShouldMatch("1").build()._toQuery();
+    }
+
+    private static Query anyWorkExperience() {
+        return QueryBuilders.nested()
+                .path("workExperiences")
+                .query(QueryBuilders.matchAll().build()._toQuery())
+                .build()._toQuery();
+    }
+
+    private static Query bool(List<Query> scoring, List<Query> filters, List<Query> exclusions) {
+        BoolQuery.Builder bool = QueryBuilders.bool();
+        if (!scoring.isEmpty()) {
+            bool.must(scoring);
+        }
+        if (!filters.isEmpty()) {
+            bool.filter(filters);
+        }
+        if (!exclusions.isEmpty()) {
+            bool.mustNot(exclusions);
+        }
+        return bool.build()._toQuery();
+    }
+}
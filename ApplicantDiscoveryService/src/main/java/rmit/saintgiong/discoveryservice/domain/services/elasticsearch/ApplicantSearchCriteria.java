@@ -0,0 +1,64 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Normalized criteria of an applicant search. Blank values are dropped and lists are de-duplicated and sorted,
+ * so criteria that select the same applicants are equal and plan to the same query.
+ *
+ * @param location           country or city to match; defaults to Vietnam
+ * @param workExperienceType {@code NONE}, {@code ANY} or null when experience does not matter
+ */
+public record ApplicantSearchCriteria(
+        String name,
+        String keyword,
+        String location,
+        boolean locationIsCountry,
+        List<String> educationLevels,
+        List<Long> skillIds,
+        String workExperienceType
+) {
+
+    static final String DEFAULT_COUNTRY = "Vietnam";
+
+    public static ApplicantSearchCriteria of(
+            String name,
+            String keyword,
+            String locationValue,
+            boolean isCountry,
+            List<String> educationLevels,
+            List<Long> skillIds,
+            String workExperienceType
+    ) {
+        String location = trimToNull(locationValue);
+        String experienceType = trimToNull(workExperienceType);
+        if (experienceType != null) {
+            experienceType = experienceType.toUpperCase(Locale.ROOT);
+        }
+
+        return new ApplicantSearchCriteria(
+                trimToNull(name),
+                trimToNull(keyword),
+                location != null ? location : DEFAULT_COUNTRY,
+                location == null || isCountry,
+                educationLevels == null ? List.of() : educationLevels.stream()
+                        .map(ApplicantSearchCriteria::trimToNull)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .sorted()
+                        .toList(),
+                skillIds == null ? List.of() : skillIds.stream()
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .sorted()
+                        .toList(),
+                "NONE".equals(experienceType) || "ANY".equals(experienceType) ? experienceType : null
+        );
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -2,43 +2,66 @@ package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobType;
 import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
 import rmit.saintgiong.discoveryapi.internal.document.Country;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.BulkIndexResult;
+import rmit.saintgiong.discoveryservice.domain.services.job.BackgroundJobService;
+import rmit.saintgiong.discoveryservice.domain.services.job.JobContext;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 
+/**
+ * Loads the mock applicants into the index when {@code discovery.seed.applicants.enabled} is set.
+ * <p>
+ * Loading runs as a background job once the application is ready, so it never delays startup and only one
+ * instance loads at a time. The seed version (configured, or a hash of the seed file) is stored in the index
+ * metadata, and loading is skipped when the index already holds that version.
+ */
 @Component
+@ConditionalOnProperty(name = "discovery.seed.applicants.enabled", havingValue = "true")
 public class DataInitializer {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+    static final String SEED_VERSION_META = "applicants_seed_version";
+    private static final String APPLICANTS_SEED = "mock/mock-applicants.json";
 
-    private final IndexingService indexingService;
+    private final ApplicantBulkIngester applicantBulkIngester;
+    private final ApplicantIndexManager applicantIndexManager;
+    private final BackgroundJobService backgroundJobService;
     private final ObjectMapper objectMapper;
+    private final String configuredSeedVersion;
 
-    public DataInitializer(IndexingService indexingService, ObjectMapper objectMapper) {
-        this.indexingService = indexingService;
+    public DataInitializer(
+            ApplicantBulkIngester applicantBulkIngester,
+            ApplicantIndexManager applicantIndexManager,
+            BackgroundJobService backgroundJobService,
+            ObjectMapper objectMapper,
+            @Value("${discovery.seed.applicants.version:}") String configuredSeedVersion
+    ) {
+        this.applicantBulkIngester = applicantBulkIngester;
+        this.applicantIndexManager = applicantIndexManager;
+        this.backgroundJobService = backgroundJobService;
         this.objectMapper = objectMapper;
+        this.configuredSeedVersion = configuredSeedVersion;
     }
 
-    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
     public void loadMockData() {
-        logger.info("Starting mock data loading...");
-
-        try {
-//            loadCountries();
-            loadApplicants();
-
-
-            logger.info("Mock data loading completed successfully!");
-        } catch (Exception e) {
-            logger.error("Error loading mock data", e);
+        if (backgroundJobService.submit(JobType.APPLICANT_SEED, this::loadApplicants).isEmpty()) {
+            logger.info("Mock data is being loaded by another instance");
         }
     }
 
@@ -56,18 +79,53 @@ public class DataInitializer {
 //    }
 
 
-    private void loadApplicants() throws IOException {
-        logger.info("Loading mock applicants...");
+    String loadApplicants(JobContext context) {
+        byte[] seed;
+        try {
+            seed = new ClassPathResource(APPLICANTS_SEED).getContentAsByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + APPLICANTS_SEED, e);
+        }
+
+        String version = configuredSeedVersion.isBlank() ? contentVersion(seed) : configuredSeedVersion;
+        if (version.equals(applicantIndexManager.getMeta(SEED_VERSION_META))) {
+            logger.info("Mock applicants version {} are already loaded, skipping", version);
+            return "Seed version " + version + " already loaded";
+        }
+        context.checkCancelled();
+
+        logger.info("Loading mock applicants version {}...", version);
+        context.phase("Loading " + APPLICANTS_SEED);
+        List<ApplicantDocument> applicants;
+        try {
+            applicants = objectMapper.readValue(seed, new TypeReference<List<ApplicantDocument>>() {
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse " + APPLICANTS_SEED, e);
+        }
+
+        BulkIndexResult result;
+        try (ApplicantIndexManager.IngestSession ignored = applicantIndexManager.beginIngest(true)) {
+            result = applicantBulkIngester.addAll(applicants).join();
+        }
+        context.progress(result.indexedIds().size());
 
-        InputStream inputStream = new ClassPathResource("mock/mock-applicants.json").getInputStream();
-        List<ApplicantDocument> applicants = objectMapper.readValue(
-                inputStream,
-                new TypeReference<List<ApplicantDocument>>() {
-                });
+        // A partial load is retried on the next start
+        if (result.hasFailures()) {
+            logger.warn("Failed to load {} applicants: {}", result.failures().size(), result.failures());
+        } else {
+            applicantIndexManager.putMeta(SEED_VERSION_META, version);
+        }
+        logger.info("Loaded {} applicants", result.indexedIds().size());
+        return "Loaded " + result.indexedIds().size() + " applicants, seed version " + version;
+    }
 
-        for (ApplicantDocument applicant : applicants) {
-            indexingService.indexApplicant(applicant);
+    private static String contentVersion(byte[] seed) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(seed);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        logger.info("Loaded {} applicants", applicants.size());
     }
 }
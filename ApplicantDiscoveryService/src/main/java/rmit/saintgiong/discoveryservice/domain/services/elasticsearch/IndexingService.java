@@ -2,38 +2,65 @@ package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.BulkFailureException;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.data.elasticsearch.core.query.IndexQuery;
 import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
 import org.springframework.stereotype.Service;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.BulkIndexResult;
 import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.IndexingInterface;
 import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 @Service
 public class IndexingService implements IndexingInterface {
 
     private static final Logger log = LoggerFactory.getLogger(IndexingService.class);
-    private static final String APPLICANTS_INDEX = "applicants";
+    private static final String CREATED_AT_FIELD = "createdAt";
+    private static final String UPDATED_AT_FIELD = "updatedAt";
 
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ApplicantIndexManager applicantIndexManager;
+    private final ApplicantContentHasher applicantContentHasher;
 
-    public IndexingService(ElasticsearchOperations elasticsearchOperations) {
+    public IndexingService(
+            ElasticsearchOperations elasticsearchOperations,
+            ApplicantIndexManager applicantIndexManager,
+            ApplicantContentHasher applicantContentHasher
+    ) {
         this.elasticsearchOperations = elasticsearchOperations;
+        this.applicantIndexManager = applicantIndexManager;
+        this.applicantContentHasher = applicantContentHasher;
     }
 
     @Override
     public void indexApplicant(ApplicantDocument document) {
         try {
-            // Ensure index exists with correct mapping before indexing
-            ensureIndexExists();
-
             IndexQuery indexQuery = new IndexQueryBuilder()
                     .withId(document.applicantId().toString())
-                    .withObject(document)
+                    .withObject(hashed(document))
                     .build();
 
-            elasticsearchOperations.index(indexQuery, IndexCoordinates.of(APPLICANTS_INDEX));
+            // The index manager creates the index once and only re-checks it after an index-missing error.
+            // While the index is rebuilt, the document is also written to the index being built.
+            ApplicantIndexManager.WritePlan plan = applicantIndexManager.planWrite();
+            applicantIndexManager.execute(() -> elasticsearchOperations.index(indexQuery, plan.target()));
+            for (IndexCoordinates target : plan.followUpTargets()) {
+                applicantIndexManager.execute(() -> elasticsearchOperations.index(indexQuery, target));
+            }
             log.info("Indexed applicant {}", document.applicantId());
 
         } catch (Exception e) {
@@ -42,24 +69,219 @@ public class IndexingService implements IndexingInterface {
         }
     }
 
+    @Override
+    public BulkIndexResult indexApplicants(Collection<ApplicantDocument> documents) {
+        if (documents.isEmpty()) {
+            return BulkIndexResult.empty();
+        }
+
+        List<IndexQuery> queries = new ArrayList<>(documents.size());
+        for (ApplicantDocument document : documents) {
+            queries.add(new IndexQueryBuilder()
+                    .withId(document.applicantId().toString())
+                    .withObject(hashed(document))
+                    .build());
+        }
+
+        // Results are reported for the first write; the index being rebuilt (if any) only gets a copy
+        ApplicantIndexManager.WritePlan plan = applicantIndexManager.planWrite();
+        Map<String, String> failures = bulkIndex(queries, plan.target());
+        for (IndexCoordinates followUp : plan.followUpTargets()) {
+            Map<String, String> followUpFailures = bulkIndex(queries, followUp);
+            if (!followUpFailures.isEmpty()) {
+                log.warn("Failed to copy {} applicants to '{}': {}", followUpFailures.size(), followUp.getIndexName(), followUpFailures);
+            }
+        }
+
+        List<String> indexedIds = new ArrayList<>(queries.size());
+        for (IndexQuery query : queries) {
+            if (!failures.containsKey(query.getId())) {
+                indexedIds.add(query.getId());
+            }
+        }
+
+        if (failures.isEmpty()) {
+            log.info("Bulk indexed {} applicants", indexedIds.size());
+        } else {
+            log.warn("Bulk indexed {} applicants, {} failed: {}", indexedIds.size(), failures.size(), failures);
+        }
+        return new BulkIndexResult(indexedIds, failures);
+    }
+
+    @Override
+    public BulkIndexResult updateApplicants(Collection<ApplicantDocument> documents) {
+        if (documents.isEmpty()) {
+            return BulkIndexResult.empty();
+        }
+
+        Map<String, ApplicantDocument> stored = fetchStored(documents);
+        ElasticsearchConverter converter = elasticsearchOperations.getElasticsearchConverter();
+
+        List<UpdateQuery> queries = new ArrayList<>(documents.size());
+        List<String> unchangedIds = new ArrayList<>();
+        for (ApplicantDocument document : documents) {
+            String id = document.applicantId().toString();
+            Document incoming = converter.mapObject(hashed(document));
+            ApplicantDocument current = stored.get(id);
+
+            if (current == null) {
+                // Unknown applicant: index the whole document
+                queries.add(UpdateQuery.builder(id).withDocument(incoming).withDocAsUpsert(true).build());
+                continue;
+            }
+
+            // createdAt belongs to the stored document; the event only carries the time it was mapped
+            Document existing = converter.mapObject(current);
+            incoming.put(CREATED_AT_FIELD, existing.get(CREATED_AT_FIELD));
+
+            Document changes = diff(existing, incoming);
+            if (changes.isEmpty()) {
+                unchangedIds.add(id);
+                continue;
+            }
+            // The upsert covers an index being rebuilt that has not received this applicant yet
+            queries.add(UpdateQuery.builder(id).withDocument(changes).withUpsert(incoming).build());
+        }
+
+        // Results are reported for the first write; the index being rebuilt (if any) only gets a copy
+        Map<String, String> failures = new HashMap<>();
+        if (!queries.isEmpty()) {
+            ApplicantIndexManager.WritePlan plan = applicantIndexManager.planWrite();
+            failures = bulkUpdate(queries, plan.target());
+            for (IndexCoordinates followUp : plan.followUpTargets()) {
+                Map<String, String> followUpFailures = bulkUpdate(queries, followUp);
+                if (!followUpFailures.isEmpty()) {
+                    log.warn("Failed to copy {} applicant updates to '{}': {}", followUpFailures.size(), followUp.getIndexName(), followUpFailures);
+                }
+            }
+        }
+
+        List<String> updatedIds = new ArrayList<>(documents.size());
+        for (UpdateQuery query : queries) {
+            if (!failures.containsKey(query.getId())) {
+                updatedIds.add(query.getId());
+            }
+        }
+        updatedIds.addAll(unchangedIds);
+
+        log.info("Updated {} applicants ({} partial or upserted, {} unchanged, {} failed)",
+                updatedIds.size(), queries.size() - failures.size(), unchangedIds.size(), failures.size());
+        if (!failures.isEmpty()) {
+            log.warn("Failed to update applicants: {}", failures);
+        }
+        return new BulkIndexResult(updatedIds, failures);
+    }
+
+    /**
+     * Returns the document as it is indexed. A sync already hashed it to decide whether to send it, so a document
+     * carrying a hash is used as is instead of being summarized and hashed again.
+     */
+    private ApplicantDocument hashed(ApplicantDocument document) {
+        return document.contentHash() != null ? document : applicantContentHasher.withHash(document);
+    }
+
+    /**
+     * Loads the stored version of each document in one multi-get, keyed by applicant id. Unknown applicants are absent.
+     */
+    private Map<String, ApplicantDocument> fetchStored(Collection<ApplicantDocument> documents) {
+        List<String> ids = documents.stream().map(document -> document.applicantId().toString()).toList();
+        List<MultiGetItem<ApplicantDocument>> items = applicantIndexManager.execute(() -> elasticsearchOperations.multiGet(
+                Query.multiGetQuery(ids), ApplicantDocument.class, IndexCoordinates.of(ApplicantIndexManager.APPLICANTS_INDEX)));
+
+        Map<String, ApplicantDocument> stored = new HashMap<>();
+        for (MultiGetItem<ApplicantDocument> item : items) {
+            if (item.hasItem()) {
+                stored.put(item.getItem().applicantId().toString(), item.getItem());
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public Map<String, String> getContentHashes(Collection<String> applicantIds) {
+        if (applicantIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        // Only the hash is read back, not the whole profile
+        Query query = Query.multiGetQuery(List.copyOf(applicantIds));
+        query.addSourceFilter(new FetchSourceFilter(true, new String[]{"applicantId", ApplicantContentHasher.CONTENT_HASH_FIELD}, null));
+        List<MultiGetItem<ApplicantDocument>> items = applicantIndexManager.execute(() -> elasticsearchOperations.multiGet(
+                query, ApplicantDocument.class, IndexCoordinates.of(ApplicantIndexManager.APPLICANTS_INDEX)));
+
+        Map<String, String> hashes = new HashMap<>();
+        for (MultiGetItem<ApplicantDocument> item : items) {
+            if (item.hasItem()) {
+                hashes.put(item.getItem().applicantId().toString(), item.getItem().contentHash());
+            }
+        }
+        return hashes;
+    }
+
     /**
-     * Ensures the index exists with the correct mapping derived from ApplicantDocument annotations.
-     * This is critical for nested fields like 'educations' and 'workExperiences' to work correctly.
+     * Returns the top-level fields whose value differs, with {@code null} for fields that were removed. Nested
+     * arrays are compared as a whole, so they are only sent when one of their entries changed. updatedAt alone
+     * does not count as a change.
      */
-    private void ensureIndexExists() {
-        var indexOps = elasticsearchOperations.indexOps(ApplicantDocument.class);
-        if (!indexOps.exists()) {
-            log.info("Creating index '{}' with mapping from ApplicantDocument annotations", APPLICANTS_INDEX);
-            indexOps.create();
-            indexOps.putMapping(indexOps.createMapping());
-            log.info("Index '{}' created successfully with correct nested mapping", APPLICANTS_INDEX);
+    private static Document diff(Document existing, Document incoming) {
+        Document changes = Document.create();
+        for (Map.Entry<String, Object> field : incoming.entrySet()) {
+            if (!UPDATED_AT_FIELD.equals(field.getKey()) && !Objects.equals(existing.get(field.getKey()), field.getValue())) {
+                changes.put(field.getKey(), field.getValue());
+            }
+        }
+        // Fields the update no longer carries are cleared
+        for (String field : existing.keySet()) {
+            if (!incoming.containsKey(field)) {
+                changes.put(field, null);
+            }
+        }
+        if (!changes.isEmpty() && incoming.containsKey(UPDATED_AT_FIELD)) {
+            changes.put(UPDATED_AT_FIELD, incoming.get(UPDATED_AT_FIELD));
+        }
+        return changes;
+    }
+
+    private Map<String, String> bulkUpdate(List<UpdateQuery> queries, IndexCoordinates target) {
+        Map<String, String> failures = new HashMap<>();
+        try {
+            applicantIndexManager.execute(() -> {
+                elasticsearchOperations.bulkUpdate(queries, target);
+                return null;
+            });
+        } catch (BulkFailureException e) {
+            e.getFailedDocuments().forEach((id, details) -> failures.put(id, details.errorMessage()));
+        }
+        return failures;
+    }
+
+    /**
+     * Sends one bulk request and returns the failure reason of each rejected document.
+     * Per-item failures are reported by BulkFailureException after the whole request was processed.
+     */
+    private Map<String, String> bulkIndex(List<IndexQuery> queries, IndexCoordinates target) {
+        Map<String, String> failures = new HashMap<>();
+        try {
+            applicantIndexManager.execute(() -> elasticsearchOperations.bulkIndex(queries, target));
+        } catch (BulkFailureException e) {
+            e.getFailedDocuments().forEach((id, details) -> failures.put(id, details.errorMessage()));
         }
+        return failures;
     }
 
     @Override
     public void deleteApplicant(String applicantId) {
         try {
-            elasticsearchOperations.delete(applicantId, IndexCoordinates.of(APPLICANTS_INDEX));
+            ApplicantIndexManager.WritePlan plan = applicantIndexManager.planWrite();
+            applicantIndexManager.execute(() -> elasticsearchOperations.delete(applicantId, plan.target()));
+            List<IndexCoordinates> followUps = plan.followUpTargets();
+            if (plan.rebuilding()) {
+                // The copy may still bring the applicant back; the rebuild deletes it again before the swap
+                applicantIndexManager.recordDeletion(applicantId);
+            }
+            for (IndexCoordinates target : followUps) {
+                applicantIndexManager.execute(() -> elasticsearchOperations.delete(applicantId, target));
+            }
             log.info("Deleted applicant {}", applicantId);
         } catch (Exception e) {
             log.error("Failed to delete applicant: {}", e.getMessage(), e);
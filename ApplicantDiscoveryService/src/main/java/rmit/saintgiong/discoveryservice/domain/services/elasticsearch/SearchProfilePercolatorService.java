@@ -0,0 +1,341 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonData;
+import jakarta.json.JsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
+import rmit.saintgiong.discoveryservice.domain.services.SearchProfileRepository;
+import rmit.saintgiong.discoveryservice.domain.services.matching.CompiledSearchProfile;
+import rmit.saintgiong.discoveryservice.domain.services.matching.MatchedSearchProfile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reverse matching of applicants against search profiles using an Elasticsearch percolator index.
+ * <p>
+ * Every search profile is stored as a percolate query over the {@link ApplicantDocument} mapping, so
+ * matching an applicant is a single percolate request instead of evaluating each profile in Java.
+ * Several applicants can be percolated in one request; each hit reports the document slots it matched. Hits
+ * are read page by page, so every matched profile is returned however many there are.
+ * <p>
+ * The create, update and delete services change a profile's query once their transaction commits, and a
+ * periodic full registration from the database reconciles any drift, e.g. after a failed request.
+ */
+@Service
+public class SearchProfilePercolatorService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchProfilePercolatorService.class);
+    public static final String PERCOLATOR_INDEX = "search_profiles_percolator";
+    private static final String QUERY_FIELD = "query";
+    private static final String DOCUMENT_SLOT_FIELD = "_percolator_document_slot";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final SearchProfileRepository searchProfileRepository;
+    private final int pageSize;
+
+    // The mapping of an existing index is brought up to date once per application run
+    private boolean mappingUpdated;
+
+    public SearchProfilePercolatorService(
+            ElasticsearchClient elasticsearchClient,
+            ElasticsearchOperations elasticsearchOperations,
+            SearchProfileRepository searchProfileRepository,
+            @Value("${discovery.matching.percolator.page-size:1000}") int pageSize
+    ) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.searchProfileRepository = searchProfileRepository;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Registers every search profile once the application is ready (after data seeding has run).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerAll() {
+        reconcile();
+    }
+
+    /**
+     * Registers every search profile and removes the queries of profiles that no longer exist, so the index
+     * recovers from changes that failed while Elasticsearch was unavailable. Writers are serialized, so a change
+     * committed while the profiles are being read is applied after the reconcile rather than being undone by it.
+     */
+    @Scheduled(
+            initialDelayString = "${discovery.matching.percolator.reconcile-interval:10m}",
+            fixedDelayString = "${discovery.matching.percolator.reconcile-interval:10m}"
+    )
+    public synchronized void reconcile() {
+        try {
+            ensureIndexExists();
+
+            List<SearchProfileEntity> entities = searchProfileRepository.findAllWithSkillTags();
+            List<String> profileIds = new ArrayList<>(entities.size());
+            if (!entities.isEmpty()) {
+                BulkRequest.Builder bulk = new BulkRequest.Builder().index(PERCOLATOR_INDEX);
+                for (SearchProfileEntity entity : entities) {
+                    CompiledSearchProfile profile = CompiledSearchProfile.from(entity);
+                    profileIds.add(profile.profileId().toString());
+                    bulk.operations(op -> op.index(idx -> idx
+                            .id(profile.profileId().toString())
+                            .document(toPercolatorDocument(profile))));
+                }
+
+                BulkResponse response = elasticsearchClient.bulk(bulk.build());
+                if (response.errors()) {
+                    log.warn("Some search profiles could not be registered in '{}'", PERCOLATOR_INDEX);
+                }
+            }
+
+            DeleteByQueryResponse removed = elasticsearchClient.deleteByQuery(request -> request
+                    .index(PERCOLATOR_INDEX)
+                    .query(q -> q.bool(b -> b.mustNot(m -> m.ids(ids -> ids.values(profileIds))))));
+            log.info("Registered {} search profiles in '{}', removed {} stale ones",
+                    entities.size(), PERCOLATOR_INDEX, removed.deleted());
+
+        } catch (Exception e) {
+            log.error("Failed to register search profiles in percolator index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stores (or replaces) the percolate query of a search profile once the current transaction commits
+     * (immediately when none is active). The profile is compiled right away, while the entity's skill tags are
+     * still loadable. Failures are logged rather than thrown; the profile is registered by the next reconcile.
+     */
+    public void register(SearchProfileEntity entity) {
+        CompiledSearchProfile profile = CompiledSearchProfile.from(entity);
+        afterCommit(() -> index(profile));
+    }
+
+    /**
+     * Removes the percolate query of a search profile once the current transaction commits.
+     */
+    public void deregister(UUID profileId) {
+        afterCommit(() -> delete(profileId));
+    }
+
+    private synchronized void index(CompiledSearchProfile profile) {
+        try {
+            ensureIndexExists();
+            elasticsearchClient.index(idx -> idx
+                    .index(PERCOLATOR_INDEX)
+                    .id(profile.profileId().toString())
+                    .document(toPercolatorDocument(profile)));
+            log.info("Registered search profile {} in percolator index", profile.profileId());
+
+        } catch (Exception e) {
+            log.error("Failed to register search profile {} in percolator index: {}", profile.profileId(), e.getMessage(), e);
+        }
+    }
+
+    private synchronized void delete(UUID profileId) {
+        try {
+            elasticsearchClient.delete(del -> del
+                    .index(PERCOLATOR_INDEX)
+                    .id(profileId.toString()));
+            log.info("Deregistered search profile {} from percolator index", profileId);
+
+        } catch (Exception e) {
+            log.error("Failed to deregister search profile {} from percolator index: {}", profileId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the search profiles matched by a single applicant.
+     */
+    public List<MatchedSearchProfile> percolate(ApplicantDocument applicant) throws IOException {
+        return percolate(List.of(applicant)).getOrDefault(applicant.applicantId(), List.of());
+    }
+
+    /**
+     * Percolates several applicants in one request.
+     *
+     * @return matched search profiles keyed by applicant id; applicants without matches are absent
+     */
+    public Map<UUID, List<MatchedSearchProfile>> percolate(List<ApplicantDocument> applicants) throws IOException {
+        if (applicants.isEmpty()) {
+            return Map.of();
+        }
+
+        List<JsonData> documents = new ArrayList<>(applicants.size());
+        for (ApplicantDocument applicant : applicants) {
+            documents.add(JsonData.of(elasticsearchOperations.getElasticsearchConverter().mapObject(applicant)));
+        }
+
+        Map<UUID, List<MatchedSearchProfile>> matches = new HashMap<>();
+        List<FieldValue> searchAfter = null;
+        List<Hit<MatchedSearchProfile>> hits;
+        do {
+            // Sorted by profile id, so each page continues after the last hit of the previous one
+            List<FieldValue> after = searchAfter;
+            SearchResponse<MatchedSearchProfile> response = elasticsearchClient.search(s -> {
+                        s.index(PERCOLATOR_INDEX)
+                                .size(pageSize)
+                                .source(src -> src.filter(f -> f.includes("profileId", "companyId")))
+                                .sort(sort -> sort.field(field -> field.field("profileId")))
+                                .query(q -> q.percolate(p -> p
+                                        .field(QUERY_FIELD)
+                                        .documents(documents)));
+                        return after == null ? s : s.searchAfter(after);
+                    },
+                    MatchedSearchProfile.class);
+
+            hits = response.hits().hits();
+            for (Hit<MatchedSearchProfile> hit : hits) {
+                MatchedSearchProfile profile = hit.source();
+                if (profile == null) {
+                    continue;
+                }
+                for (int slot : documentSlots(hit, applicants.size())) {
+                    matches.computeIfAbsent(applicants.get(slot).applicantId(), key -> new ArrayList<>()).add(profile);
+                }
+            }
+            searchAfter = hits.isEmpty() ? null : hits.get(hits.size() - 1).sort();
+        } while (hits.size() == pageSize);
+        return matches;
+    }
+
+    /**
+     * Creates the percolator index with the applicant mapping plus the percolator and profile fields, or adds
+     * the fields introduced since an existing index was created. Callers hold the monitor.
+     */
+    private void ensureIndexExists() {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(PERCOLATOR_INDEX));
+        if (indexOps.exists()) {
+            if (!mappingUpdated) {
+                updateMapping(indexOps);
+                mappingUpdated = true;
+            }
+            return;
+        }
+
+        log.info("Creating percolator index '{}'", PERCOLATOR_INDEX);
+        indexOps.create(ApplicantIndexManager.analysisSettings(), percolatorMapping());
+        mappingUpdated = true;
+    }
+
+    /**
+     * Applies the current mapping to an existing index. New fields are added; a changed field type is rejected
+     * by Elasticsearch, and the index then has to be dropped so it is created and registered again.
+     */
+    private void updateMapping(IndexOperations indexOps) {
+        Document mapping = percolatorMapping();
+        String normalizer = "index.analysis.normalizer." + ApplicantDocument.KEYWORD_NORMALIZER + ".type";
+        if (indexOps.getSettings().flatten().getString(normalizer) == null) {
+            // Created before the normalizer existed; the normalized subfields cannot be added without it
+            ApplicantIndexManager.removeNormalizedFields(mapping);
+        }
+        try {
+            indexOps.putMapping(mapping);
+            log.info("Updated the mapping of percolator index '{}'", PERCOLATOR_INDEX);
+        } catch (RuntimeException e) {
+            log.warn("Could not update the mapping of percolator index '{}', delete it to have it recreated: {}",
+                    PERCOLATOR_INDEX, e.getMessage());
+        }
+    }
+
+    private Document percolatorMapping() {
+        // Percolate queries are parsed against the applicant field types (keyword country, nested educations, ...)
+        Document mapping = elasticsearchOperations.indexOps(ApplicantDocument.class).createMapping();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> properties = (Map<String, Object>) mapping.get("properties");
+        properties.put(QUERY_FIELD, Map.of("type", "percolator"));
+        properties.put("profileId", Map.of("type", "keyword"));
+        properties.put("companyId", Map.of("type", "keyword"));
+        return mapping;
+    }
+
+    private static Map<String, Object> toPercolatorDocument(CompiledSearchProfile profile) {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("profileId", profile.profileId().toString());
+        document.put("companyId", profile.companyId().toString());
+        document.put(QUERY_FIELD, toQuery(profile));
+        return document;
+    }
+
+    /**
+     * Translates the profile criteria into the same rules used by in-memory matching:
+     * country equals (case-insensitive), some education degree contains the required degree,
+     * and the applicant has at least one of the required skills.
+     */
+    static Map<String, Object> toQuery(CompiledSearchProfile profile) {
+        List<Object> filters = new ArrayList<>();
+
+        if (profile.country() != null) {
+            filters.add(Map.of("term", Map.of("country",
+                    Map.of("value", profile.country(), "case_insensitive", true))));
+        }
+
+        if (profile.highestDegree() != null) {
+            filters.add(Map.of("nested", Map.of(
+                    "path", "educations",
+                    "query", Map.of("wildcard", Map.of("educations.degree",
+                            Map.of("value", "*" + profile.highestDegree().name() + "*", "case_insensitive", true))))));
+        }
+
+        if (profile.skillTagIds().length > 0) {
+            filters.add(Map.of("terms", Map.of("skillIds", Arrays.stream(profile.skillTagIds()).boxed().toList())));
+        }
+
+        if (filters.isEmpty()) {
+            return Map.of("match_all", Map.of());
+        }
+        return Map.of("bool", Map.of("filter", filters));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static List<Integer> documentSlots(Hit<?> hit, int documentCount) {
+        JsonData slots = hit.fields().get(DOCUMENT_SLOT_FIELD);
+        if (slots == null) {
+            // Single-document percolation may omit the slot field
+            return documentCount == 1 ? List.of(0) : List.of();
+        }
+
+        List<Integer> result = new ArrayList<>();
+        for (JsonValue slot : slots.toJson().asJsonArray()) {
+            result.add(Integer.parseInt(slot.toString()));
+        }
+        return result;
+    }
+}
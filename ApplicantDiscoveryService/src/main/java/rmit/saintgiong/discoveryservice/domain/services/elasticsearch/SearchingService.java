@@ -2,7 +2,6 @@ package rmit.saintgiong.discoveryservice.domain.services.elasticsearch; // Adjus
 
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.QueryBuilders;
-import co.elastic.clients.elasticsearch._types.FieldValue;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHits;
@@ -16,7 +15,6 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.core.SearchHit;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -24,11 +22,19 @@ import java.util.stream.Collectors;
 @Service
 public class SearchingService implements SearchingInterface {
 
-    private static final String APPLICANTS_INDEX = "applicants";
+    private static final String APPLICANTS_INDEX = ApplicantIndexManager.APPLICANTS_INDEX;
     private final ElasticsearchOperations elasticsearchOperations;
-
-    public SearchingService(ElasticsearchOperations elasticsearchOperations) {
+    private final ApplicantQueryPlanner applicantQueryPlanner;
+    private final ApplicantIndexManager applicantIndexManager;
+
+    public SearchingService(
+            ElasticsearchOperations elasticsearchOperations,
+            ApplicantQueryPlanner applicantQueryPlanner,
+            ApplicantIndexManager applicantIndexManager
+    ) {
         this.elasticsearchOperations = elasticsearchOperations;
+        this.applicantQueryPlanner = applicantQueryPlanner;
+        this.applicantIndexManager = applicantIndexManager;
     }
 
     /**
@@ -57,48 +63,8 @@ public class SearchingService implements SearchingInterface {
      */
     @Override
     public List<ApplicantDocument> searchComprehensive(String keyword, String city, String country) {
-
-        // 1. Create a list of "Must" conditions (Boolean Logic)
-        List<Query> mustQueries = new ArrayList<>();
-
-        // 2. Full Text Search Clause
-        if (keyword != null && !keyword.isBlank()) {
-            Query ftsQuery = QueryBuilders.multiMatch()
-                    .fields("firstName", "lastName", "biography", "address") // Search everywhere
-                    .query(keyword)
-                    .fuzziness("AUTO")
-                    .build()
-                    ._toQuery();
-            mustQueries.add(ftsQuery);
-        }
-
-        // 3. Filter Clause: City (Exact Match because it is Keyword)
-        if (city != null && !city.isBlank()) {
-            Query cityFilter = QueryBuilders.term()
-                    .field("city")
-                    .value(city)
-                    .build()
-                    ._toQuery();
-            mustQueries.add(cityFilter);
-        }
-
-        // 4. Filter Clause: Country (Exact Match)
-        if (country != null && !country.isBlank()) {
-            Query countryFilter = QueryBuilders.term()
-                    .field("country") // Assumes Country enum saves as String/Keyword
-                    .value(country)
-                    .build()
-                    ._toQuery();
-            mustQueries.add(countryFilter);
-        }
-
-        // 5. Combine everything into one Boolean Query
-        Query finalQuery = QueryBuilders.bool()
-                .must(mustQueries)
-                .build()
-                ._toQuery();
-
-        return executeQuery(finalQuery);
+        return executeQuery(applicantQueryPlanner.planComprehensive(
+                keyword, city, country, applicantIndexManager.features()));
     }
 
     @Override
@@ -142,105 +108,9 @@ public class SearchingService implements SearchingInterface {
             String workExperienceType,
             Pageable pageable) {
 
-        List<Query> mustQueries = new ArrayList<>();
-
-        String targetLocation = (locationValue != null && !locationValue.isBlank()) ? locationValue : "Vietnam";
-        boolean targetIsCountry = (locationValue == null || locationValue.isBlank()) || isCountry;
-
-        if (targetIsCountry) {
-            mustQueries.add(QueryBuilders.match()
-                    .field("country")
-                    .query(targetLocation)
-                    .build()._toQuery());
-        } else {
-            mustQueries.add(QueryBuilders.match() // Use match for fuzziness/case-insensitivity or term for exact
-                    .field("city")
-                    .query(targetLocation)
-                    .build()._toQuery());
-        }
-
-        if (name != null && !name.isBlank()) {
-            mustQueries.add(QueryBuilders.multiMatch()
-                    .fields("firstName", "lastName")
-                    .query(name)
-                    .fuzziness("AUTO")
-                    .build()._toQuery());
-        }
-
-        if (keyword != null && !keyword.isBlank()) {
-            List<Query> ftsShouldQueries = new ArrayList<>();
-
-            ftsShouldQueries.add(QueryBuilders.multiMatch()
-                    .fields("biography", "aboutMe", "skillNames")
-                    .query(keyword)
-                    .fuzziness("AUTO")
-                    .build()._toQuery());
-
-            Query nestedWorkExpQuery = QueryBuilders.multiMatch()
-                    .fields("workExperiences.description", "workExperiences.position", "workExperiences.companyName")
-                    .query(keyword)
-                    .fuzziness("AUTO")
-                    .build()._toQuery();
-            
-            ftsShouldQueries.add(QueryBuilders.nested()
-                    .path("workExperiences")
-                    .query(nestedWorkExpQuery)
-                    .build()._toQuery());
-
-            mustQueries.add(QueryBuilders.bool()
-                    .should(ftsShouldQueries)
-                    .minimumShouldMatch("1")
-                    .build()._toQuery());
-        }
-
-        if (educationLevels != null && !educationLevels.isEmpty()) {
-             List<Query> degreeQueries = educationLevels.stream()
-                .map(degree -> QueryBuilders.match()
-                        .field("educations.degree")
-                        .query(degree) 
-                        .build()._toQuery())
-                .collect(Collectors.toList());
-
-             Query boolDegree = QueryBuilders.bool().should(degreeQueries).minimumShouldMatch("1").build()._toQuery();
-
-             mustQueries.add(QueryBuilders.nested()
-                     .path("educations")
-                     .query(boolDegree)
-                     .build()._toQuery());
-        }
-
-        if (skillIds != null && !skillIds.isEmpty()) {
-            List<FieldValue> values = skillIds.stream().map(FieldValue::of).collect(Collectors.toList());
-            mustQueries.add(QueryBuilders.terms()
-                    .field("skillIds")
-                    .terms(t -> t.value(values))
-                    .build()._toQuery());
-        }
-
-        if (workExperienceType != null) {
-            if ("NONE".equalsIgnoreCase(workExperienceType)) {
-                // No Experience
-                Query nestedAny = QueryBuilders.nested()
-                        .path("workExperiences")
-                        .query(QueryBuilders.matchAll().build()._toQuery())
-                        .build()._toQuery();
-                mustQueries.add(QueryBuilders.bool().mustNot(nestedAny).build()._toQuery());
-                
-            } else if ("ANY".equalsIgnoreCase(workExperienceType)) {
-                 // Must have at least one
-                Query nestedAny = QueryBuilders.nested()
-                        .path("workExperiences")
-                        .query(QueryBuilders.matchAll().build()._toQuery())
-                        .build()._toQuery();
-                mustQueries.add(nestedAny);
-            }
-            
-        }
-
-        Query finalQuery = QueryBuilders.bool()
-                .must(mustQueries)
-                .build()
-                ._toQuery();
+        Query finalQuery = applicantQueryPlanner.plan(ApplicantSearchCriteria.of(
+                name, keyword, locationValue, isCountry, educationLevels, skillIds, workExperienceType),
+                applicantIndexManager.features());
 
         NativeQuery nativeQuery = NativeQuery.builder()
                 .withQuery(finalQuery)
@@ -275,7 +145,4 @@ public class SearchingService implements SearchingInterface {
                 .map(hit -> hit.getContent())
                 .collect(Collectors.toList());
     }
-    public void deleteIndex() {
-        elasticsearchOperations.indexOps(IndexCoordinates.of(APPLICANTS_INDEX)).delete();
-    }
 }
\ No newline at end of file
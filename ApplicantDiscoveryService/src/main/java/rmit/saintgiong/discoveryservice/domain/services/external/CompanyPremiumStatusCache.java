@@ -0,0 +1,95 @@
+package rmit.saintgiong.discoveryservice.domain.services.external;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rmit.saintgiong.discoveryapi.external.services.ExternalDiscoveryRequestInterface;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Per-company premium status cache in front of the Kafka request-reply status lookup.
+ * <p>
+ * Premium companies are cached for a short TTL and non-premium companies for an even shorter one
+ * (negative caching), so an upgrade is picked up quickly. Concurrent lookups for the same company share a
+ * single in-flight request. Failed requests are not cached. Hit and miss counts are published as
+ * {@code cache.*} metrics with {@code cache=companyPremiumStatus}.
+ * <p>
+ * Each answered status is also applied to the {@link PremiumCompanyRegistry}, so matching sees an upgrade or
+ * downgrade before the next full refresh.
+ */
+@Component
+@Slf4j
+public class CompanyPremiumStatusCache {
+
+    private final AsyncLoadingCache<UUID, Boolean> cache;
+
+    @Autowired
+    public CompanyPremiumStatusCache(
+            ExternalDiscoveryRequestInterface externalDiscoveryRequestService,
+            PremiumCompanyRegistry premiumCompanyRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${discovery.premium-status-cache.ttl:2m}") Duration ttl,
+            @Value("${discovery.premium-status-cache.negative-ttl:15s}") Duration negativeTtl,
+            @Value("${discovery.premium-status-cache.maximum-size:10000}") long maximumSize
+    ) {
+        this(externalDiscoveryRequestService, premiumCompanyRegistry, meterRegistry, ttl, negativeTtl, maximumSize,
+                Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    // The ticker drives expiration and the executor runs lookups, so tests can move time forward and load inline
+    CompanyPremiumStatusCache(
+            ExternalDiscoveryRequestInterface externalDiscoveryRequestService,
+            PremiumCompanyRegistry premiumCompanyRegistry,
+            MeterRegistry meterRegistry,
+            Duration ttl,
+            Duration negativeTtl,
+            long maximumSize,
+            Ticker ticker,
+            Executor executor
+    ) {
+        // A null status (failed request) completes the future with null, which Caffeine does not store
+        this.cache = Caffeine.newBuilder()
+                .ticker(ticker)
+                .executor(executor)
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((UUID companyId, Boolean premium) -> premium ? ttl : negativeTtl))
+                .recordStats()
+                .buildAsync(companyId -> {
+                    Boolean premium = externalDiscoveryRequestService.sendGetCompanyPremiumStatusRequest(companyId);
+                    if (premium != null) {
+                        premiumCompanyRegistry.applyChange(companyId, premium);
+                    }
+                    return premium;
+                });
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "companyPremiumStatus");
+    }
+
+    /**
+     * Returns whether the company is premium. A failed lookup is treated as not premium and retried on the next call.
+     */
+    public boolean isPremium(UUID companyId) {
+        try {
+            return Boolean.TRUE.equals(cache.get(companyId).join());
+        } catch (CompletionException e) {
+            log.error("Failed to resolve premium status for company {}", companyId, e.getCause());
+            return false;
+        }
+    }
+
+    public void invalidate(UUID companyId) {
+        cache.synchronous().invalidate(companyId);
+    }
+}
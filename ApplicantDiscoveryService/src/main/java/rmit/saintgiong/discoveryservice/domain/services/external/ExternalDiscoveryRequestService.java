@@ -56,11 +56,12 @@ public class ExternalDiscoveryRequestService implements ExternalDiscoveryRequest
                     .collect(Collectors.toList());
 
         } catch (ExecutionException | InterruptedException e) {
+            // null (not empty) so callers can tell a failed request from "no premium companies"
             log.error("Failed to fetch all profiles via Kafka", e);
-            return Collections.emptyList();
+            return null;
         } catch (Exception e) {
             log.error("Unexpected error in sendGetAllProfilesRequest", e);
-            return Collections.emptyList();
+            return null;
         }
     }
 
@@ -87,11 +88,12 @@ public class ExternalDiscoveryRequestService implements ExternalDiscoveryRequest
             return response.getPremiumStatus();
 
         } catch (ExecutionException | InterruptedException e) {
+            // null (not false) so callers do not cache a failed lookup as "not premium"
             log.error("Failed to fetch status", e);
-            return false;
+            return null;
         } catch (Exception e) {
             log.error("Unexpected error in sendGetCompanyPremiumStatus", e);
-            return false;
+            return null;
 // Unused imports left alone to minimize risk of removing something user wants, but I will fix unreachable code.
         }
     }
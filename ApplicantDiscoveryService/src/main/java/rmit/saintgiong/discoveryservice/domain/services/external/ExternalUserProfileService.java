@@ -1,12 +1,20 @@
 package rmit.saintgiong.discoveryservice.domain.services.external;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import rmit.saintgiong.discoveryapi.internal.common.dto.ApplicantSyncSummaryDto;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobType;
 import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
 import rmit.saintgiong.discoveryapi.internal.document.Education;
 import rmit.saintgiong.discoveryapi.internal.document.WorkExperience;
@@ -14,57 +22,308 @@ import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.IndexingInter
 import rmit.saintgiong.discoveryservice.domain.dto.external.ApplicantProfileResponseDto;
 import rmit.saintgiong.discoveryservice.domain.dto.external.EducationResponseDto;
 import rmit.saintgiong.discoveryservice.domain.dto.external.WorkExperienceResponseDto;
+import rmit.saintgiong.discoveryservice.domain.entity.SyncWatermarkEntity;
+import rmit.saintgiong.discoveryservice.domain.services.SyncWatermarkRepository;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.ApplicantBulkIngester;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.ApplicantContentHasher;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.ApplicantIndexManager;
+import rmit.saintgiong.discoveryservice.domain.services.job.BackgroundJobService;
+import rmit.saintgiong.discoveryservice.domain.services.job.JobContext;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * Pulls applicant profiles from the user profile service and indexes them.
+ * <p>
+ * Profiles are requested page by page and each page is parsed with a streaming JSON parser, so only a batch
+ * of mapped profiles and the documents buffered by the {@link ApplicantBulkIngester} are held in memory. Each
+ * batch is compared with the stored content hashes and only new or changed applicants are written.
+ * The whole sync runs in bulk-load ingest mode and reports counts instead of the indexed documents. Delta
+ * syncs only request profiles changed since a high-water mark persisted in {@code sync_watermark}.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ExternalUserProfileService {
 
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final String APPLICANTS_SYNC = "applicants";
+    // Applicants whose stored hashes are looked up in one multi-get
+    private static final int HASH_LOOKUP_BATCH = 500;
+
+    private final ApplicantBulkIngester applicantBulkIngester;
     private final IndexingInterface indexingInterface;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final ApplicantContentHasher applicantContentHasher;
+    private final ApplicantIndexManager applicantIndexManager;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final SyncWatermarkRepository syncWatermarkRepository;
+    private final String applicantsUrl;
+    private final int pageSize;
+    private final int ingestMinPages;
+    private final BackgroundJobService backgroundJobService;
+    private final boolean scheduledDeltaSyncEnabled;
+
+    public ExternalUserProfileService(
+            ApplicantBulkIngester applicantBulkIngester,
+            IndexingInterface indexingInterface,
+            ApplicantContentHasher applicantContentHasher,
+            ApplicantIndexManager applicantIndexManager,
+            @Qualifier("userProfileRestTemplate") RestTemplate restTemplate,
+            ObjectMapper objectMapper,
+            SyncWatermarkRepository syncWatermarkRepository,
+            BackgroundJobService backgroundJobService,
+            @Value("${discovery.sync.applicants.url:https://sgja-api.vohoangphuc.com/user-profile/applicants}") String applicantsUrl,
+            @Value("${discovery.sync.applicants.page-size:500}") int pageSize,
+            @Value("${discovery.sync.applicants.ingest-min-pages:20}") int ingestMinPages,
+            @Value("${discovery.sync.applicants.delta.enabled:false}") boolean scheduledDeltaSyncEnabled
+    ) {
+        this.applicantBulkIngester = applicantBulkIngester;
+        this.indexingInterface = indexingInterface;
+        this.applicantContentHasher = applicantContentHasher;
+        this.applicantIndexManager = applicantIndexManager;
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.syncWatermarkRepository = syncWatermarkRepository;
+        this.backgroundJobService = backgroundJobService;
+        this.applicantsUrl = applicantsUrl;
+        this.pageSize = pageSize;
+        this.ingestMinPages = ingestMinPages;
+        this.scheduledDeltaSyncEnabled = scheduledDeltaSyncEnabled;
+    }
 
-    public List<ApplicantDocument> syncApplicants() {
-        String url = "https://sgja-api.vohoangphuc.com/user-profile/applicants";
-        log.info("Syncing applicants from {}", url);
+    /**
+     * Starts a delta sync job on a fixed delay when enabled. Skipped while another instance is syncing.
+     */
+    @Scheduled(
+            initialDelayString = "${discovery.sync.applicants.delta.interval:15m}",
+            fixedDelayString = "${discovery.sync.applicants.delta.interval:15m}"
+    )
+    public void scheduledDeltaSync() {
+        if (scheduledDeltaSyncEnabled) {
+            backgroundJobService.submit(JobType.APPLICANT_SYNC, context -> syncApplicants(false, context));
+        }
+    }
 
-        List<ApplicantDocument> indexedDocs = new java.util.ArrayList<>();
+    /**
+     * Starts a full sync job on a cron schedule (monthly by default, {@code -} disables it). Applicants with a current
+     * job gain experience months without their profile changing, so a delta sync never fetches them; the full sync
+     * re-indexes exactly those whose total grew, as their content hash changed, and skips the rest.
+     */
+    @Scheduled(cron = "${discovery.sync.applicants.full.cron:0 0 3 1 * *}")
+    public void scheduledFullSync() {
+        backgroundJobService.submit(JobType.APPLICANT_SYNC, context -> syncApplicants(true, context));
+    }
 
+    /**
+     * Syncs applicants from the user profile service.
+     * <p>
+     * A delta sync only requests profiles updated since the stored high-water mark (inclusive, so profiles
+     * sharing the boundary timestamp are re-indexed rather than missed); without a stored mark it behaves like a
+     * full sync. The mark is advanced to the latest {@code updatedAt} seen once a sync completes without errors,
+     * so a failed sync is retried from the same point next time. A full sync that completes without errors
+     * also lets searches use the work experience summary fields it backfilled.
+     * <p>
+     * A full sync runs in the index manager's ingest mode from the start. A delta sync writes in place and only
+     * switches to ingest mode once it has fetched {@code ingest-min-pages} pages with more to come, so the
+     * frequent small deltas never touch the index settings.
+     * <p>
+     * Runs as a background job (see {@link BackgroundJobService}), which also keeps two instances from syncing at
+     * once. A cancelled sync stops before the next page and reports what was indexed so far.
+     *
+     * @param full whether to fetch every applicant instead of only the changed ones
+     */
+    public ApplicantSyncSummaryDto syncApplicants(boolean full, JobContext context) {
+        Optional<SyncWatermarkEntity> watermark = syncWatermarkRepository.findById(APPLICANTS_SYNC);
+        LocalDateTime updatedSince = full ? null : watermark.map(SyncWatermarkEntity::getHighWaterMark).orElse(null);
+
+        log.info("Syncing applicants from {} ({})", applicantsUrl,
+                updatedSince == null ? "full" : "updated since " + updatedSince);
+        long startedAt = System.nanoTime();
+        SyncProgress progress = new SyncProgress();
+        int pages = 0;
+        boolean completed = false;
+        boolean drained = false;
+
+        ApplicantIndexManager.IngestSession ingestSession = updatedSince == null ? applicantIndexManager.beginIngest(false) : null;
         try {
-            ResponseEntity<List<ApplicantProfileResponseDto>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<ApplicantProfileResponseDto>>() {}
-            );
-
-            List<ApplicantProfileResponseDto> dtos = response.getBody();
-            if (dtos != null && !dtos.isEmpty()) {
-                log.info("Fetched {} applicants. Indexing...", dtos.size());
-                int successCount = 0;
-                for (ApplicantProfileResponseDto dto : dtos) {
-                    try {
-                        ApplicantDocument doc = mapToDocument(dto);
-                        indexingInterface.indexApplicant(doc);
-                        indexedDocs.add(doc);
-                        successCount++;
-                    } catch (Exception e) {
-                        log.error("Failed to map/index applicant {}", dto.applicantId(), e);
-                    }
+            while (true) {
+                if (context.isCancelled()) {
+                    progress.error("Sync cancelled after " + pages + " pages");
+                    break;
+                }
+                int received = fetchPage(pages, updatedSince, progress);
+                pages++;
+                context.phase("Fetched page " + pages);
+                context.progress(progress.fetchedCount());
+
+                // A page size of zero requests the whole list at once
+                if (pageSize <= 0 || received < pageSize) {
+                    completed = true;
+                    break;
+                }
+                if (received > pageSize) {
+                    log.warn("User profile service ignored paging and returned {} applicants, stopping after one page", received);
+                    completed = true;
+                    break;
+                }
+                if (ingestSession == null && pages >= ingestMinPages) {
+                    log.info("Delta sync reached {} pages, continuing in ingest mode", pages);
+                    ingestSession = applicantIndexManager.beginIngest(false);
                 }
-                log.info("Sync completed. Successfully indexed {}/{} applicants.", successCount, dtos.size());
-            } else {
-                log.info("No applicants found to sync.");
             }
+        } catch (Exception e) {
+            log.error("Failed to sync applicants after {} pages", pages, e);
+            progress.error("Sync stopped on page " + pages + ": " + e.getMessage());
+        } finally {
+            // Index what is still buffered or in flight before leaving ingest mode and reporting counts
+            applicantBulkIngester.flush();
+            drained = progress.awaitCompletion(applicantBulkIngester.requestTimeout());
+            if (ingestSession != null) {
+                ingestSession.close();
+            }
+        }
+        if (!drained) {
+            // Counts and the high-water mark would be wrong while documents are still unaccounted for
+            throw new IllegalStateException("Timed out waiting for " + progress.outstanding() + " applicants to be indexed");
+        }
+
+        ApplicantSyncSummaryDto summary = progress.toSummary(
+                completed, pages, Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+        summary.setMode(full ? "FULL" : "DELTA");
+        summary.setUpdatedSince(updatedSince);
 
+        if (completed && summary.getFailed() == 0) {
+            advanceWatermark(watermark, progress.maxUpdatedAt());
+            if (updatedSince == null) {
+                markSummaryFieldsComplete();
+            }
+        }
+        log.info("Sync completed. Fetched {} applicants in {} ms: {} new, {} updated, {} unchanged, {} failed.",
+                summary.getFetched(), summary.getDurationMillis(), summary.getCreated(), summary.getUpdated(),
+                summary.getSkipped(), summary.getFailed());
+        return summary;
+    }
+
+    // Applicants indexed before the summary fields existed have a different content hash, so a full sync
+    // rewrites all of them
+    private void markSummaryFieldsComplete() {
+        try {
+            applicantIndexManager.markWorkExperienceSummaryComplete();
         } catch (Exception e) {
-            log.error("Failed to sync applicants", e);
-            throw new RuntimeException("Failed to sync applicants", e);
+            log.warn("Could not record the work experience summary backfill: {}", e.getMessage());
+        }
+    }
+
+    private void advanceWatermark(Optional<SyncWatermarkEntity> current, LocalDateTime maxUpdatedAt) {
+        SyncWatermarkEntity watermark = current.orElseGet(() -> SyncWatermarkEntity.builder().syncName(APPLICANTS_SYNC).build());
+        if (maxUpdatedAt != null
+                && (watermark.getHighWaterMark() == null || maxUpdatedAt.isAfter(watermark.getHighWaterMark()))) {
+            watermark.setHighWaterMark(maxUpdatedAt);
+        }
+        watermark.setLastSyncedAt(LocalDateTime.now());
+        syncWatermarkRepository.save(watermark);
+        log.info("Applicant sync high-water mark is now {}", watermark.getHighWaterMark());
+    }
+
+    /**
+     * Streams one page of profiles into the bulk ingester and returns the number of profiles it contained.
+     */
+    private int fetchPage(int page, LocalDateTime updatedSince, SyncProgress progress) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(applicantsUrl);
+        if (pageSize > 0) {
+            uriBuilder.queryParam("page", page).queryParam("size", pageSize);
+        }
+        if (updatedSince != null) {
+            uriBuilder.queryParam("updatedSince", updatedSince.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        URI uri = uriBuilder.build().encode().toUri();
+
+        Integer received = restTemplate.execute(
+                uri,
+                HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                response -> {
+                    try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+                        if (parser.nextToken() != JsonToken.START_ARRAY) {
+                            throw new IllegalStateException("Expected a JSON array of applicants");
+                        }
+
+                        int count = 0;
+                        List<ApplicantDocument> documents = new ArrayList<>(HASH_LOOKUP_BATCH);
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            count++;
+                            // Read one profile as a tree so a bad profile does not leave the parser mid-object
+                            JsonNode node = objectMapper.readTree(parser);
+                            ApplicantDocument document = map(node, progress);
+                            if (document != null) {
+                                documents.add(document);
+                            }
+                            if (documents.size() >= HASH_LOOKUP_BATCH) {
+                                submitChanged(documents, progress);
+                                documents.clear();
+                            }
+                        }
+                        submitChanged(documents, progress);
+                        return count;
+                    }
+                });
+
+        log.debug("Fetched page {} with {} applicants", page, received);
+        return received != null ? received : 0;
+    }
+
+    private ApplicantDocument map(JsonNode node, SyncProgress progress) {
+        progress.fetched();
+        try {
+            ApplicantDocument document = mapToDocument(objectMapper.treeToValue(node, ApplicantProfileResponseDto.class));
+            progress.mapped(document.updatedAt());
+            return document;
+        } catch (Exception e) {
+            log.error("Failed to map applicant {}", node.path("applicantId").asText(), e);
+            progress.failed(node.path("applicantId").asText() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Hands the applicants whose content hash differs from the stored one to the ingester and skips the rest.
+     */
+    private void submitChanged(List<ApplicantDocument> documents, SyncProgress progress) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        Map<String, String> storedHashes = indexingInterface.getContentHashes(
+                documents.stream().map(document -> document.applicantId().toString()).toList());
+
+        for (ApplicantDocument document : documents) {
+            String id = document.applicantId().toString();
+            ApplicantDocument hashed = applicantContentHasher.withHash(document);
+            if (hashed.contentHash().equals(storedHashes.get(id))) {
+                progress.skipped();
+                continue;
+            }
+
+            boolean created = !storedHashes.containsKey(id);
+            progress.submitted();
+            applicantBulkIngester.add(hashed).whenComplete((ignored, e) -> {
+                if (e == null) {
+                    progress.indexed(created);
+                } else {
+                    log.error("Failed to index applicant {}: {}", id, e.getMessage());
+                    progress.failedSubmitted(id + ": " + e.getMessage());
+                }
+            });
         }
-        return indexedDocs;
     }
 
     private ApplicantDocument mapToDocument(ApplicantProfileResponseDto dto) {
@@ -96,7 +355,8 @@ public class ExternalUserProfileService {
                 dto.skillIds(),
                 skillNames,
                 dto.createdAt(),
-                dto.updatedAt()
+                dto.updatedAt(),
+                null // contentHash is computed when indexed
         );
     }
     
@@ -127,4 +387,118 @@ public class ExternalUserProfileService {
                 workDto.isCurrent()
         );
     }
+
+    /**
+     * Counters of a running sync. Documents handed to the ingester are tracked until their outcome is known.
+     */
+    private static final class SyncProgress {
+
+        private long fetched;
+        private long created;
+        private long updated;
+        private long skipped;
+        private long failed;
+        private long outstanding;
+        private LocalDateTime maxUpdatedAt;
+        private final List<String> errors = new ArrayList<>();
+
+        synchronized void fetched() {
+            fetched++;
+        }
+
+        synchronized void mapped(LocalDateTime updatedAt) {
+            if (updatedAt != null && (maxUpdatedAt == null || updatedAt.isAfter(maxUpdatedAt))) {
+                maxUpdatedAt = updatedAt;
+            }
+        }
+
+        synchronized void skipped() {
+            skipped++;
+        }
+
+        synchronized void submitted() {
+            outstanding++;
+        }
+
+        synchronized long fetchedCount() {
+            return fetched;
+        }
+
+        synchronized LocalDateTime maxUpdatedAt() {
+            return maxUpdatedAt;
+        }
+
+        synchronized void indexed(boolean isNew) {
+            if (isNew) {
+                created++;
+            } else {
+                updated++;
+            }
+            outstanding--;
+            notifyAll();
+        }
+
+        synchronized void failed(String error) {
+            failed++;
+            error(error);
+        }
+
+        synchronized void failedSubmitted(String error) {
+            outstanding--;
+            failed(error);
+            notifyAll();
+        }
+
+        synchronized void error(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        synchronized long outstanding() {
+            return outstanding;
+        }
+
+        /**
+         * Waits until every submitted document has an outcome. The timeout restarts whenever an outcome arrives,
+         * so a large backlog may take longer as long as bulk requests keep being answered.
+         *
+         * @return whether every outcome arrived; {@code false} once no outcome arrived for {@code timeout}
+         */
+        synchronized boolean awaitCompletion(Duration timeout) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (outstanding > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                long before = outstanding;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                if (outstanding < before) {
+                    deadline = System.nanoTime() + timeout.toNanos();
+                }
+            }
+            return true;
+        }
+
+        synchronized ApplicantSyncSummaryDto toSummary(boolean completed, int pages, long durationMillis) {
+            return ApplicantSyncSummaryDto.builder()
+                    .completed(completed)
+                    .pages(pages)
+                    .fetched(fetched)
+                    .indexed(created + updated)
+                    .created(created)
+                    .updated(updated)
+                    .skipped(skipped)
+                    .failed(failed)
+                    .durationMillis(durationMillis)
+                    .errors(List.copyOf(errors))
+                    .build();
+        }
+    }
 }
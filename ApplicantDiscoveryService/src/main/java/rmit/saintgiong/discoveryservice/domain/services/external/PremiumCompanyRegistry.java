@@ -0,0 +1,151 @@
+package rmit.saintgiong.discoveryservice.domain.services.external;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rmit.saintgiong.discoveryapi.external.services.ExternalDiscoveryRequestInterface;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory set of premium company ids, so applicant matching does not need a Kafka request-reply per event.
+ * <p>
+ * The set is refreshed in the background on a fixed delay shorter than its TTL (refresh-ahead), so readers
+ * always get a snapshot without waiting. When a refresh fails or times out the last good snapshot keeps
+ * being served; past its TTL it is reported as stale through the {@code discovery.premium-companies.stale}
+ * gauge. Between refreshes, the premium status answered for a single company (see
+ * {@link CompanyPremiumStatusCache}) is applied to the snapshot right away.
+ */
+@Component
+@Slf4j
+public class PremiumCompanyRegistry {
+
+    private final ExternalDiscoveryRequestInterface externalDiscoveryRequestService;
+    private final Duration ttl;
+
+    private volatile Snapshot snapshot;
+
+    public PremiumCompanyRegistry(
+            ExternalDiscoveryRequestInterface externalDiscoveryRequestService,
+            MeterRegistry meterRegistry,
+            @Value("${discovery.premium-companies.ttl:5m}") Duration ttl
+    ) {
+        this.externalDiscoveryRequestService = externalDiscoveryRequestService;
+        this.ttl = ttl;
+
+        Gauge.builder("discovery.premium-companies.size", this, registry -> registry.current().companyIds().size())
+                .description("Premium companies in the current snapshot")
+                .register(meterRegistry);
+        Gauge.builder("discovery.premium-companies.age", this,
+                        registry -> Duration.between(registry.current().refreshedAt(), Instant.now()).toSeconds())
+                .description("Seconds since the premium company snapshot was last refreshed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("discovery.premium-companies.stale", this, registry -> registry.isStale() ? 1 : 0)
+                .description("Whether the premium company snapshot is older than its TTL")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the current premium company ids. Only the very first call may block, while the initial
+     * snapshot is loaded.
+     */
+    public Set<UUID> getPremiumCompanyIds() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                if (snapshot == null) {
+                    // Initial load failed: serve an empty set until the scheduled refresh succeeds
+                    snapshot = Snapshot.EMPTY;
+                }
+                current = current();
+            }
+        }
+        return current.companyIds();
+    }
+
+    public boolean isPremium(UUID companyId) {
+        return getPremiumCompanyIds().contains(companyId);
+    }
+
+    /**
+     * Reloads the premium company set ahead of its TTL. Keeps the last good snapshot on failure.
+     */
+    @Scheduled(
+            initialDelayString = "${discovery.premium-companies.initial-delay:0s}",
+            fixedDelayString = "${discovery.premium-companies.refresh-interval:1m}"
+    )
+    public void refresh() {
+        List<Object> companyIdObjects = externalDiscoveryRequestService.sendGetAllPremiumCompaniesRequest();
+
+        if (companyIdObjects == null) {
+            Snapshot current = snapshot;
+            if (current != null && isStale()) {
+                log.warn("Premium company refresh failed, serving snapshot from {} past its TTL of {}",
+                        current.refreshedAt(), ttl);
+            } else {
+                log.warn("Premium company refresh failed, keeping last good snapshot");
+            }
+            return;
+        }
+
+        Set<UUID> companyIds = new HashSet<>();
+        for (Object companyIdObject : companyIdObjects) {
+            try {
+                companyIds.add(UUID.fromString(companyIdObject.toString()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring invalid premium company id: {}", companyIdObject);
+            }
+        }
+
+        synchronized (this) {
+            snapshot = new Snapshot(Set.copyOf(companyIds), Instant.now());
+        }
+        log.debug("Refreshed premium company snapshot with {} companies", companyIds.size());
+    }
+
+    /**
+     * Applies a single company's premium status without waiting for the next refresh. Ignored until the first
+     * snapshot is loaded, which includes the change anyway.
+     */
+    public synchronized void applyChange(UUID companyId, boolean premium) {
+        Snapshot current = snapshot;
+        if (current == null || current.companyIds().contains(companyId) == premium) {
+            return;
+        }
+
+        Set<UUID> companyIds = new HashSet<>(current.companyIds());
+        if (premium) {
+            companyIds.add(companyId);
+        } else {
+            companyIds.remove(companyId);
+        }
+        // Keep the refresh time: an incremental change does not make the rest of the set fresher
+        snapshot = new Snapshot(Set.copyOf(companyIds), current.refreshedAt());
+        log.info("Applied premium status change for company {}: premium={}", companyId, premium);
+    }
+
+    private boolean isStale() {
+        return current().refreshedAt().plus(ttl).isBefore(Instant.now());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : Snapshot.EMPTY;
+    }
+
+    private record Snapshot(Set<UUID> companyIds, Instant refreshedAt) {
+        private static final Snapshot EMPTY = new Snapshot(Set.of(), Instant.EPOCH);
+    }
+}
@@ -0,0 +1,375 @@
+package rmit.saintgiong.discoveryservice.domain.services.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import rmit.saintgiong.discoveryapi.internal.common.dto.BackgroundJobDto;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobStatus;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobType;
+import rmit.saintgiong.discoveryservice.domain.entity.BackgroundJobEntity;
+import rmit.saintgiong.discoveryservice.domain.services.BackgroundJobRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs long operations such as applicant syncs and index rebuilds as background jobs.
+ * <p>
+ * A job is only started after its cluster-wide lock was taken, so at most one job per lock runs across all
+ * instances, and the lock is held until the job ends. Jobs run on a bounded pool.
+ * <p>
+ * Every job has a row in Postgres, next to the lock, so its status can be read and its cancellation requested
+ * from any instance. The instance running the job writes its progress there and polls the cancel flag on a
+ * fixed interval; it answers for its own jobs from memory, which is never older than the row. Rows are kept for
+ * the configured retention after the job finished. Unfinished rows left by an instance that stopped are marked
+ * as failed once the next job taking the same lock starts.
+ */
+@Service
+@Slf4j
+public class BackgroundJobService {
+
+    private final JobLockService jobLockService;
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final ExecutorService executor;
+    // Jobs accepted by this instance
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    public BackgroundJobService(
+            JobLockService jobLockService,
+            BackgroundJobRepository backgroundJobRepository,
+            ObjectMapper objectMapper,
+            @Value("${discovery.jobs.max-concurrent:2}") int maxConcurrent,
+            @Value("${discovery.jobs.retention:1h}") Duration retention
+    ) {
+        this.jobLockService = jobLockService;
+        this.backgroundJobRepository = backgroundJobRepository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrent), runnable -> {
+            Thread thread = new Thread(runnable, "background-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a job unless another job holding the same lock runs on any instance.
+     *
+     * @param task the work to run; its return value is reported as the job result
+     * @return the submitted job, or empty when the lock is taken
+     */
+    public Optional<BackgroundJobDto> submit(JobType type, Function<JobContext, Object> task) {
+        pruneFinished();
+
+        Optional<JobLockService.JobLock> lock = jobLockService.tryAcquire(type.getLockName());
+        if (lock.isEmpty()) {
+            log.info("Not starting {} job, another one is running", type);
+            return Optional.empty();
+        }
+
+        Job job = new Job(UUID.randomUUID(), type);
+        try {
+            // The lock is free, so no instance runs a job taking it: unfinished rows belong to a stopped instance
+            backgroundJobRepository.failUnfinished(
+                    typesSharingLock(type), JobStatus.FAILED, LocalDateTime.now(), "The instance running the job stopped");
+            backgroundJobRepository.save(job.toEntity());
+            jobs.put(job.id, job);
+            executor.execute(() -> run(job, lock.get(), task));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            lock.get().close();
+            throw e;
+        }
+        log.info("Submitted {} job {}", type, job.id);
+        return Optional.of(job.toDto());
+    }
+
+    public Optional<BackgroundJobDto> getJob(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job != null) {
+            return Optional.of(job.toDto());
+        }
+        return backgroundJobRepository.findById(jobId).map(this::toDto);
+    }
+
+    public List<BackgroundJobDto> getJobs() {
+        Map<UUID, BackgroundJobDto> result = new LinkedHashMap<>();
+        for (BackgroundJobEntity stored : backgroundJobRepository.findAllByOrderBySubmittedAtDesc()) {
+            Job job = jobs.get(stored.getJobId());
+            result.put(stored.getJobId(), job != null ? job.toDto() : toDto(stored));
+        }
+        return List.copyOf(result.values());
+    }
+
+    /**
+     * Requests cancellation, also of a job running on another instance. The job stops at its next checkpoint
+     * once its instance sees the request; a finished job is left as it is.
+     */
+    public Optional<BackgroundJobDto> cancel(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job != null) {
+            job.requestCancel();
+        }
+        boolean requested = backgroundJobRepository.requestCancel(jobId) > 0;
+        if (job != null) {
+            log.info("Cancellation requested for {} job {}", job.type, jobId);
+            return Optional.of(job.toDto());
+        }
+
+        Optional<BackgroundJobEntity> stored = backgroundJobRepository.findById(jobId);
+        if (requested) {
+            stored.ifPresent(found -> log.info("Cancellation requested for {} job {} running on another instance",
+                    found.getType(), jobId));
+        }
+        return stored.map(this::toDto);
+    }
+
+    /**
+     * Writes the progress of the jobs running here and picks up cancellations requested on other instances.
+     * Also retries final states that could not be written when their job ended.
+     */
+    @Scheduled(fixedDelayString = "${discovery.jobs.sync-interval:2s}")
+    public void syncJobs() {
+        for (Job job : jobs.values()) {
+            try {
+                BackgroundJobEntity state = job.toEntity();
+                if (state.getStatus().isFinished()) {
+                    if (!job.isStored()) {
+                        storeFinished(job);
+                    }
+                    continue;
+                }
+                backgroundJobRepository.updateProgress(job.id, state.getPhase(), state.getProcessed());
+                if (backgroundJobRepository.findCancelRequested(job.id).orElse(false) && job.requestCancel()) {
+                    log.info("Cancellation of {} job {} was requested on another instance", job.type, job.id);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Failed to sync {} job {}: {}", job.type, job.id, e.getMessage());
+            }
+        }
+    }
+
+    private void run(Job job, JobLockService.JobLock lock, Function<JobContext, Object> task) {
+        try (lock) {
+            job.start();
+            storeStarted(job);
+            job.checkCancelled();
+            Object result = task.apply(job);
+            JobStatus status = job.isCancelled() ? JobStatus.CANCELLED : JobStatus.SUCCEEDED;
+            job.finish(status, result, null);
+            log.info("{} job {} finished as {}", job.type, job.id, status);
+        } catch (CancellationException e) {
+            job.finish(JobStatus.CANCELLED, null, null);
+            log.info("{} job {} cancelled", job.type, job.id);
+        } catch (Exception e) {
+            job.finish(JobStatus.FAILED, null, e.getMessage());
+            log.error("{} job {} failed", job.type, job.id, e);
+        }
+        // Written while no lock is held any more; a failed write is retried by the next sync
+        try {
+            storeFinished(job);
+        } catch (DataAccessException e) {
+            log.warn("Failed to store the final state of {} job {}: {}", job.type, job.id, e.getMessage());
+        }
+    }
+
+    private void storeStarted(Job job) {
+        BackgroundJobEntity state = job.toEntity();
+        try {
+            backgroundJobRepository.markStarted(job.id, state.getStatus(), state.getStartedAt());
+        } catch (DataAccessException e) {
+            log.warn("Failed to store the start of {} job {}: {}", job.type, job.id, e.getMessage());
+        }
+    }
+
+    private void storeFinished(Job job) {
+        BackgroundJobEntity state = job.toEntity();
+        backgroundJobRepository.markFinished(job.id, state.getStatus(), state.getPhase(), state.getProcessed(),
+                state.getFinishedAt(), writeResult(job.result()), state.getError());
+        job.markStored();
+    }
+
+    private void pruneFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isStored() && job.finishedBefore(cutoff));
+        backgroundJobRepository.deleteFinishedBefore(cutoff);
+    }
+
+    private static List<JobType> typesSharingLock(JobType type) {
+        return Arrays.stream(JobType.values())
+                .filter(other -> other.getLockName().equals(type.getLockName()))
+                .toList();
+    }
+
+    private String writeResult(Object result) {
+        if (result == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize job result of type {}, storing its text: {}", result.getClass().getSimpleName(), e.getMessage());
+            return writeResult(String.valueOf(result));
+        }
+    }
+
+    private Object readResult(String result) {
+        if (result == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(result);
+        } catch (JsonProcessingException e) {
+            return result;
+        }
+    }
+
+    private BackgroundJobDto toDto(BackgroundJobEntity stored) {
+        return BackgroundJobDto.builder()
+                .jobId(stored.getJobId())
+                .type(stored.getType())
+                .status(stored.getStatus())
+                .phase(stored.getPhase())
+                .processed(stored.getProcessed())
+                .cancelRequested(stored.isCancelRequested())
+                .submittedAt(stored.getSubmittedAt())
+                .startedAt(stored.getStartedAt())
+                .finishedAt(stored.getFinishedAt())
+                .result(readResult(stored.getResult()))
+                .error(stored.getError())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Job implements JobContext {
+
+        private final UUID id;
+        private final JobType type;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private JobStatus status = JobStatus.QUEUED;
+        private String phase;
+        private long processed;
+        private boolean cancelRequested;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private Object result;
+        private String error;
+        // Whether the final state was written to the job's row
+        private boolean stored;
+
+        private Job(UUID id, JobType type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        @Override
+        public synchronized boolean isCancelled() {
+            return cancelRequested;
+        }
+
+        @Override
+        public synchronized void phase(String phase) {
+            this.phase = phase;
+        }
+
+        @Override
+        public synchronized void progress(long processed) {
+            this.processed = processed;
+        }
+
+        /**
+         * Returns whether this call requested the cancellation.
+         */
+        synchronized boolean requestCancel() {
+            if (status.isFinished() || cancelRequested) {
+                return false;
+            }
+            cancelRequested = true;
+            return true;
+        }
+
+        synchronized void start() {
+            status = JobStatus.RUNNING;
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void finish(JobStatus status, Object result, String error) {
+            this.status = status;
+            this.result = result;
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        synchronized boolean finishedBefore(LocalDateTime cutoff) {
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        }
+
+        synchronized Object result() {
+            return result;
+        }
+
+        synchronized boolean isStored() {
+            return stored;
+        }
+
+        synchronized void markStored() {
+            stored = true;
+        }
+
+        // Every column except the result, which the service serializes
+        synchronized BackgroundJobEntity toEntity() {
+            return BackgroundJobEntity.builder()
+                    .jobId(id)
+                    .type(type)
+                    .status(status)
+                    .phase(phase)
+                    .processed(processed)
+                    .cancelRequested(cancelRequested)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+
+        synchronized BackgroundJobDto toDto() {
+            return BackgroundJobDto.builder()
+                    .jobId(id)
+                    .type(type)
+                    .status(status)
+                    .phase(phase)
+                    .processed(processed)
+                    .cancelRequested(cancelRequested)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .result(result)
+                    .error(error)
+                    .build();
+        }
+    }
+}
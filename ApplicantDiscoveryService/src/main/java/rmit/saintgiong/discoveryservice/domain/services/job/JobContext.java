@@ -0,0 +1,22 @@
+package rmit.saintgiong.discoveryservice.domain.services.job;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Handle a running background job uses to report progress and to notice cancellation.
+ * Cancellation is cooperative: the job checks it at safe points and stops there.
+ */
+public interface JobContext {
+
+    boolean isCancelled();
+
+    void phase(String phase);
+
+    void progress(long processed);
+
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Job was cancelled");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package rmit.saintgiong.discoveryservice.domain.services.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Cluster-wide job locks backed by Postgres session-level advisory locks.
+ * <p>
+ * A lock lives as long as the database session that took it, so each held lock pins one pooled connection until
+ * it is released. If the instance dies, Postgres drops the session and the lock with it, so a crashed job never
+ * blocks the next run.
+ * <p>
+ * Locks can also be held shared, by any number of sessions at once, to keep an exclusive holder out while any of
+ * them is active.
+ */
+@Service
+@Slf4j
+public class JobLockService {
+
+    // High 32 bits of every key, keeping these locks apart from other advisory lock users of the database
+    private static final long KEY_NAMESPACE = 0x4A4D4144L << 32;
+
+    private final DataSource dataSource;
+
+    public JobLockService(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Takes the lock without waiting.
+     *
+     * @return the held lock, or empty when another session holds it
+     */
+    public Optional<JobLock> tryAcquire(String name) {
+        long key = lockKey(name);
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            if (call(connection, "SELECT pg_try_advisory_lock(?)", key)) {
+                return Optional.of(new JobLock(name, key, connection, false));
+            }
+            connection.close();
+            return Optional.empty();
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IllegalStateException("Failed to acquire job lock '" + name + "'", e);
+        }
+    }
+
+    /**
+     * Takes the lock in shared mode, waiting while it is held exclusively.
+     */
+    public JobLock acquireShared(String name) {
+        long key = lockKey(name);
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_lock_shared(?)")) {
+                statement.setLong(1, key);
+                statement.execute();
+            }
+            return new JobLock(name, key, connection, true);
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IllegalStateException("Failed to acquire shared job lock '" + name + "'", e);
+        }
+    }
+
+    static long lockKey(String name) {
+        return KEY_NAMESPACE | (name.hashCode() & 0xFFFFFFFFL);
+    }
+
+    private static boolean call(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close job lock connection", e);
+        }
+    }
+
+    public static final class JobLock implements AutoCloseable {
+
+        private final String name;
+        private final long key;
+        private final Connection connection;
+        private final boolean shared;
+
+        private JobLock(String name, long key, Connection connection, boolean shared) {
+            this.name = name;
+            this.key = key;
+            this.connection = connection;
+            this.shared = shared;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void close() {
+            try {
+                String unlock = shared ? "SELECT pg_advisory_unlock_shared(?)" : "SELECT pg_advisory_unlock(?)";
+                if (!call(connection, unlock, key)) {
+                    log.warn("Job lock '{}' was not held when released", name);
+                }
+                closeQuietly(connection);
+            } catch (SQLException e) {
+                // Drop the session instead of returning it to the pool, which releases the lock with it
+                log.warn("Failed to release job lock '{}', aborting its connection", name, e);
+                try {
+                    connection.abort(Runnable::run);
+                } catch (SQLException abortFailure) {
+                    log.warn("Failed to abort job lock connection", abortFailure);
+                }
+                closeQuietly(connection);
+            }
+        }
+    }
+}
@@ -5,26 +5,29 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.Set;
-import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 // Internal Document Dependencies
 import rmit.saintgiong.discoveryapi.internal.common.types.type.KafkaTopic;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.BulkIndexResult;
 import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.IndexingInterface;
 import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
 import rmit.saintgiong.discoveryapi.internal.document.Education;
 import rmit.saintgiong.discoveryapi.internal.document.WorkExperience;
 // External Services and Repositories
-import rmit.saintgiong.discoveryapi.external.services.ExternalDiscoveryRequestInterface;
-import rmit.saintgiong.discoveryservice.domain.services.SearchProfileRepository;
-import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
+import rmit.saintgiong.discoveryservice.domain.services.matching.MatchFingerprintService;
+import rmit.saintgiong.discoveryservice.domain.services.matching.MatchingPipeline;
 
 
 // Avro Imports
@@ -32,71 +35,101 @@ import rmit.saintgiong.jobapplicant.userprofile.avro.JaApplicantCreatedEvent;
 import rmit.saintgiong.jobapplicant.userprofile.avro.JaApplicantUpdatedEvent;
 import rmit.saintgiong.jobapplicant.userprofile.avro.EducationEvent;
 import rmit.saintgiong.jobapplicant.userprofile.avro.WorkExperienceEvent;
-import rmit.saintgiong.shared.dto.avro.notification.ApplicantMatchNotificationRecord;
 
 @Service
 public class CloudKafkaConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(CloudKafkaConsumer.class);
     private final IndexingInterface indexingInterface;
-    private final ExternalDiscoveryRequestInterface externalDiscoveryRequestService;
-    private final SearchProfileRepository searchProfileRepository;
+    private final MatchFingerprintService matchFingerprintService;
+    private final MatchingPipeline matchingPipeline;
 
     public CloudKafkaConsumer(
             IndexingInterface indexingInterface,
-            ExternalDiscoveryRequestInterface externalDiscoveryRequestService,
-            SearchProfileRepository searchProfileRepository
+            MatchFingerprintService matchFingerprintService,
+            MatchingPipeline matchingPipeline
     ) {
         this.indexingInterface = indexingInterface;
-        this.externalDiscoveryRequestService = externalDiscoveryRequestService;
-        this.searchProfileRepository = searchProfileRepository;
+        this.matchFingerprintService = matchFingerprintService;
+        this.matchingPipeline = matchingPipeline;
     }
 
     @KafkaListener(
+            id = MatchingPipeline.APPLICANT_CREATED_LISTENER_ID,
+            idIsGroup = false,
             topics = KafkaTopic.JA_APPLICANT_CREATED_TOPIC,
-            containerFactory = "cloudKafkaListenerContainerFactory"
+            containerFactory = "cloudBatchKafkaListenerContainerFactory"
     )
-    public void consumeApplicantAdd(ConsumerRecord<String, JaApplicantCreatedEvent> record) {
-        JaApplicantCreatedEvent event = record.value();
-        String userId = String.valueOf(event.getUserId());
-
-        try {
-            log.info("Consuming ADD event for userId: {}", userId);
-
-            ApplicantDocument document = mapCreatedToDocument(event);
-            indexingInterface.indexApplicant(document);
-
-            log.info("Successfully indexed ADDED applicant: {}", userId);
+    public void consumeApplicantAdd(List<ConsumerRecord<String, JaApplicantCreatedEvent>> records) {
+        log.info("Consuming batch of {} ADD events", records.size());
+
+        // Collapse the batch to the latest event per applicant
+        Map<String, ApplicantDocument> documents = new LinkedHashMap<>();
+        for (ConsumerRecord<String, JaApplicantCreatedEvent> record : records) {
+            if (isUnreadable(record, "ADD")) {
+                continue;
+            }
+            String userId = null;
+            try {
+                userId = String.valueOf(record.value().getUserId());
+                documents.remove(userId);
+                documents.put(userId, mapCreatedToDocument(record.value()));
+            } catch (Exception e) {
+                log.error("Error mapping applicant ADD event for userId: {}", userId, e);
+            }
+        }
 
-            // Check for matches (isUpdate = false)
-            checkMatches(document, false);
+        for (ApplicantDocument document : writeBatch(documents, "ADDED", indexingInterface::indexApplicants)) {
+            try {
+                // Match asynchronously so a slow premium-company reply does not stall the partition
+                matchingPipeline.submit(document, false);
 
-        } catch (Exception e) {
-            log.error("Error consuming applicant ADD event for userId: {}", userId, e);
+            } catch (Exception e) {
+                log.error("Error consuming applicant ADD event for userId: {}", document.applicantId(), e);
+            }
         }
     }
 
     @KafkaListener(
+            id = MatchingPipeline.APPLICANT_UPDATED_LISTENER_ID,
+            idIsGroup = false,
             topics = KafkaTopic.JA_APPLICANT_UPDATED_TOPIC,
-            containerFactory = "cloudKafkaListenerContainerFactory"
+            containerFactory = "cloudBatchKafkaListenerContainerFactory"
     )
-    public void consumeApplicantUpdate(ConsumerRecord<String, JaApplicantUpdatedEvent> record) {
-        JaApplicantUpdatedEvent event = record.value();
-        String userId = String.valueOf(event.getUserId());
-
-        try {
-            log.info("Consuming UPDATE event for userId: {}", userId);
-
-            ApplicantDocument document = mapToDocument(event);
-            indexingInterface.indexApplicant(document);
+    public void consumeApplicantUpdate(List<ConsumerRecord<String, JaApplicantUpdatedEvent>> records) {
+        log.info("Consuming batch of {} UPDATE events", records.size());
+
+        // Collapse the batch to the latest event per applicant
+        Map<String, ApplicantDocument> documents = new LinkedHashMap<>();
+        for (ConsumerRecord<String, JaApplicantUpdatedEvent> record : records) {
+            if (isUnreadable(record, "UPDATE")) {
+                continue;
+            }
+            String userId = null;
+            try {
+                userId = String.valueOf(record.value().getUserId());
+                documents.remove(userId);
+                documents.put(userId, mapToDocument(record.value()));
+            } catch (Exception e) {
+                log.error("Error mapping applicant UPDATE event for userId: {}", userId, e);
+            }
+        }
 
-            log.info("Successfully indexed UPDATED applicant: {}", userId);
+        // Partial updates keep createdAt and skip applicants whose indexed fields did not change
+        for (ApplicantDocument document : writeBatch(documents, "UPDATED", indexingInterface::updateApplicants)) {
+            try {
+                // Skip matching when none of the match-relevant fields changed
+                if (!matchFingerprintService.hasChanged(document)) {
+                    log.info("Match-relevant fields unchanged for applicant {}, skipping matching", document.applicantId());
+                    continue;
+                }
 
-            // Check for matches (isUpdate = true)
-            checkMatches(document, true);
+                // Match asynchronously so a slow premium-company reply does not stall the partition
+                matchingPipeline.submit(document, true);
 
-        } catch (Exception e) {
-            log.error("Error consuming applicant UPDATE event for userId: {}", userId, e);
+            } catch (Exception e) {
+                log.error("Error consuming applicant UPDATE event for userId: {}", document.applicantId(), e);
+            }
         }
     }
 
@@ -105,122 +138,73 @@ public class CloudKafkaConsumer {
             containerFactory = "cloudKafkaListenerContainerFactory"
     )
     public void consumeApplicantDelete(ConsumerRecord<String, JaApplicantUpdatedEvent> record) {
-        JaApplicantUpdatedEvent event = record.value();
-        String userId = String.valueOf(event.getUserId());
+        if (isUnreadable(record, "DELETE")) {
+            return;
+        }
+        String userId = null;
 
         try {
+            userId = String.valueOf(record.value().getUserId());
             log.info("Consuming DELETE event for userId: {}", userId);
 
             indexingInterface.deleteApplicant(userId);
 
             log.info("Successfully deleted applicant index: {}", userId);
 
+            matchFingerprintService.forget(UUID.fromString(userId));
+
         } catch (Exception e) {
             log.error("Error consuming applicant DELETE event for userId: {}", userId, e);
         }
     }
-    
-
-    // --- Matching Logic ---
 
-    private void checkMatches(ApplicantDocument applicant, boolean isUpdate) {
-        try {
-            // 1. Get all premium company IDs
-            List<Object> companyIdObjects = externalDiscoveryRequestService.sendGetAllPremiumCompaniesRequest();
-            if (companyIdObjects == null || companyIdObjects.isEmpty()) {
-                log.info("No premium companies found or error fetching them.");
-                return;
-            }
-
-            List<UUID> premiumCompanyIds = companyIdObjects.stream()
-                    .map(obj -> {
-                        try {
-                            return UUID.fromString(obj.toString());
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            if (premiumCompanyIds.isEmpty()) {
-                return;
-            }
-
-            // 2. Get search profiles for these companies
-            List<SearchProfileEntity> searchProfiles = searchProfileRepository.findByCompanyIdIn(premiumCompanyIds);
-            
-            // MOCK DATA FOR TESTING
-
-            
-            log.info("Found {} search profiles from premium companies to check against applicant {}", searchProfiles.size(), applicant.applicantId());
-
-            // 3. Compare applicant against profiles
-            for (SearchProfileEntity profile : searchProfiles) {
-                if (isMatch(applicant, profile)) {
-                    log.info("MATCH FOUND: Applicant {} matches Search Profile {} (Company {})", 
-                        applicant.applicantId(), profile.getProfileId(), profile.getCompanyId());
-                    
-                    // Send notification
-                    ApplicantMatchNotificationRecord notification = ApplicantMatchNotificationRecord.newBuilder()
-                            .setApplicantId(applicant.applicantId())
-                            .setCompanyId(profile.getCompanyId())
-                            .setSearchProfileId(profile.getProfileId())
-                            .build();
-
-                    externalDiscoveryRequestService.sendMatchNotification(notification, isUpdate);
-                }
-            }
-
-        } catch (Exception e) {
-            log.error("Error checking matches for applicant {}", applicant.applicantId(), e);
+    /**
+     * Reports a record without value, e.g. one that could not be deserialized or a tombstone, so it is skipped
+     * instead of failing the rest of the batch.
+     */
+    private static boolean isUnreadable(ConsumerRecord<String, ?> record, String action) {
+        if (record.value() != null) {
+            return false;
         }
+        log.error("Skipping {} event without value at {}-{} offset {}", action, record.topic(), record.partition(), record.offset());
+        return true;
     }
 
-    private boolean isMatch(ApplicantDocument applicant, SearchProfileEntity profile) {
-        // 1. Country Check
-        if (profile.getCountry() != null && !profile.getCountry().isEmpty()) {
-            if (applicant.country() == null || !applicant.country().equalsIgnoreCase(profile.getCountry())) {
-                return false;
-            }
+    /**
+     * Writes the collapsed batch with one bulk request and returns the documents that were written.
+     * Rejected documents are logged and left out, so one bad document does not fail the whole batch.
+     */
+    private List<ApplicantDocument> writeBatch(
+            Map<String, ApplicantDocument> documents,
+            String action,
+            Function<Collection<ApplicantDocument>, BulkIndexResult> bulkWrite
+    ) {
+        if (documents.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        // 2. Degree Check
-        if (profile.getHighestDegree() != null) {
-            boolean degreeMatches = false;
-            if (applicant.educations() != null) {
-                for (Education edu : applicant.educations()) {
-                    if (edu.degree() != null && edu.degree().toUpperCase().contains(profile.getHighestDegree().name())) {
-                        degreeMatches = true;
-                        break;
-                    }
-                }
-            }
-            if (!degreeMatches) return false;
+        BulkIndexResult result;
+        try {
+            result = bulkWrite.apply(documents.values());
+        } catch (Exception e) {
+            log.error("Error bulk indexing {} {} applicants", documents.size(), action, e);
+            return Collections.emptyList();
         }
 
-        // 3. Skills Check (Applicant must have ALL required skills)
-        if (profile.getSkillTags() != null && !profile.getSkillTags().isEmpty()) {
-            if (applicant.skillIds() == null || applicant.skillIds().isEmpty()) {
-                return false;
-            }
-            // Convert applicant's Long IDs to Integer for comparison (handling potential type mismatch)
-            Set<Integer> applicantSkillIds = applicant.skillIds().stream()
-                    .map(Long::intValue)
-                    .collect(Collectors.toSet());
+        result.failures().forEach((userId, reason) ->
+                log.error("Failed to index {} applicant {}: {}", action, userId, reason));
 
-            Set<Integer> requiredSkillIds = profile.getSkillTags().stream()
-                    .map(tagEntity -> tagEntity.getSkillTagId().getTagId())
-                    .collect(Collectors.toSet());
-
-            // Match if have any required skill
-            return !Collections.disjoint(applicantSkillIds, requiredSkillIds);
+        List<ApplicantDocument> indexed = new ArrayList<>(result.indexedIds().size());
+        for (String userId : result.indexedIds()) {
+            ApplicantDocument document = documents.get(userId);
+            if (document != null) {
+                indexed.add(document);
+            }
         }
-
-        return true;
+        log.info("Successfully indexed {} {} applicants", indexed.size(), action);
+        return indexed;
     }
 
-
     private ApplicantDocument mapToDocument(JaApplicantUpdatedEvent event) {
         List<Education> educations = (event.getEducations() != null)
                 ? event.getEducations().stream().map(this::mapEducation).collect(Collectors.toList())
@@ -250,8 +234,9 @@ public class CloudKafkaConsumer {
                 experiences,
                 skillIds,
                 skillNames,
-                LocalDateTime.now(), // createdAt (refreshed on sync)
-                LocalDateTime.now()  // updatedAt
+                LocalDateTime.now(), // createdAt (the stored value is kept on update)
+                LocalDateTime.now(), // updatedAt
+                null                 // contentHash is computed when indexed
         );
     }
 
@@ -312,7 +297,8 @@ public class CloudKafkaConsumer {
                 Collections.emptyList(), // SkillIds
                 Collections.emptyList(), // SkillNames
                 LocalDateTime.now(),     // CreatedAt
-                LocalDateTime.now()      // UpdatedAt
+                LocalDateTime.now(),     // UpdatedAt
+                null                     // ContentHash is computed when indexed
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import rmit.saintgiong.discoveryapi.internal.common.types.type.DegreeType;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.document.Education;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Compact, match-ready view of an applicant, computed once per event and shared by every
+ * {@link CompiledSearchProfile#matches(ApplicantFeatures)} call.
+ *
+ * @param skillIds         sorted, distinct skill ids
+ * @param countryCode      code from {@link CountryCodes#lookup(String)}
+ * @param country          normalized country, compared only when the code is {@link CountryCodes#UNKNOWN}
+ * @param degreeMask       bit per {@link DegreeType} ordinal the applicant holds
+ * @param employmentMask   employment types the applicant accepts, 0 when unknown
+ * @param expectedSalary   expected salary, {@code NaN} when unknown
+ */
+public record ApplicantFeatures(
+        UUID applicantId,
+        int[] skillIds,
+        int countryCode,
+        String country,
+        int degreeMask,
+        long employmentMask,
+        double expectedSalary
+) {
+
+    public static ApplicantFeatures from(ApplicantDocument applicant) {
+        // The applicant document carries no employment preference or expected salary yet,
+        // so those criteria are left unknown and never exclude a profile.
+        return new ApplicantFeatures(
+                applicant.applicantId(),
+                toSortedIds(applicant),
+                CountryCodes.lookup(applicant.country()),
+                CountryCodes.normalize(applicant.country()),
+                degreeMaskOf(applicant),
+                0L,
+                Double.NaN
+        );
+    }
+
+    /**
+     * Builds the degree mask with the "degree name contains the degree type" rule, e.g. "Master of Science".
+     */
+    static int degreeMaskOf(ApplicantDocument applicant) {
+        int mask = 0;
+        if (applicant.educations() == null) {
+            return mask;
+        }
+        for (Education education : applicant.educations()) {
+            if (education.degree() == null) {
+                continue;
+            }
+            String degree = education.degree().toUpperCase(Locale.ROOT);
+            for (DegreeType type : DegreeType.values()) {
+                if (degree.contains(type.name())) {
+                    mask |= 1 << type.ordinal();
+                }
+            }
+        }
+        return mask;
+    }
+
+    public boolean holdsDegree(DegreeType degree) {
+        return (degreeMask & (1 << degree.ordinal())) != 0;
+    }
+
+    private static int[] toSortedIds(ApplicantDocument applicant) {
+        if (applicant.skillIds() == null || applicant.skillIds().isEmpty()) {
+            return new int[0];
+        }
+        return applicant.skillIds().stream()
+                .mapToInt(Long::intValue)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ApplicantFeatures that)) return false;
+        return countryCode == that.countryCode
+                && Objects.equals(country, that.country)
+                && degreeMask == that.degreeMask
+                && employmentMask == that.employmentMask
+                && Double.compare(expectedSalary, that.expectedSalary) == 0
+                && Arrays.equals(skillIds, that.skillIds)
+                && Objects.equals(applicantId, that.applicantId);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(applicantId, countryCode, country, degreeMask, employmentMask, expectedSalary);
+        return 31 * result + Arrays.hashCode(skillIds);
+    }
+
+    @Override
+    public String toString() {
+        return "ApplicantFeatures[applicantId=" + applicantId
+                + ", skillIds=" + Arrays.toString(skillIds)
+                + ", countryCode=" + countryCode
+                + ", country=" + country
+                + ", degreeMask=" + degreeMask
+                + ", employmentMask=" + employmentMask
+                + ", expectedSalary=" + expectedSalary + "]";
+    }
+}
@@ -0,0 +1,99 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.SearchProfilePercolatorService;
+import rmit.saintgiong.discoveryservice.domain.services.external.PremiumCompanyRegistry;
+import rmit.saintgiong.shared.dto.avro.notification.ApplicantMatchNotificationRecord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resolves which premium companies' search profiles an applicant matches.
+ */
+@Service
+@Slf4j
+public class ApplicantMatchingService {
+
+    private final PremiumCompanyRegistry premiumCompanyRegistry;
+    private final SearchProfileMatchIndex searchProfileMatchIndex;
+    private final SearchProfilePercolatorService searchProfilePercolatorService;
+    private final boolean percolatorEnabled;
+
+    public ApplicantMatchingService(
+            PremiumCompanyRegistry premiumCompanyRegistry,
+            SearchProfileMatchIndex searchProfileMatchIndex,
+            SearchProfilePercolatorService searchProfilePercolatorService,
+            @Value("${discovery.matching.percolator.enabled:true}") boolean percolatorEnabled
+    ) {
+        this.premiumCompanyRegistry = premiumCompanyRegistry;
+        this.searchProfileMatchIndex = searchProfileMatchIndex;
+        this.searchProfilePercolatorService = searchProfilePercolatorService;
+        this.percolatorEnabled = percolatorEnabled;
+    }
+
+    /**
+     * Builds one notification per search profile of a premium company that the applicant matches.
+     */
+    public List<ApplicantMatchNotificationRecord> match(ApplicantDocument applicant) {
+        // 1. Get all premium company IDs from the in-memory snapshot
+        Set<UUID> premiumCompanyIds = premiumCompanyRegistry.getPremiumCompanyIds();
+        if (premiumCompanyIds.isEmpty()) {
+            log.info("No premium companies found or error fetching them.");
+            return Collections.emptyList();
+        }
+
+        // 2. Resolve the search profiles the applicant satisfies
+        List<MatchedSearchProfile> matches = findMatchingProfiles(applicant);
+
+        log.info("Found {} search profiles matching applicant {}", matches.size(), applicant.applicantId());
+
+        // 3. Keep profiles owned by premium companies
+        List<ApplicantMatchNotificationRecord> notifications = new ArrayList<>();
+        for (MatchedSearchProfile profile : matches) {
+            if (premiumCompanyIds.contains(profile.companyId())) {
+                log.info("MATCH FOUND: Applicant {} matches Search Profile {} (Company {})",
+                        applicant.applicantId(), profile.profileId(), profile.companyId());
+
+                notifications.add(ApplicantMatchNotificationRecord.newBuilder()
+                        .setApplicantId(applicant.applicantId())
+                        .setCompanyId(profile.companyId())
+                        .setSearchProfileId(profile.profileId())
+                        .build());
+            }
+        }
+        return notifications;
+    }
+
+    /**
+     * Uses a single percolate request when enabled, falling back to the in-memory index when
+     * the percolator is disabled or Elasticsearch cannot be reached.
+     */
+    public List<MatchedSearchProfile> findMatchingProfiles(ApplicantDocument applicant) {
+        if (percolatorEnabled) {
+            try {
+                return searchProfilePercolatorService.percolate(applicant);
+            } catch (Exception e) {
+                log.warn("Percolation failed for applicant {}, falling back to in-memory matching: {}",
+                        applicant.applicantId(), e.getMessage());
+            }
+        }
+
+        // Convert the applicant once, pre-select candidates from the in-memory index,
+        // then evaluate the compiled profiles
+        ApplicantFeatures features = ApplicantFeatures.from(applicant);
+        List<MatchedSearchProfile> matches = new ArrayList<>();
+        for (CompiledSearchProfile profile : searchProfileMatchIndex.findCandidates(features)) {
+            if (profile.matches(features)) {
+                matches.add(new MatchedSearchProfile(profile.profileId(), profile.companyId()));
+            }
+        }
+        return matches;
+    }
+}
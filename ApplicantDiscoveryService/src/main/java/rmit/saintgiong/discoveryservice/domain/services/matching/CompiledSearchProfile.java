@@ -0,0 +1,176 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import rmit.saintgiong.discoveryapi.internal.common.types.type.DegreeType;
+import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.UUID;
+
+/**
+ * Immutable, pre-compiled form of a search profile used for applicant matching.
+ * <p>
+ * Built once per profile change while the entity is still attached, so lazy skill tags never leak
+ * outside the persistence context. {@link #matches(ApplicantFeatures)} only compares primitives and
+ * walks two sorted arrays, so evaluating many profiles against one applicant does not allocate.
+ */
+public final class CompiledSearchProfile {
+
+    private static final int[] NO_SKILLS = new int[0];
+
+    private final UUID profileId;
+    private final UUID companyId;
+    private final String country;
+    private final int countryCode;
+    private final DegreeType highestDegree;
+    private final int[] skillTagIds;
+    private final long employmentMask;
+    private final double salaryMin;
+    private final double salaryMax;
+
+    private CompiledSearchProfile(UUID profileId, UUID companyId, String country, DegreeType highestDegree,
+                                  int[] skillTagIds, long employmentMask, double salaryMin, double salaryMax) {
+        this.profileId = profileId;
+        this.companyId = companyId;
+        this.country = country;
+        this.countryCode = CountryCodes.lookup(country);
+        this.highestDegree = highestDegree;
+        this.skillTagIds = skillTagIds;
+        this.employmentMask = employmentMask;
+        this.salaryMin = salaryMin;
+        this.salaryMax = salaryMax;
+    }
+
+    public static CompiledSearchProfile from(SearchProfileEntity entity) {
+        int[] skillTagIds = (entity.getSkillTags() != null && !entity.getSkillTags().isEmpty())
+                ? entity.getSkillTags().stream()
+                        .mapToInt(tagEntity -> tagEntity.getSkillTagId().getTagId())
+                        .sorted()
+                        .distinct()
+                        .toArray()
+                : NO_SKILLS;
+
+        return new CompiledSearchProfile(
+                entity.getProfileId(),
+                entity.getCompanyId(),
+                CountryCodes.normalize(entity.getCountry()),
+                entity.getHighestDegree(),
+                skillTagIds,
+                toMask(entity.getEmploymentType()),
+                entity.getSalaryMin() != null ? entity.getSalaryMin() : Double.NEGATIVE_INFINITY,
+                entity.getSalaryMax() != null ? entity.getSalaryMax() : Double.POSITIVE_INFINITY
+        );
+    }
+
+    /**
+     * Evaluates every criterion of the profile. Criteria the applicant does not provide
+     * (employment preference, expected salary) never exclude a profile.
+     */
+    public boolean matches(ApplicantFeatures applicant) {
+        // 1. Country: countries outside the code table are compared by their normalized name
+        if (countryCode != CountryCodes.NONE && (countryCode != applicant.countryCode()
+                || countryCode == CountryCodes.UNKNOWN && !country.equals(applicant.country()))) {
+            return false;
+        }
+
+        // 2. Degree
+        if (highestDegree != null && !applicant.holdsDegree(highestDegree)) {
+            return false;
+        }
+
+        // 3. Employment type: applicant must accept at least one of the profile's types
+        if (employmentMask != 0 && applicant.employmentMask() != 0
+                && (employmentMask & applicant.employmentMask()) == 0) {
+            return false;
+        }
+
+        // 4. Salary range
+        double salary = applicant.expectedSalary();
+        if (!Double.isNaN(salary) && (salary < salaryMin || salary > salaryMax)) {
+            return false;
+        }
+
+        // 5. Skills: applicant must have at least one required skill
+        return skillTagIds.length == 0 || intersects(skillTagIds, applicant.skillIds());
+    }
+
+    /**
+     * Merge-walks two sorted arrays and stops at the first shared value.
+     */
+    static boolean intersects(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                return true;
+            }
+            if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+
+    private static long toMask(BitSet employmentType) {
+        if (employmentType == null || employmentType.isEmpty()) {
+            return 0L;
+        }
+        // EmploymentTypeEnum bit indexes all fit in the first word
+        return employmentType.toLongArray()[0];
+    }
+
+    public UUID profileId() {
+        return profileId;
+    }
+
+    public UUID companyId() {
+        return companyId;
+    }
+
+    /**
+     * Normalized (trimmed, lower-case) country, or {@code null} when the profile has no country constraint.
+     */
+    public String country() {
+        return country;
+    }
+
+    public int countryCode() {
+        return countryCode;
+    }
+
+    public DegreeType highestDegree() {
+        return highestDegree;
+    }
+
+    /**
+     * Sorted, distinct skill tag ids. The returned array is shared and must not be modified.
+     */
+    public int[] skillTagIds() {
+        return skillTagIds;
+    }
+
+    public long employmentMask() {
+        return employmentMask;
+    }
+
+    public double salaryMin() {
+        return salaryMin;
+    }
+
+    public double salaryMax() {
+        return salaryMax;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledSearchProfile[profileId=" + profileId
+                + ", companyId=" + companyId
+                + ", country=" + country
+                + ", highestDegree=" + highestDegree
+                + ", skillTagIds=" + Arrays.toString(skillTagIds)
+                + ", employmentMask=" + employmentMask
+                + ", salary=" + salaryMin + ".." + salaryMax + "]";
+    }
+}
@@ -0,0 +1,91 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import rmit.saintgiong.discoveryservice.domain.dto.external.Country;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps normalized country names into small integer codes so matching compares ints instead of strings.
+ * <p>
+ * The table is fixed at class load: ISO 3166 alpha-2 and alpha-3 codes and English names, plus the names
+ * in {@value #COUNTRIES_RESOURCE}. Every spelling keeps its own code, so matching stays an exact
+ * case-insensitive comparison. Countries outside the table resolve to {@link #UNKNOWN} instead of growing it;
+ * matching then compares their normalized names.
+ */
+@Slf4j
+public final class CountryCodes {
+
+    /** No country (blank value), i.e. no constraint on a search profile. */
+    public static final int NONE = -1;
+
+    /** A country outside the table; callers compare its normalized name instead. */
+    public static final int UNKNOWN = -2;
+
+    private static final String COUNTRIES_RESOURCE = "mock/countries.json";
+
+    private static final Map<String, Integer> CODES = seed();
+
+    private CountryCodes() {
+    }
+
+    /**
+     * Returns the code for a country, {@link #NONE} for a blank value and {@link #UNKNOWN} outside the table.
+     */
+    public static int lookup(String country) {
+        String normalized = normalize(country);
+        if (normalized == null) {
+            return NONE;
+        }
+        return CODES.getOrDefault(normalized, UNKNOWN);
+    }
+
+    /**
+     * Normalizes a country for case-insensitive comparison. Blank values mean "no country".
+     */
+    public static String normalize(String country) {
+        if (country == null || country.isBlank()) {
+            return null;
+        }
+        return country.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, Integer> seed() {
+        Map<String, Integer> codes = new HashMap<>();
+        for (String isoCountry : Locale.getISOCountries()) {
+            Locale locale = new Locale.Builder().setRegion(isoCountry).build();
+            add(codes, isoCountry);
+            add(codes, locale.getISO3Country());
+            add(codes, locale.getDisplayCountry(Locale.ENGLISH));
+        }
+        for (Country country : readCountries()) {
+            add(codes, country.name());
+        }
+        return Map.copyOf(codes);
+    }
+
+    private static void add(Map<String, Integer> codes, String country) {
+        String normalized = normalize(country);
+        if (normalized != null) {
+            codes.putIfAbsent(normalized, codes.size());
+        }
+    }
+
+    private static List<Country> readCountries() {
+        try (InputStream inputStream = new ClassPathResource(COUNTRIES_RESOURCE).getInputStream()) {
+            return new ObjectMapper().readValue(inputStream, new TypeReference<List<Country>>() {
+            });
+        } catch (IOException e) {
+            log.warn("Failed to read {}, country codes are limited to ISO 3166: {}", COUNTRIES_RESOURCE, e.getMessage());
+            return List.of();
+        }
+    }
+}
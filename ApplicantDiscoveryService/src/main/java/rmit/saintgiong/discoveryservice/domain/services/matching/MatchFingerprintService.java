@@ -0,0 +1,135 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Tracks a fingerprint of the applicant fields that matching depends on (country, normalized degrees,
+ * skill ids and work-experience presence), so update events that only touch other fields such as the
+ * phone or avatar can skip matching and notification.
+ * <p>
+ * Comparing does not store anything: the fingerprint is only recorded once the applicant was matched, so an
+ * update whose matching failed or was never run is matched again when it arrives once more.
+ * <p>
+ * Fingerprints are shared between instances through Redis. When Redis is unavailable the applicant is
+ * treated as changed, so matching is never skipped by mistake.
+ */
+@Service
+@Slf4j
+public class MatchFingerprintService {
+
+    private static final String FINGERPRINT_KEY_PREFIX = "discovery:match-fingerprint:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration ttl;
+    private final Counter skippedCounter;
+    private final Counter changedCounter;
+
+    public MatchFingerprintService(
+            RedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${discovery.matching.fingerprint.ttl:30d}") Duration ttl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.skippedCounter = Counter.builder("discovery.matching.fingerprint")
+                .description("Applicant update events checked against the stored match fingerprint")
+                .tag("outcome", "skipped")
+                .register(meterRegistry);
+        this.changedCounter = Counter.builder("discovery.matching.fingerprint")
+                .description("Applicant update events checked against the stored match fingerprint")
+                .tag("outcome", "changed")
+                .register(meterRegistry);
+        Gauge.builder("discovery.matching.fingerprint.skip.ratio", this, MatchFingerprintService::skipRatio)
+                .description("Share of applicant update events that skipped matching")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores the applicant's fingerprint, once matching ran for these fields.
+     */
+    public void record(ApplicantDocument applicant) {
+        try {
+            redisTemplate.opsForValue().set(keyOf(applicant.applicantId()), fingerprintOf(applicant), ttl);
+        } catch (Exception e) {
+            log.warn("Could not store match fingerprint for applicant {}: {}", applicant.applicantId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reports whether the applicant's fingerprint differs from the one recorded when it was last matched.
+     *
+     * @return {@code false} only when a recorded fingerprint exists and is identical
+     */
+    public boolean hasChanged(ApplicantDocument applicant) {
+        String fingerprint = fingerprintOf(applicant);
+        boolean changed;
+        try {
+            String previous = redisTemplate.opsForValue().get(keyOf(applicant.applicantId()));
+            changed = !fingerprint.equals(previous);
+        } catch (Exception e) {
+            log.warn("Could not compare match fingerprint for applicant {}: {}", applicant.applicantId(), e.getMessage());
+            changed = true;
+        }
+
+        (changed ? changedCounter : skippedCounter).increment();
+        return changed;
+    }
+
+    public void forget(UUID applicantId) {
+        try {
+            redisTemplate.delete(keyOf(applicantId));
+        } catch (Exception e) {
+            log.warn("Could not delete match fingerprint for applicant {}: {}", applicantId, e.getMessage());
+        }
+    }
+
+    /**
+     * Hashes a canonical form of the match-relevant fields. Independent of list order, letter case and
+     * the exact degree wording, e.g. "Master of IT" and "MASTER" produce the same fingerprint.
+     */
+    static String fingerprintOf(ApplicantDocument applicant) {
+        ApplicantFeatures features = ApplicantFeatures.from(applicant);
+        boolean hasWorkExperience = applicant.workExperiences() != null && !applicant.workExperiences().isEmpty();
+
+        StringBuilder canonical = new StringBuilder(64)
+                .append(Objects.toString(CountryCodes.normalize(applicant.country()), ""))
+                .append('|').append(features.degreeMask())
+                .append('|');
+        for (int skillId : features.skillIds()) {
+            canonical.append(skillId).append(',');
+        }
+        canonical.append('|').append(hasWorkExperience);
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private double skipRatio() {
+        double skipped = skippedCounter.count();
+        double total = skipped + changedCounter.count();
+        return total == 0 ? 0.0 : skipped / total;
+    }
+
+    private static String keyOf(UUID applicantId) {
+        return FINGERPRINT_KEY_PREFIX + applicantId;
+    }
+}
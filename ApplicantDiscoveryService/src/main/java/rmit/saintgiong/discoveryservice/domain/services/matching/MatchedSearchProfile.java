@@ -0,0 +1,12 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import java.util.UUID;
+
+/**
+ * A search profile that an applicant satisfies, identified by profile and owning company.
+ */
+public record MatchedSearchProfile(
+        UUID profileId,
+        UUID companyId
+) {
+}
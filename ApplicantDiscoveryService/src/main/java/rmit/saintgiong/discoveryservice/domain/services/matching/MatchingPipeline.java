@@ -0,0 +1,201 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+import rmit.saintgiong.discoveryapi.external.services.ExternalDiscoveryRequestInterface;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.shared.dto.avro.notification.ApplicantMatchNotificationRecord;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Staged, bounded pipeline that runs applicant matching and match notifications off the Kafka poll thread.
+ * <p>
+ * Indexed applicants are queued for the matching stage, whose workers queue one task per notification for
+ * the notification stage. Both stages have their own worker pool and bounded queue. When the matching queue
+ * reaches its high watermark the applicant listener containers are paused, and they are resumed once it
+ * drains below the low watermark. A full queue blocks the submitting thread, so a full notification stage
+ * slows the matching stage, which in turn pauses consumption.
+ * <p>
+ * The applicant's match fingerprint is recorded once its matching stage completed, so an applicant whose
+ * matching failed is not skipped as unchanged when its next update arrives.
+ * <p>
+ * Matching is at-most-once. The offsets of a batch are committed when the listener returns, which is after
+ * indexing but before its queued matches ran, and the applicant consumer groups start from the latest offset
+ * anyway. Matches still queued when the instance crashes are therefore lost; only a graceful shutdown drains
+ * the queues. The applicant is matched again on its next update, since its fingerprint was not recorded.
+ */
+@Component
+@Slf4j
+public class MatchingPipeline {
+
+    /** Listener ids of the containers feeding the pipeline (see CloudKafkaConsumer). */
+    public static final String APPLICANT_CREATED_LISTENER_ID = "applicantCreatedListener";
+    public static final String APPLICANT_UPDATED_LISTENER_ID = "applicantUpdatedListener";
+
+    private static final List<String> PAUSABLE_LISTENER_IDS =
+            List.of(APPLICANT_CREATED_LISTENER_ID, APPLICANT_UPDATED_LISTENER_ID);
+
+    private final ApplicantMatchingService applicantMatchingService;
+    private final MatchFingerprintService matchFingerprintService;
+    private final ExternalDiscoveryRequestInterface externalDiscoveryRequestService;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    private final ThreadPoolExecutor matchExecutor;
+    private final ThreadPoolExecutor notifyExecutor;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final AtomicBoolean paused = new AtomicBoolean(false);
+
+    private final Timer matchWaitTimer;
+    private final Timer matchExecutionTimer;
+    private final Timer notifyWaitTimer;
+    private final Timer notifyExecutionTimer;
+
+    public MatchingPipeline(
+            ApplicantMatchingService applicantMatchingService,
+            MatchFingerprintService matchFingerprintService,
+            ExternalDiscoveryRequestInterface externalDiscoveryRequestService,
+            KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${discovery.matching.pipeline.match-workers:4}") int matchWorkers,
+            @Value("${discovery.matching.pipeline.notify-workers:2}") int notifyWorkers,
+            @Value("${discovery.matching.pipeline.queue-capacity:500}") int queueCapacity
+    ) {
+        this.applicantMatchingService = applicantMatchingService;
+        this.matchFingerprintService = matchFingerprintService;
+        this.externalDiscoveryRequestService = externalDiscoveryRequestService;
+        this.kafkaListenerEndpointRegistry = kafkaListenerEndpointRegistry;
+
+        this.matchExecutor = newStageExecutor("match", matchWorkers, queueCapacity);
+        this.notifyExecutor = newStageExecutor("notify", notifyWorkers, queueCapacity);
+
+        // Pause before the queue is completely full so records already polled can still be queued
+        this.highWatermark = Math.max(1, queueCapacity * 8 / 10);
+        this.lowWatermark = queueCapacity / 2;
+
+        registerQueueDepth(meterRegistry, "match", matchExecutor.getQueue());
+        registerQueueDepth(meterRegistry, "notify", notifyExecutor.getQueue());
+        this.matchWaitTimer = stageTimer(meterRegistry, "discovery.matching.pipeline.wait", "match");
+        this.matchExecutionTimer = stageTimer(meterRegistry, "discovery.matching.pipeline.execution", "match");
+        this.notifyWaitTimer = stageTimer(meterRegistry, "discovery.matching.pipeline.wait", "notify");
+        this.notifyExecutionTimer = stageTimer(meterRegistry, "discovery.matching.pipeline.execution", "notify");
+    }
+
+    /**
+     * Queues an indexed applicant for matching. Blocks only when the matching queue is full.
+     */
+    public void submit(ApplicantDocument applicant, boolean isUpdate) {
+        long enqueuedAt = System.nanoTime();
+        matchExecutor.execute(() -> {
+            matchWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            resumeIfDrained();
+            matchExecutionTimer.record(() -> runMatchStage(applicant, isUpdate));
+        });
+
+        if (matchExecutor.getQueue().size() >= highWatermark) {
+            pauseListeners();
+        }
+    }
+
+    private void runMatchStage(ApplicantDocument applicant, boolean isUpdate) {
+        try {
+            List<ApplicantMatchNotificationRecord> notifications = applicantMatchingService.match(applicant);
+            for (ApplicantMatchNotificationRecord notification : notifications) {
+                long enqueuedAt = System.nanoTime();
+                notifyExecutor.execute(() -> {
+                    notifyWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                    notifyExecutionTimer.record(
+                            () -> externalDiscoveryRequestService.sendMatchNotification(notification, isUpdate));
+                });
+            }
+            matchFingerprintService.record(applicant);
+        } catch (Exception e) {
+            log.error("Error checking matches for applicant {}", applicant.applicantId(), e);
+        }
+    }
+
+    private void pauseListeners() {
+        if (paused.compareAndSet(false, true)) {
+            log.warn("Matching queue reached {} tasks, pausing applicant listeners", highWatermark);
+            forEachListener(MessageListenerContainer::pause);
+        }
+    }
+
+    private void resumeIfDrained() {
+        if (paused.get() && matchExecutor.getQueue().size() <= lowWatermark && paused.compareAndSet(true, false)) {
+            log.info("Matching queue drained to {} tasks, resuming applicant listeners", lowWatermark);
+            forEachListener(MessageListenerContainer::resume);
+        }
+    }
+
+    private void forEachListener(Consumer<MessageListenerContainer> action) {
+        for (String listenerId : PAUSABLE_LISTENER_IDS) {
+            MessageListenerContainer container = kafkaListenerEndpointRegistry.getListenerContainer(listenerId);
+            if (container != null) {
+                action.accept(container);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Drain in stage order so queued matches can still hand off their notifications
+        matchExecutor.shutdown();
+        matchExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        notifyExecutor.shutdown();
+        notifyExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private static ThreadPoolExecutor newStageExecutor(String stage, int workers, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "matching-" + stage + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Backpressure: block the submitter until the stage has room instead of dropping work
+                (runnable, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Matching " + stage + " stage is shut down");
+                    }
+                    try {
+                        executor.getQueue().put(runnable);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for the " + stage + " stage", e);
+                    }
+                });
+    }
+
+    private static void registerQueueDepth(MeterRegistry meterRegistry, String stage, BlockingQueue<Runnable> queue) {
+        Gauge.builder("discovery.matching.pipeline.queue.depth", queue, BlockingQueue::size)
+                .description("Tasks waiting in a matching pipeline stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String name, String stage) {
+        return Timer.builder(name)
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
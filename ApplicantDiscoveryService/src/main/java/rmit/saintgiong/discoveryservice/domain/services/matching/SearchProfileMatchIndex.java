@@ -0,0 +1,243 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rmit.saintgiong.discoveryapi.internal.common.types.type.DegreeType;
+import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
+import rmit.saintgiong.discoveryservice.domain.services.SearchProfileRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory inverted index of search profiles used to pre-select matching candidates for an applicant.
+ * <p>
+ * Profiles are kept in posting lists keyed by skill tag id, country code (normalized name for countries outside
+ * the {@link CountryCodes} table) and {@link DegreeType}, so an applicant
+ * is only compared against profiles that share at least one skill (or have no skill constraint) and whose
+ * country and degree constraints are satisfied. Candidates are returned in their compiled form, ready
+ * for {@link CompiledSearchProfile#matches(ApplicantFeatures)}.
+ * <p>
+ * The index is an immutable snapshot replaced copy-on-write, so readers never lock and never touch the
+ * database. The create, update and delete services patch it once their transaction commits, and a periodic
+ * full reload from the database reconciles any drift.
+ * <p>
+ * The index holds the profiles of every company rather than only premium ones keyed by company: premium status
+ * changes independently of the profiles and is checked per match by {@link ApplicantMatchingService}, so a company
+ * gaining or losing premium needs no reload.
+ */
+@Component
+@Slf4j
+public class SearchProfileMatchIndex {
+
+    private final SearchProfileRepository searchProfileRepository;
+
+    private volatile Snapshot snapshot = Snapshot.of(Map.of());
+
+    public SearchProfileMatchIndex(SearchProfileRepository searchProfileRepository) {
+        this.searchProfileRepository = searchProfileRepository;
+    }
+
+    /**
+     * Loads every search profile once the application is ready (after data seeding has run).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        reconcile();
+    }
+
+    /**
+     * Rebuilds the snapshot from the database. Writers are serialized, so a patch committed while the
+     * profiles are being read is applied after the reload rather than being overwritten by it.
+     */
+    @Scheduled(
+            initialDelayString = "${discovery.matching.index.reconcile-interval:10m}",
+            fixedDelayString = "${discovery.matching.index.reconcile-interval:10m}"
+    )
+    public synchronized void reconcile() {
+        List<SearchProfileEntity> entities = searchProfileRepository.findAllWithSkillTags();
+
+        Map<UUID, CompiledSearchProfile> profiles = new HashMap<>();
+        for (SearchProfileEntity entity : entities) {
+            profiles.put(entity.getProfileId(), CompiledSearchProfile.from(entity));
+        }
+
+        int previousSize = snapshot.profiles().size();
+        snapshot = Snapshot.of(profiles);
+        log.info("Search profile match index loaded with {} profiles (previously {})", profiles.size(), previousSize);
+    }
+
+    /**
+     * Adds or replaces a profile once the current transaction commits (immediately when none is active).
+     * The profile is compiled right away, while the entity's skill tags are still loadable.
+     */
+    public void upsert(SearchProfileEntity entity) {
+        CompiledSearchProfile profile = CompiledSearchProfile.from(entity);
+        afterCommit(() -> {
+            apply(profile.profileId(), profile);
+            log.debug("Indexed search profile {} for matching", profile.profileId());
+        });
+    }
+
+    /**
+     * Removes a profile once the current transaction commits (immediately when none is active).
+     */
+    public void remove(UUID profileId) {
+        afterCommit(() -> {
+            apply(profileId, null);
+            log.debug("Removed search profile {} from matching index", profileId);
+        });
+    }
+
+    /**
+     * Returns the profiles whose skill, country and degree posting lists admit the applicant.
+     */
+    public List<CompiledSearchProfile> findCandidates(ApplicantFeatures applicant) {
+        Snapshot current = snapshot;
+
+        // 1. Skills: profiles sharing at least one skill, plus profiles without skill constraint
+        Set<UUID> candidateIds = new HashSet<>(current.profilesWithoutSkills());
+        for (int skillId : applicant.skillIds()) {
+            Set<UUID> posting = current.profilesBySkill().get(skillId);
+            if (posting != null) {
+                candidateIds.addAll(posting);
+            }
+        }
+
+        // 2. Country: keep profiles requiring the applicant's country or no country at all
+        Set<UUID> countryPosting = applicant.countryCode() == CountryCodes.UNKNOWN
+                ? current.profilesByOtherCountry().getOrDefault(applicant.country(), Collections.emptySet())
+                : current.profilesByCountry().getOrDefault(applicant.countryCode(), Collections.emptySet());
+        candidateIds.removeIf(id -> !current.profilesWithoutCountry().contains(id) && !countryPosting.contains(id));
+
+        // 3. Degree: keep profiles requiring a degree the applicant holds or no degree at all
+        candidateIds.removeIf(id -> !current.profilesWithoutDegree().contains(id) && !holdsRequiredDegree(current, id, applicant));
+
+        List<CompiledSearchProfile> candidates = new ArrayList<>(candidateIds.size());
+        for (UUID id : candidateIds) {
+            candidates.add(current.profiles().get(id));
+        }
+        return candidates;
+    }
+
+    public int size() {
+        return snapshot.profiles().size();
+    }
+
+    private static boolean holdsRequiredDegree(Snapshot current, UUID profileId, ApplicantFeatures applicant) {
+        for (Map.Entry<DegreeType, Set<UUID>> posting : current.profilesByDegree().entrySet()) {
+            if (applicant.holdsDegree(posting.getKey()) && posting.getValue().contains(profileId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the current profiles, applies one change and publishes a new snapshot.
+     *
+     * @param profile the new profile, or {@code null} to remove it
+     */
+    private synchronized void apply(UUID profileId, CompiledSearchProfile profile) {
+        Map<UUID, CompiledSearchProfile> profiles = new HashMap<>(snapshot.profiles());
+        if (profile != null) {
+            profiles.put(profileId, profile);
+        } else if (profiles.remove(profileId) == null) {
+            return;
+        }
+        snapshot = Snapshot.of(profiles);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Immutable profiles and posting lists. Profiles without a constraint on a criterion match every
+     * applicant for it.
+     */
+    private record Snapshot(
+            Map<UUID, CompiledSearchProfile> profiles,
+            Map<Integer, Set<UUID>> profilesBySkill,
+            Map<Integer, Set<UUID>> profilesByCountry,
+            Map<String, Set<UUID>> profilesByOtherCountry,
+            Map<DegreeType, Set<UUID>> profilesByDegree,
+            Set<UUID> profilesWithoutSkills,
+            Set<UUID> profilesWithoutCountry,
+            Set<UUID> profilesWithoutDegree
+    ) {
+
+        static Snapshot of(Map<UUID, CompiledSearchProfile> profiles) {
+            Map<Integer, Set<UUID>> bySkill = new HashMap<>();
+            Map<Integer, Set<UUID>> byCountry = new HashMap<>();
+            Map<String, Set<UUID>> byOtherCountry = new HashMap<>();
+            Map<DegreeType, Set<UUID>> byDegree = new EnumMap<>(DegreeType.class);
+            Set<UUID> withoutSkills = new HashSet<>();
+            Set<UUID> withoutCountry = new HashSet<>();
+            Set<UUID> withoutDegree = new HashSet<>();
+
+            for (CompiledSearchProfile profile : profiles.values()) {
+                UUID id = profile.profileId();
+
+                if (profile.skillTagIds().length == 0) {
+                    withoutSkills.add(id);
+                } else {
+                    for (int skillId : profile.skillTagIds()) {
+                        bySkill.computeIfAbsent(skillId, key -> new HashSet<>()).add(id);
+                    }
+                }
+
+                if (profile.countryCode() == CountryCodes.NONE) {
+                    withoutCountry.add(id);
+                } else if (profile.countryCode() == CountryCodes.UNKNOWN) {
+                    byOtherCountry.computeIfAbsent(profile.country(), key -> new HashSet<>()).add(id);
+                } else {
+                    byCountry.computeIfAbsent(profile.countryCode(), key -> new HashSet<>()).add(id);
+                }
+
+                if (profile.highestDegree() == null) {
+                    withoutDegree.add(id);
+                } else {
+                    byDegree.computeIfAbsent(profile.highestDegree(), key -> new HashSet<>()).add(id);
+                }
+            }
+
+            return new Snapshot(
+                    Map.copyOf(profiles),
+                    frozen(bySkill),
+                    frozen(byCountry),
+                    frozen(byOtherCountry),
+                    frozen(byDegree),
+                    Set.copyOf(withoutSkills),
+                    Set.copyOf(withoutCountry),
+                    Set.copyOf(withoutDegree)
+            );
+        }
+
+        private static <K> Map<K, Set<UUID>> frozen(Map<K, Set<UUID>> postings) {
+            postings.replaceAll((key, ids) -> Set.copyOf(ids));
+            return Collections.unmodifiableMap(postings);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package rmit.saintgiong.discoveryservice.common.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import rmit.saintgiong.discoveryservice.common.exception.token.InvalidTokenException;
+import rmit.saintgiong.shared.token.TokenClaimsDto;
+import rmit.saintgiong.shared.type.TokenType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for AccessTokenClaimsCache.
+ * Tests reuse of decrypted claims and expiry at the token's exp.
+ */
+@DisplayName("AccessTokenClaimsCache Tests")
+class AccessTokenClaimsCacheTest {
+
+    private static final Duration MAX_TTL = Duration.ofMinutes(15);
+
+    private AccessTokenClaimsCache accessTokenClaimsCache;
+
+    @BeforeEach
+    void setUp() {
+        accessTokenClaimsCache = new AccessTokenClaimsCache(new SimpleMeterRegistry(), MAX_TTL, 100);
+    }
+
+    @Test
+    @DisplayName("Should decrypt a token once and reuse its claims")
+    void shouldReuseDecryptedClaims() {
+        // Arrange
+        AtomicInteger decrypts = new AtomicInteger();
+        TokenClaimsDto claims = claimsExpiringIn(Duration.ofMinutes(10));
+
+        // Act
+        TokenClaimsDto first = accessTokenClaimsCache.get("token-a", token -> {
+            decrypts.incrementAndGet();
+            return claims;
+        });
+        TokenClaimsDto second = accessTokenClaimsCache.get("token-a", token -> {
+            decrypts.incrementAndGet();
+            return claims;
+        });
+
+        // Assert
+        assertThat(first).isSameAs(claims);
+        assertThat(second).isSameAs(claims);
+        assertThat(decrypts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache tokens that failed validation")
+    void shouldNotCacheFailures() {
+        // Arrange
+        AtomicInteger decrypts = new AtomicInteger();
+
+        // Act & Assert
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> accessTokenClaimsCache.get("token-b", token -> {
+                decrypts.incrementAndGet();
+                throw new InvalidTokenException("Invalid or malformed token");
+            })).isInstanceOf(InvalidTokenException.class);
+        }
+        assertThat(decrypts).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should expire claims with the token, capped at the maximum TTL")
+    void shouldExpireWithToken() {
+        // Act
+        Duration shortLived = AccessTokenClaimsCache.ttlOf(claimsExpiringIn(Duration.ofMinutes(2)), MAX_TTL);
+        Duration longLived = AccessTokenClaimsCache.ttlOf(claimsExpiringIn(Duration.ofDays(1)), MAX_TTL);
+        Duration expired = AccessTokenClaimsCache.ttlOf(claimsExpiringIn(Duration.ofMinutes(-1)), MAX_TTL);
+
+        // Assert
+        assertThat(shortLived).isBetween(Duration.ofSeconds(110), Duration.ofMinutes(2));
+        assertThat(longLived).isEqualTo(MAX_TTL);
+        assertThat(expired).isZero();
+    }
+
+    private static TokenClaimsDto claimsExpiringIn(Duration duration) {
+        return TokenClaimsDto.builder()
+                .sub(UUID.randomUUID())
+                .type(TokenType.ACCESS)
+                .jti(UUID.randomUUID().toString())
+                .exp(Instant.now().plus(duration).getEpochSecond())
+                .build();
+    }
+}
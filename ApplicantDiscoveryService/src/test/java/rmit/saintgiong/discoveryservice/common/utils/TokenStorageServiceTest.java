@@ -0,0 +1,212 @@
+package rmit.saintgiong.discoveryservice.common.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import rmit.saintgiong.discoveryservice.common.config.JweConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TokenStorageService.
+ * Tests the access token blocklist near cache against a stand-in Redis, with and without keyspace notifications.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenStorageService Tests")
+class TokenStorageServiceTest {
+
+    private static final String PREFIX = "blocklist:access_token:";
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Test
+    @DisplayName("Should ask Redis until the blocklist cache is warm")
+    void shouldAskRedisWhenNotWarm() {
+        // Arrange
+        TokenStorageService service = service(cache(Duration.ofMinutes(1)));
+        when(redisTemplate.hasKey(PREFIX + "jti-1")).thenReturn(false);
+
+        // Act
+        boolean blocked = service.isAccessTokenBlocked("jti-1");
+
+        // Assert
+        assertThat(blocked).isFalse();
+        verify(redisTemplate).hasKey(PREFIX + "jti-1");
+    }
+
+    @Test
+    @DisplayName("Should answer from the Bloom filter and ask Redis only on possible matches")
+    void shouldAskRedisOnlyOnBloomPositives() {
+        // Arrange
+        AccessTokenBlocklistCache cache = cache(Duration.ofMinutes(1));
+        TokenStorageService service = service(cache);
+        stubNotifications("K$");
+        stubScan(PREFIX + "revoked");
+        cache.refresh();
+        when(redisTemplate.hasKey(PREFIX + "revoked")).thenReturn(true);
+
+        // Act
+        boolean active = service.isAccessTokenBlocked("active");
+        boolean revokedFirst = service.isAccessTokenBlocked("revoked");
+        boolean revokedAgain = service.isAccessTokenBlocked("revoked");
+
+        // Assert
+        assertThat(active).isFalse();
+        assertThat(revokedFirst).isTrue();
+        assertThat(revokedAgain).isTrue();
+        verify(redisTemplate, never()).hasKey(PREFIX + "active");
+        verify(redisTemplate, times(1)).hasKey(PREFIX + "revoked");
+    }
+
+    @Test
+    @DisplayName("Should apply keyspace notifications without asking Redis")
+    void shouldApplyKeyspaceNotifications() {
+        // Arrange
+        AccessTokenBlocklistCache cache = cache(Duration.ofMinutes(1));
+        TokenStorageService service = service(cache);
+        stubNotifications("AKE");
+        stubScan();
+        cache.refresh();
+
+        // Act
+        cache.onMessage(notification("jti-2", "set"), null);
+        boolean afterSet = service.isAccessTokenBlocked("jti-2");
+        cache.onMessage(notification("jti-2", "del"), null);
+        boolean afterDelete = service.isAccessTokenBlocked("jti-2");
+
+        // Assert
+        assertThat(afterSet).isTrue();
+        assertThat(afterDelete).isFalse();
+        verify(redisTemplate, never()).hasKey(any());
+    }
+
+    @Test
+    @DisplayName("Should fall back to Redis when the snapshot is older than the max staleness")
+    void shouldFallBackWhenStale() throws InterruptedException {
+        // Arrange
+        AccessTokenBlocklistCache cache = cache(Duration.ZERO);
+        TokenStorageService service = service(cache);
+        stubNotifications("AKE");
+        stubScan();
+        cache.refresh();
+        Thread.sleep(5);
+        when(redisTemplate.hasKey(PREFIX + "jti-3")).thenReturn(true);
+
+        // Act
+        boolean blocked = service.isAccessTokenBlocked("jti-3");
+
+        // Assert
+        assertThat(blocked).isTrue();
+        verify(redisTemplate).hasKey(PREFIX + "jti-3");
+    }
+
+    @Test
+    @DisplayName("Should ask Redis on every lookup while Redis sends no keyspace notifications")
+    void shouldAskRedisWithoutNotifications() {
+        // Arrange
+        AccessTokenBlocklistCache cache = cache(Duration.ofMinutes(1));
+        TokenStorageService service = service(cache);
+        stubNotifications("");
+        cache.refresh();
+        when(redisTemplate.hasKey(PREFIX + "jti-4")).thenReturn(false);
+
+        // Act
+        boolean blocked = service.isAccessTokenBlocked("jti-4");
+
+        // Assert
+        assertThat(blocked).isFalse();
+        verify(redisTemplate).hasKey(PREFIX + "jti-4");
+        verify(redisTemplate, never()).scan(any(ScanOptions.class));
+    }
+
+    @Test
+    @DisplayName("Should ask Redis on every lookup when Redis rejects the CONFIG command")
+    void shouldAskRedisWhenConfigRejected() {
+        // Arrange
+        AccessTokenBlocklistCache cache = cache(Duration.ofMinutes(1));
+        TokenStorageService service = service(cache);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenThrow(new InvalidDataAccessApiUsageException("unknown command 'CONFIG'"));
+        cache.refresh();
+        when(redisTemplate.hasKey(PREFIX + "jti-5")).thenReturn(true);
+
+        // Act
+        boolean blocked = service.isAccessTokenBlocked("jti-5");
+
+        // Assert
+        assertThat(blocked).isTrue();
+        verify(redisTemplate).hasKey(PREFIX + "jti-5");
+    }
+
+    @Test
+    @DisplayName("Should require keyspace events for string commands")
+    void shouldRecognizeNotificationFlags() {
+        // Assert
+        assertThat(AccessTokenBlocklistCache.sendsBlocklistEvents("K$")).isTrue();
+        assertThat(AccessTokenBlocklistCache.sendsBlocklistEvents("AKE")).isTrue();
+        assertThat(AccessTokenBlocklistCache.sendsBlocklistEvents("Ex$")).isFalse();
+        assertThat(AccessTokenBlocklistCache.sendsBlocklistEvents("Kg")).isFalse();
+        assertThat(AccessTokenBlocklistCache.sendsBlocklistEvents("")).isFalse();
+    }
+
+    private AccessTokenBlocklistCache cache(Duration maxStaleness) {
+        JweConfig jweConfig = new JweConfig();
+        jweConfig.setAccessTokenTtlSeconds(900);
+        return new AccessTokenBlocklistCache(redisTemplate, listenerContainer, jweConfig, new SimpleMeterRegistry(),
+                true, maxStaleness, 1000);
+    }
+
+    private TokenStorageService service(AccessTokenBlocklistCache cache) {
+        return new TokenStorageService(redisTemplate, cache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubNotifications(String flags) {
+        Properties config = new Properties();
+        config.setProperty("notify-keyspace-events", flags);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(config);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubScan(String... keys) {
+        Cursor<String> cursor = mock(Cursor.class);
+        Iterator<String> iterator = List.of(keys).iterator();
+        doAnswer(invocation -> {
+            iterator.forEachRemaining(invocation.getArgument(0));
+            return null;
+        }).when(cursor).forEachRemaining(any());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+    }
+
+    private static DefaultMessage notification(String tokenId, String event) {
+        return new DefaultMessage(
+                ("__keyspace@0__:" + PREFIX + tokenId).getBytes(StandardCharsets.UTF_8),
+                event.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -13,6 +13,10 @@ import rmit.saintgiong.discoveryapi.internal.common.dto.SearchProfileResponseDto
 import rmit.saintgiong.discoveryapi.internal.common.types.type.DegreeType;
 import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
 import rmit.saintgiong.discoveryservice.domain.mapper.SearchProfileMapper;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.SearchProfilePercolatorService;
+import rmit.saintgiong.discoveryservice.domain.services.external.CompanyPremiumStatusCache;
+import rmit.saintgiong.discoveryservice.domain.services.external.PremiumCompanyRegistry;
+import rmit.saintgiong.discoveryservice.domain.services.matching.SearchProfileMatchIndex;
 
 import java.util.BitSet;
 import java.util.Set;
@@ -37,6 +41,18 @@ class CreateSearchProfileServiceTest {
     @Mock
     private SearchProfileMapper searchProfileMapper;
 
+    @Mock
+    private CompanyPremiumStatusCache companyPremiumStatusCache;
+
+    @Mock
+    private SearchProfileMatchIndex searchProfileMatchIndex;
+
+    @Mock
+    private SearchProfilePercolatorService searchProfilePercolatorService;
+
+    @Mock
+    private PremiumCompanyRegistry premiumCompanyRegistry;
+
     @InjectMocks
     private CreateSearchProfileService createSearchProfileService;
 
@@ -96,6 +112,9 @@ class CreateSearchProfileServiceTest {
                 .companyId(companyId)
                 .skillTagIds(Set.of(1, 2, 3))
                 .build();
+
+        // Company is premium unless a test says otherwise
+        lenient().when(companyPremiumStatusCache.isPremium(companyId)).thenReturn(true);
     }
 
     @Nested
@@ -126,6 +145,8 @@ class CreateSearchProfileServiceTest {
             verify(searchProfileMapper).requestDtoToEntity(requestDto);
             verify(searchProfileRepository).save(any(SearchProfileEntity.class));
             verify(searchProfileMapper).entityToResponseDto(savedEntity);
+            verify(searchProfileMatchIndex).upsert(savedEntity);
+            verify(searchProfilePercolatorService).register(savedEntity);
         }
 
         @Test
@@ -257,6 +278,21 @@ class CreateSearchProfileServiceTest {
             verify(searchProfileRepository, never()).save(any());
         }
 
+        @Test
+        @DisplayName("Should reject non-premium company before touching the database")
+        void shouldRejectNonPremiumCompany() {
+            // Arrange
+            when(companyPremiumStatusCache.isPremium(companyId)).thenReturn(false);
+
+            // Act & Assert
+            assertThatThrownBy(() -> createSearchProfileService.createSearchProfile(requestDto))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Company is not premium");
+
+            verify(searchProfileMapper, never()).requestDtoToEntity(any());
+            verify(searchProfileRepository, never()).save(any());
+        }
+
         @Test
         @DisplayName("Should propagate DataIntegrityViolationException on duplicate")
         void shouldPropagateDataIntegrityViolationException() {
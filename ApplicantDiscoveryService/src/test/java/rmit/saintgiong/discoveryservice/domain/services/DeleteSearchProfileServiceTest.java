@@ -9,6 +9,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.SearchProfilePercolatorService;
+import rmit.saintgiong.discoveryservice.domain.services.matching.SearchProfileMatchIndex;
 
 import java.util.UUID;
 
@@ -27,6 +29,12 @@ class DeleteSearchProfileServiceTest {
     @Mock
     private SearchProfileRepository searchProfileRepository;
 
+    @Mock
+    private SearchProfileMatchIndex searchProfileMatchIndex;
+
+    @Mock
+    private SearchProfilePercolatorService searchProfilePercolatorService;
+
     @InjectMocks
     private DeleteSearchProfileService deleteSearchProfileService;
 
@@ -55,6 +63,8 @@ class DeleteSearchProfileServiceTest {
             // Verify interactions
             verify(searchProfileRepository).existsById(profileId);
             verify(searchProfileRepository).deleteById(profileId);
+            verify(searchProfileMatchIndex).remove(profileId);
+            verify(searchProfilePercolatorService).deregister(profileId);
         }
 
         @Test
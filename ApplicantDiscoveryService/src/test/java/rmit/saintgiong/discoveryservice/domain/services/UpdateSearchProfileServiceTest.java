@@ -15,6 +15,8 @@ import rmit.saintgiong.discoveryapi.internal.common.types.type.DegreeType;
 import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
 import rmit.saintgiong.discoveryservice.domain.entity.SearchProfile_SkillTagEntity;
 import rmit.saintgiong.discoveryservice.domain.mapper.SearchProfileMapper;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.SearchProfilePercolatorService;
+import rmit.saintgiong.discoveryservice.domain.services.matching.SearchProfileMatchIndex;
 
 import java.util.BitSet;
 import java.util.HashSet;
@@ -42,6 +44,12 @@ class UpdateSearchProfileServiceTest {
     @Mock
     private SearchProfileMapper searchProfileMapper;
 
+    @Mock
+    private SearchProfileMatchIndex searchProfileMatchIndex;
+
+    @Mock
+    private SearchProfilePercolatorService searchProfilePercolatorService;
+
     @InjectMocks
     private UpdateSearchProfileService updateSearchProfileService;
 
@@ -135,6 +143,8 @@ class UpdateSearchProfileServiceTest {
             verify(searchProfileMapper).updateEntityFromDto(eq(requestDto), any(SearchProfileEntity.class));
             verify(searchProfileRepository).save(any(SearchProfileEntity.class));
             verify(searchProfileMapper).entityToResponseDto(savedEntity);
+            verify(searchProfileMatchIndex).upsert(savedEntity);
+            verify(searchProfilePercolatorService).register(savedEntity);
         }
 
         @Test
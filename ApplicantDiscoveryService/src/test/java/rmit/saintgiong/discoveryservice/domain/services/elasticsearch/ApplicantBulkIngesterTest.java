@@ -0,0 +1,137 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.BulkIndexResult;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.IndexingInterface;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ApplicantBulkIngester.
+ * Tests the flush thresholds and per-document results.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApplicantBulkIngester Tests")
+class ApplicantBulkIngesterTest {
+
+    @Mock
+    private IndexingInterface indexingInterface;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ApplicantBulkIngester ingester;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (ingester != null) {
+            ingester.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should flush once the document count threshold is reached")
+    void shouldFlushOnDocumentCount() {
+        // Arrange
+        ingester = new ApplicantBulkIngester(indexingInterface, meterRegistry, 2, Long.MAX_VALUE, Duration.ofHours(1), 1, Duration.ofMinutes(2));
+        when(indexingInterface.indexApplicants(anyCollection())).thenAnswer(invocation -> indexedAll(invocation.getArgument(0)));
+
+        // Act
+        CompletableFuture<Void> first = ingester.add(applicant());
+        verify(indexingInterface, never()).indexApplicants(anyCollection());
+        CompletableFuture<Void> second = ingester.add(applicant());
+
+        // Assert
+        assertThat(second).succeedsWithin(5, TimeUnit.SECONDS);
+        assertThat(first).isCompleted();
+        verify(indexingInterface, times(1)).indexApplicants(anyCollection());
+        assertThat(meterRegistry.get("discovery.indexing.bulk.flush").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should flush a partial batch after the linger time")
+    void shouldFlushAfterLinger() {
+        // Arrange
+        ingester = new ApplicantBulkIngester(indexingInterface, meterRegistry, 100, Long.MAX_VALUE, Duration.ofMillis(50), 1, Duration.ofMinutes(2));
+        when(indexingInterface.indexApplicants(anyCollection())).thenAnswer(invocation -> indexedAll(invocation.getArgument(0)));
+
+        // Act
+        CompletableFuture<Void> result = ingester.add(applicant());
+
+        // Assert
+        assertThat(result).succeedsWithin(5, TimeUnit.SECONDS);
+        verify(indexingInterface, timeout(1000).times(1)).indexApplicants(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should report a rejected document without failing the rest of the batch")
+    void shouldReportPerDocumentFailures() {
+        // Arrange
+        ingester = new ApplicantBulkIngester(indexingInterface, meterRegistry, 100, Long.MAX_VALUE, Duration.ofHours(1), 1, Duration.ofMinutes(2));
+        ApplicantDocument accepted = applicant();
+        ApplicantDocument rejected = applicant();
+        when(indexingInterface.indexApplicants(anyCollection())).thenReturn(new BulkIndexResult(
+                List.of(accepted.applicantId().toString()),
+                Map.of(rejected.applicantId().toString(), "mapper_parsing_exception")));
+
+        // Act
+        BulkIndexResult result = ingester.addAll(List.of(accepted, rejected)).join();
+
+        // Assert
+        assertThat(result.indexedIds()).containsExactly(accepted.applicantId().toString());
+        assertThat(result.failures()).containsEntry(rejected.applicantId().toString(), "mapper_parsing_exception");
+        assertThat(meterRegistry.get("discovery.indexing.bulk.documents").tag("outcome", "failed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should flush once the estimated byte size threshold is reached")
+    void shouldFlushOnByteSize() {
+        // Arrange
+        ApplicantDocument applicant = applicant();
+        long size = ApplicantBulkIngester.estimateSize(applicant);
+        ingester = new ApplicantBulkIngester(indexingInterface, meterRegistry, 100, size, Duration.ofHours(1), 1, Duration.ofMinutes(2));
+        when(indexingInterface.indexApplicants(anyCollection())).thenAnswer(invocation -> indexedAll(invocation.getArgument(0)));
+
+        // Act
+        CompletableFuture<Void> result = ingester.add(applicant);
+
+        // Assert
+        assertThat(result).succeedsWithin(5, TimeUnit.SECONDS);
+    }
+
+    private static BulkIndexResult indexedAll(Collection<ApplicantDocument> documents) {
+        return new BulkIndexResult(
+                documents.stream().map(document -> document.applicantId().toString()).toList(),
+                Map.of());
+    }
+
+    private static ApplicantDocument applicant() {
+        return new ApplicantDocument(
+                UUID.randomUUID(), "Jane", "Doe", "0901", "1 Main St", "Hanoi",
+                "Bio", "About", null, "Vietnam",
+                Collections.emptyList(), Collections.emptyList(), List.of(1L), List.of("Java"),
+                LocalDateTime.now(), LocalDateTime.now(), null);
+    }
+}
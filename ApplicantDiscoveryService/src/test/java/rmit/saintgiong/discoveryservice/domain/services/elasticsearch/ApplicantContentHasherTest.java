@@ -0,0 +1,119 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.document.Education;
+import rmit.saintgiong.discoveryapi.internal.document.WorkExperience;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ApplicantContentHasher.
+ * Tests that the hash follows the indexed content, including the experience months, and ignores timestamps.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApplicantContentHasher Tests")
+class ApplicantContentHasherTest {
+
+    private static final UUID APPLICANT_ID = UUID.randomUUID();
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ApplicantContentHasher hasher;
+
+    @BeforeEach
+    void setUp() {
+        ElasticsearchCustomConversions conversions = new ElasticsearchCustomConversions(Collections.emptyList());
+        SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(mappingContext);
+        converter.setConversions(conversions);
+        converter.afterPropertiesSet();
+        when(elasticsearchOperations.getElasticsearchConverter()).thenReturn(converter);
+        hasher = new ApplicantContentHasher(elasticsearchOperations, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Should keep the hash when only timestamps change")
+    void shouldIgnoreTimestamps() {
+        // Arrange
+        ApplicantDocument first = applicant("Doe", 3.5, LocalDateTime.of(2025, 1, 1, 8, 0));
+        ApplicantDocument savedAgain = applicant("Doe", 3.5, LocalDateTime.of(2025, 2, 1, 9, 30));
+
+        // Act & Assert
+        assertThat(hasher.hash(savedAgain)).isEqualTo(hasher.hash(first));
+    }
+
+    @Test
+    @DisplayName("Should change the hash when a field or a nested entry changes")
+    void shouldChangeWithContent() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        String original = hasher.hash(applicant("Doe", 3.5, now));
+
+        // Act & Assert
+        assertThat(hasher.hash(applicant("Smith", 3.5, now))).isNotEqualTo(original);
+        assertThat(hasher.hash(applicant("Doe", 3.8, now))).isNotEqualTo(original);
+    }
+
+    @Test
+    @DisplayName("Should ignore a previously stored hash")
+    void shouldIgnoreStoredHash() {
+        // Arrange
+        ApplicantDocument document = applicant("Doe", 3.5, LocalDateTime.now());
+
+        // Act
+        ApplicantDocument hashed = hasher.withHash(document);
+
+        // Assert
+        assertThat(hashed.contentHash()).isEqualTo(hasher.hash(document));
+        assertThat(hasher.hash(hashed.withContentHash("stale"))).isEqualTo(hashed.contentHash());
+    }
+
+    @Test
+    @DisplayName("Should change the hash once a current job adds a month of experience")
+    void shouldFollowExperienceMonths() {
+        // Arrange
+        WorkExperience current = new WorkExperience("Acme", "Engineer", null, "Vietnam",
+                LocalDateTime.of(2024, 7, 1, 0, 0), null, true);
+        ApplicantDocument document = new ApplicantDocument(
+                APPLICANT_ID, "Jane", "Doe", "0901", null, "Hanoi", null, null, null, "Vietnam",
+                Collections.emptyList(), List.of(current), List.of(1L, 2L), Collections.emptyList(),
+                LocalDateTime.now(), LocalDateTime.now(), null);
+        String indexedInJuly = hasher.hash(document.withWorkExperienceSummary(LocalDateTime.of(2025, 7, 1, 0, 0)));
+
+        // Act & Assert - the same month keeps the hash, so a sync skips the applicant
+        assertThat(hasher.hash(document.withWorkExperienceSummary(LocalDateTime.of(2025, 7, 20, 0, 0))))
+                .isEqualTo(indexedInJuly);
+        // A month later the total grew, so a sync indexes it again
+        assertThat(hasher.hash(document.withWorkExperienceSummary(LocalDateTime.of(2025, 8, 1, 0, 0))))
+                .isNotEqualTo(indexedInJuly);
+        // A document indexed before the summary existed has a different hash, so a full sync rewrites it
+        assertThat(hasher.hash(document)).isNotEqualTo(indexedInJuly);
+    }
+
+    private static ApplicantDocument applicant(String lastName, double gpa, LocalDateTime timestamp) {
+        return new ApplicantDocument(
+                APPLICANT_ID, "Jane", lastName, "0901", null, "Hanoi", null, null, null, "Vietnam",
+                List.of(new Education("RMIT", null, gpa, null, null, null, false)),
+                Collections.emptyList(), List.of(1L, 2L), Collections.emptyList(),
+                timestamp, timestamp, null);
+    }
+}
@@ -0,0 +1,543 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.GetMappingResponse;
+import co.elastic.clients.json.JsonData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.NoSuchIndexException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryservice.domain.services.job.JobLockService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ApplicantIndexManager.
+ * Tests creating and validating the index, the retry on a missing index, ingest sessions, how writes follow
+ * rebuilds and swaps made through the aliases, and the alias changes that start and end a rebuild.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApplicantIndexManager Tests")
+class ApplicantIndexManagerTest {
+
+    private static final String DELETED_DURING_REBUILD_KEY = "discovery:applicants:deleted-during-rebuild";
+    private static final String LIVE_INDEX = "applicants_v1";
+    private static final String REBUILD_INDEX = "applicants_v2";
+    private static final String INGEST_LOCK = "applicant-index-ingest";
+    private static final String SUMMARY_META = "applicants_work_experience_summary";
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchIndicesClient indicesClient;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    @Mock
+    private IndexOperations documentOps;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    @Mock
+    private JobLockService.JobLock ingestLock;
+
+    @Mock
+    private JobLockService.JobLock sharedLock;
+
+    // Concrete indices and their aliases, as returned for the 'applicants*' pattern
+    private final Map<String, Set<AliasData>> aliases = new HashMap<>();
+
+    private ApplicantIndexManager indexManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        aliases.put(LIVE_INDEX, Set.of(alias(ApplicantIndexManager.APPLICANTS_INDEX), alias(ApplicantIndexManager.WRITE_ALIAS)));
+
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(indexOps);
+        when(elasticsearchOperations.indexOps(ApplicantDocument.class)).thenReturn(documentOps);
+        when(elasticsearchClient.indices()).thenReturn(indicesClient);
+        when(indexOps.getAliasesForIndex(ApplicantIndexManager.APPLICANTS_INDEX + "*")).thenAnswer(invocation -> Map.copyOf(aliases));
+        when(documentOps.createMapping()).thenReturn(mapping());
+        when(indicesClient.getMapping(any(Function.class))).thenReturn(GetMappingResponse.of(response -> response
+                .mappings(LIVE_INDEX, mapping -> mapping.mappings(type -> type
+                        .meta(SUMMARY_META, JsonData.of("true"))))));
+
+        indexManager = new ApplicantIndexManager(elasticsearchOperations, elasticsearchClient, redisTemplate,
+                jobLockService, 1, 1, "1s", Duration.ofMinutes(5));
+    }
+
+    @Nested
+    @DisplayName("createOrValidate()")
+    class CreateOrValidate {
+
+        @Test
+        @DisplayName("Should create the first versioned index with the configured settings and both aliases")
+        void shouldCreateFirstVersionedIndex() throws IOException {
+            // Arrange
+            when(indexOps.exists()).thenReturn(false);
+            when(indexOps.getSettings()).thenReturn(settings(true));
+
+            // Act
+            indexManager.init();
+
+            // Assert
+            ArgumentCaptor<Map<String, Object>> settings = ArgumentCaptor.forClass(Map.class);
+            verify(indexOps).create(settings.capture(), any(Document.class));
+            assertThat(settings.getValue()).contains(
+                    entry("index.number_of_shards", 1), entry("index.number_of_replicas", 1), entry("index.refresh_interval", "1s"));
+            assertThat(settings.getValue()).containsAllEntriesOf(ApplicantIndexManager.analysisSettings());
+            // A new index starts out complete, so experience filters use the summary fields right away
+            verify(indicesClient).putMapping(any(Function.class));
+            assertThat(aliasActions()).containsExactly(
+                    "Add applicants_v1 [applicants]",
+                    "Add applicants_v1 [applicants_write] write index");
+            verify(jobLockService, never()).tryAcquire(anyString());
+            assertThat(indexManager.liveIndex()).isEqualTo(LIVE_INDEX);
+        }
+
+        @Test
+        @DisplayName("Should add a missing write alias, restore the live settings and update the mapping")
+        void shouldValidateExistingIndex() throws IOException {
+            // Arrange
+            aliases.put(LIVE_INDEX, Set.of(alias(ApplicantIndexManager.APPLICANTS_INDEX)));
+            existingIndex(settings(true));
+            when(jobLockService.tryAcquire(INGEST_LOCK)).thenReturn(Optional.of(ingestLock));
+
+            // Act
+            indexManager.init();
+
+            // Assert
+            assertThat(aliasActions()).containsExactly(
+                    "Add applicants_v1 [applicants]",
+                    "Add applicants_v1 [applicants_write] write index");
+            verify(indicesClient).putSettings(any(Function.class));
+            verify(ingestLock).close();
+            assertThat(normalizedSubfields(sentMapping())).containsExactly("lastName", "skills");
+            verify(indexOps, never()).create(anyMap(), any(Document.class));
+        }
+
+        @Test
+        @DisplayName("Should leave the settings to the instance bulk loading the index")
+        void shouldLeaveSettingsDuringIngest() throws IOException {
+            // Arrange
+            existingIndex(settings(true));
+            when(jobLockService.tryAcquire(INGEST_LOCK)).thenReturn(Optional.empty());
+
+            // Act
+            indexManager.init();
+
+            // Assert
+            verify(indicesClient, never()).putSettings(any(Function.class));
+            verify(indexOps).putMapping(any(Document.class));
+        }
+
+        @Test
+        @DisplayName("Should restore the settings when the ingest lock cannot be checked")
+        void shouldRestoreSettingsWhenLockCheckFails() throws IOException {
+            // Arrange
+            existingIndex(settings(true));
+            when(jobLockService.tryAcquire(INGEST_LOCK)).thenThrow(new IllegalStateException("database down"));
+
+            // Act
+            indexManager.init();
+
+            // Assert
+            verify(indicesClient).putSettings(any(Function.class));
+        }
+
+        @Test
+        @DisplayName("Should apply the mapping without the normalized subfields when the index has no normalizer")
+        void shouldDropNormalizedFieldsWithoutNormalizer() {
+            // Arrange
+            existingIndex(settings(false));
+            when(jobLockService.tryAcquire(INGEST_LOCK)).thenReturn(Optional.of(ingestLock));
+
+            // Act
+            indexManager.init();
+
+            // Assert
+            Document mapping = sentMapping();
+            assertThat(normalizedSubfields(mapping)).isEmpty();
+            assertThat(field(mapping, "lastName")).doesNotContainKey("fields");
+            assertThat(field(mapping, "skills")).containsKey("fields");
+            assertThat(indexManager.features().normalizedKeywords()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("execute()")
+    class Execute {
+
+        @BeforeEach
+        void setUp() {
+            validated();
+        }
+
+        @Test
+        @DisplayName("Should validate the index again and retry once when it turns out to be missing")
+        void shouldRetryOnceWhenIndexMissing() {
+            // Arrange
+            AtomicInteger attempts = new AtomicInteger();
+
+            // Act
+            String result = indexManager.execute(() -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new NoSuchIndexException(LIVE_INDEX);
+                }
+                return "written";
+            });
+
+            // Assert
+            assertThat(result).isEqualTo("written");
+            assertThat(attempts).hasValue(2);
+            verify(indexOps, times(2)).exists();
+        }
+
+        @Test
+        @DisplayName("Should not check the index again once it was validated")
+        void shouldNotRevalidateReadyIndex() {
+            // Act
+            indexManager.execute(() -> "first");
+            indexManager.execute(() -> "second");
+
+            // Assert
+            verify(indexOps, times(1)).exists();
+        }
+    }
+
+    @Nested
+    @DisplayName("Ingest sessions")
+    class IngestSessions {
+
+        @BeforeEach
+        void setUp() {
+            validated();
+        }
+
+        @Test
+        @DisplayName("Should share the bulk settings between sessions and restore them when the last one closes")
+        void shouldRestoreSettingsAfterLastSession() throws IOException {
+            // Arrange
+            when(jobLockService.acquireShared(INGEST_LOCK)).thenReturn(sharedLock);
+
+            // Act
+            ApplicantIndexManager.IngestSession first = indexManager.beginIngest(false);
+            ApplicantIndexManager.IngestSession second = indexManager.beginIngest(false);
+            first.close();
+            verify(sharedLock, never()).close();
+            second.close();
+
+            // Assert - validation at startup, bulk settings and restore
+            verify(jobLockService).acquireShared(INGEST_LOCK);
+            verify(sharedLock).close();
+            verify(indicesClient, times(3)).putSettings(any(Function.class));
+            verify(jobLockService, times(2)).tryAcquire(INGEST_LOCK);
+            verify(indexOps).refresh();
+        }
+
+        @Test
+        @DisplayName("Should not block alias changes while waiting for the ingest lock")
+        void shouldNotBlockAliasChangesWhileEnteringIngest() throws Exception {
+            // Arrange
+            CountDownLatch waiting = new CountDownLatch(1);
+            CountDownLatch granted = new CountDownLatch(1);
+            when(jobLockService.acquireShared(INGEST_LOCK)).thenAnswer(invocation -> {
+                waiting.countDown();
+                granted.await();
+                return sharedLock;
+            });
+            CompletableFuture<ApplicantIndexManager.IngestSession> ingest =
+                    CompletableFuture.supplyAsync(() -> indexManager.beginIngest(false));
+            assertThat(waiting.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Act
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> indexManager.beginDualWrite(REBUILD_INDEX));
+
+            // Assert
+            granted.countDown();
+            ingest.get(5, TimeUnit.SECONDS).close();
+            verify(sharedLock).close();
+        }
+    }
+
+    @Nested
+    @DisplayName("planWrite()")
+    class PlanWrite {
+
+        @BeforeEach
+        void setUp() {
+            validated();
+        }
+
+        @Test
+        @DisplayName("Should write through the write alias and repeat nothing while the aliases are unchanged")
+        void shouldWriteThroughWriteAlias() {
+            // Act
+            ApplicantIndexManager.WritePlan plan = indexManager.planWrite();
+            List<IndexCoordinates> followUps = plan.followUpTargets();
+
+            // Assert
+            assertThat(plan.target()).isEqualTo(IndexCoordinates.of(ApplicantIndexManager.WRITE_ALIAS));
+            assertThat(followUps).isEmpty();
+            assertThat(plan.rebuilding()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should repeat the write on an index whose rebuild started after the write was planned")
+        void shouldFollowRebuildStartedMeanwhile() {
+            // Arrange
+            ApplicantIndexManager.WritePlan plan = indexManager.planWrite();
+            aliases.put(REBUILD_INDEX, Set.of(alias(ApplicantIndexManager.REBUILD_ALIAS)));
+
+            // Act
+            List<IndexCoordinates> followUps = plan.followUpTargets();
+
+            // Assert
+            assertThat(followUps).containsExactly(IndexCoordinates.of(REBUILD_INDEX));
+            assertThat(plan.rebuilding()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should repeat the write through the write alias when the aliases were swapped meanwhile")
+        void shouldFollowSwapMadeMeanwhile() {
+            // Arrange
+            ApplicantIndexManager.WritePlan plan = indexManager.planWrite();
+            aliases.clear();
+            aliases.put(REBUILD_INDEX, Set.of(alias(ApplicantIndexManager.APPLICANTS_INDEX), alias(ApplicantIndexManager.WRITE_ALIAS)));
+
+            // Act
+            List<IndexCoordinates> followUps = plan.followUpTargets();
+
+            // Assert
+            assertThat(followUps).containsExactly(IndexCoordinates.of(ApplicantIndexManager.WRITE_ALIAS));
+            assertThat(plan.rebuilding()).isFalse();
+            assertThat(indexManager.liveIndex()).isEqualTo(REBUILD_INDEX);
+        }
+    }
+
+    @Nested
+    @DisplayName("Dual writes")
+    class DualWrites {
+
+        @BeforeEach
+        void setUp() {
+            validated();
+        }
+
+        @Test
+        @DisplayName("Should forget earlier deletions and add the rebuild alias when dual-writing begins")
+        void shouldAddRebuildAlias() {
+            // Act
+            indexManager.beginDualWrite(REBUILD_INDEX);
+
+            // Assert
+            verify(redisTemplate).delete(DELETED_DURING_REBUILD_KEY);
+            assertThat(aliasActions()).containsExactly("Add applicants_v2 [applicants_rebuild]");
+        }
+
+        @Test
+        @DisplayName("Should remove the rebuild alias and the recorded deletions when dual-writing ends")
+        void shouldRemoveRebuildAlias() {
+            // Arrange
+            aliases.put(REBUILD_INDEX, Set.of(alias(ApplicantIndexManager.REBUILD_ALIAS)));
+
+            // Act
+            indexManager.endDualWrite();
+
+            // Assert
+            assertThat(aliasActions()).containsExactly("Remove applicants_v2 [applicants_rebuild]");
+            verify(redisTemplate).delete(DELETED_DURING_REBUILD_KEY);
+        }
+
+        @Test
+        @DisplayName("Should record deletions with an expiry and hand them out once")
+        void shouldDrainRecordedDeletions() {
+            // Arrange
+            when(redisTemplate.opsForSet()).thenReturn(setOperations);
+            when(setOperations.members(DELETED_DURING_REBUILD_KEY)).thenReturn(Set.of("applicant-1"));
+
+            // Act
+            indexManager.recordDeletion("applicant-1");
+            Set<String> deleted = indexManager.drainDeletions();
+
+            // Assert
+            verify(setOperations).add(DELETED_DURING_REBUILD_KEY, "applicant-1");
+            verify(redisTemplate).expire(DELETED_DURING_REBUILD_KEY, Duration.ofDays(1));
+            verify(redisTemplate).delete(DELETED_DURING_REBUILD_KEY);
+            assertThat(deleted).containsExactly("applicant-1");
+        }
+    }
+
+    @Nested
+    @DisplayName("swapAliases()")
+    class SwapAliases {
+
+        @BeforeEach
+        void setUp() {
+            validated();
+        }
+
+        @Test
+        @DisplayName("Should move both aliases and drop the rebuild alias in one request")
+        void shouldSwapInOneRequest() throws IOException {
+            // Arrange
+            aliases.put(REBUILD_INDEX, Set.of(alias(ApplicantIndexManager.REBUILD_ALIAS)));
+
+            // Act
+            indexManager.swapAliases(REBUILD_INDEX);
+
+            // Assert
+            assertThat(aliasActions()).containsExactly(
+                    "Remove applicants_v1 [applicants, applicants_write]",
+                    "Add applicants_v2 [applicants]",
+                    "Add applicants_v2 [applicants_write] write index",
+                    "Remove applicants_v2 [applicants_rebuild]");
+            // The rebuilt index copied every summary field from the previous one
+            verify(indicesClient).putMapping(any(Function.class));
+        }
+
+        @Test
+        @DisplayName("Should remove a legacy un-versioned index in the same request that takes its name")
+        void shouldReplaceLegacyIndex() {
+            // Arrange
+            aliases.clear();
+            aliases.put(ApplicantIndexManager.APPLICANTS_INDEX, Set.of());
+            aliases.put(REBUILD_INDEX, Set.of(alias(ApplicantIndexManager.REBUILD_ALIAS)));
+
+            // Act
+            indexManager.swapAliases(REBUILD_INDEX);
+
+            // Assert
+            assertThat(aliasActions()).containsExactly(
+                    "RemoveIndex applicants []",
+                    "Add applicants_v2 [applicants]",
+                    "Add applicants_v2 [applicants_write] write index",
+                    "Remove applicants_v2 [applicants_rebuild]");
+        }
+    }
+
+    // Validates the live index as it is at startup, with nobody bulk loading it
+    private void validated() {
+        existingIndex(settings(true));
+        when(jobLockService.tryAcquire(INGEST_LOCK)).thenReturn(Optional.of(ingestLock));
+        indexManager.init();
+    }
+
+    private void existingIndex(Settings settings) {
+        when(indexOps.exists()).thenReturn(true);
+        when(indexOps.getAliasesForIndex(ApplicantIndexManager.APPLICANTS_INDEX))
+                .thenReturn(Map.of(LIVE_INDEX, aliases.get(LIVE_INDEX)));
+        when(indexOps.getSettings()).thenReturn(settings);
+    }
+
+    // Alias changes sent in the one alias request, one line per action
+    private List<String> aliasActions() {
+        ArgumentCaptor<AliasActions> actions = ArgumentCaptor.forClass(AliasActions.class);
+        verify(indexOps).alias(actions.capture());
+        return actions.getValue().getActions().stream().map(ApplicantIndexManagerTest::describe).toList();
+    }
+
+    private static String describe(AliasAction action) {
+        AliasActionParameters parameters = action.getParameters();
+        String aliasNames = parameters.getAliases() == null ? "" : String.join(", ", parameters.getAliases());
+        return action.getClass().getSimpleName() + " " + String.join(", ", parameters.getIndices())
+                + " [" + aliasNames + "]" + (Boolean.TRUE.equals(parameters.getWriteIndex()) ? " write index" : "");
+    }
+
+    private Document sentMapping() {
+        ArgumentCaptor<Document> mapping = ArgumentCaptor.forClass(Document.class);
+        verify(indexOps).putMapping(mapping.capture());
+        return mapping.getValue();
+    }
+
+    // Fields of the mapping that still carry the normalized subfield
+    private static List<String> normalizedSubfields(Document mapping) {
+        return Stream.of("lastName", "skills")
+                .filter(name -> field(mapping, name).get("fields") instanceof Map<?, ?> subfields
+                        && subfields.containsKey(ApplicantDocument.NORMALIZED))
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> field(Document mapping, String name) {
+        return (Map<String, Object>) ((Map<String, Object>) mapping.get("properties")).get(name);
+    }
+
+    // A text field with only the normalized subfield and a keyword field with one more
+    private static Document mapping() {
+        Map<String, Object> normalized = new HashMap<>(Map.of("type", "keyword", "normalizer", ApplicantDocument.KEYWORD_NORMALIZER));
+        Map<String, Object> lastName = new HashMap<>(Map.of(
+                "type", "text",
+                "fields", new HashMap<>(Map.of(ApplicantDocument.NORMALIZED, normalized))));
+        Map<String, Object> skills = new HashMap<>(Map.of(
+                "type", "keyword",
+                "fields", new HashMap<>(Map.of(ApplicantDocument.NORMALIZED, new HashMap<>(normalized), "raw", Map.of("type", "keyword")))));
+        return Document.from(Map.of("properties", new HashMap<>(Map.of("lastName", lastName, "skills", skills))));
+    }
+
+    private static AliasData alias(String name) {
+        return AliasData.of(name, null, null, null, null, null);
+    }
+
+    private static Settings settings(boolean normalizer) {
+        Settings settings = new Settings();
+        settings.put("index.number_of_shards", "1");
+        if (normalizer) {
+            settings.put("index.analysis.normalizer." + ApplicantDocument.KEYWORD_NORMALIZER + ".type", "custom");
+        }
+        return settings;
+    }
+}
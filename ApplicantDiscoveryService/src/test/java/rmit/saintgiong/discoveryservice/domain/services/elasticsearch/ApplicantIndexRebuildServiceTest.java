@@ -0,0 +1,166 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch.core.ReindexResponse;
+import co.elastic.clients.elasticsearch.indices.CloseIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.tasks.ElasticsearchTasksClient;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import co.elastic.clients.util.ObjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import rmit.saintgiong.discoveryservice.domain.services.job.JobContext;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ApplicantIndexRebuildService.
+ * Tests the order of the rebuild steps around the dual writes, and how an abandoned rebuild leaves the live index.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApplicantIndexRebuildService Tests")
+class ApplicantIndexRebuildServiceTest {
+
+    private static final String SOURCE = "applicants_v1";
+    private static final String TARGET = "applicants_v2";
+
+    @Mock
+    private ApplicantIndexManager applicantIndexManager;
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchIndicesClient indicesClient;
+
+    @Mock
+    private ElasticsearchTasksClient tasksClient;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private IndexOperations sourceOps;
+
+    @Mock
+    private IndexOperations targetOps;
+
+    @Mock
+    private ReindexResponse reindexResponse;
+
+    @Mock
+    private GetTasksResponse task;
+
+    @Mock
+    private JobContext context;
+
+    private ApplicantIndexRebuildService rebuildService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(applicantIndexManager.liveIndex()).thenReturn(SOURCE);
+        when(applicantIndexManager.nextIndexName()).thenReturn(TARGET);
+        when(elasticsearchOperations.indexOps(IndexCoordinates.of(SOURCE))).thenReturn(sourceOps);
+        when(elasticsearchOperations.indexOps(IndexCoordinates.of(TARGET))).thenReturn(targetOps);
+        when(elasticsearchClient.reindex(any(Function.class))).thenReturn(reindexResponse);
+        when(reindexResponse.task()).thenReturn("node:1");
+        when(elasticsearchClient.tasks()).thenReturn(tasksClient);
+        when(tasksClient.get(any(Function.class))).thenReturn(task);
+
+        rebuildService = new ApplicantIndexRebuildService(applicantIndexManager, elasticsearchClient, elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("Should copy after dual writes began, replay deletions on the new index and swap last")
+    void shouldRebuildInOrder() throws IOException {
+        // Arrange
+        when(task.completed()).thenReturn(true);
+        when(applicantIndexManager.drainDeletions()).thenReturn(Set.of("deleted-applicant"));
+
+        // Act
+        String served = rebuildService.rebuild(context);
+
+        // Assert
+        assertThat(served).isEqualTo(TARGET);
+        InOrder inOrder = inOrder(applicantIndexManager, sourceOps, targetOps, elasticsearchClient, elasticsearchOperations);
+        inOrder.verify(targetOps).delete();
+        inOrder.verify(applicantIndexManager).createIndex(TARGET, 0, "-1");
+        inOrder.verify(applicantIndexManager).beginDualWrite(TARGET);
+        // Writes completed before the rebuild alias existed become visible to the copy
+        inOrder.verify(sourceOps).refresh();
+        inOrder.verify(elasticsearchClient).reindex(any(Function.class));
+        inOrder.verify(applicantIndexManager).drainDeletions();
+        inOrder.verify(elasticsearchOperations).delete("deleted-applicant", IndexCoordinates.of(TARGET));
+        inOrder.verify(applicantIndexManager).restoreSettings(TARGET);
+        inOrder.verify(targetOps).refresh();
+        inOrder.verify(applicantIndexManager).swapAliases(TARGET);
+        inOrder.verify(sourceOps).delete();
+        verify(applicantIndexManager, never()).endDualWrite();
+        verify(elasticsearchClient, never()).indices();
+    }
+
+    @Test
+    @DisplayName("Should end dual writes and close the new index when the copy fails")
+    void shouldAbandonFailedCopy() throws IOException {
+        // Arrange
+        when(task.completed()).thenReturn(true);
+        when(task.error()).thenReturn(ErrorCause.of(error -> error.type("mapper_exception").reason("copy failed")));
+        when(elasticsearchClient.indices()).thenReturn(indicesClient);
+
+        // Act & Assert
+        assertThatThrownBy(() -> rebuildService.rebuild(context))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("copy failed");
+        verify(applicantIndexManager).endDualWrite();
+        assertThat(closedIndices()).isEqualTo(TARGET);
+        verify(applicantIndexManager, never()).swapAliases(anyString());
+        verify(sourceOps, never()).delete();
+    }
+
+    @Test
+    @DisplayName("Should cancel the copy task, end dual writes and close the new index when the job is cancelled")
+    void shouldAbandonCancelledCopy() throws IOException {
+        // Arrange
+        when(task.completed()).thenReturn(false);
+        when(context.isCancelled()).thenReturn(true);
+        when(elasticsearchClient.indices()).thenReturn(indicesClient);
+
+        // Act & Assert
+        assertThatThrownBy(() -> rebuildService.rebuild(context)).isInstanceOf(CancellationException.class);
+        verify(tasksClient).cancel(any(Function.class));
+        verify(applicantIndexManager).endDualWrite();
+        assertThat(closedIndices()).isEqualTo(TARGET);
+        verify(applicantIndexManager, never()).drainDeletions();
+        verify(sourceOps, never()).delete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private String closedIndices() throws IOException {
+        ArgumentCaptor<Function<CloseIndexRequest.Builder, ObjectBuilder<CloseIndexRequest>>> request =
+                ArgumentCaptor.forClass(Function.class);
+        verify(indicesClient).close(request.capture());
+        return String.join(",", CloseIndexRequest.of(request.getValue()).index());
+    }
+}
@@ -0,0 +1,93 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ApplicantQueryPlanner.
+ * Tests the split into scoring and filter clauses and the canonical query shape.
+ */
+@DisplayName("ApplicantQueryPlanner Tests")
+class ApplicantQueryPlannerTest {
+
+    private final ApplicantQueryPlanner applicantQueryPlanner = new ApplicantQueryPlanner();
+
+    @Test
+    @DisplayName("Should score only the full-text clauses and filter on the rest")
+    void shouldSplitScoringAndFilterClauses() {
+        // Arrange
+        ApplicantSearchCriteria criteria = ApplicantSearchCriteria.of(
+                "Jane", "java", "Hanoi", false, List.of("Master"), List.of(3L, 1L), "ANY");
+
+        // Act
+        BoolQuery bool = applicantQueryPlanner.plan(criteria, ApplicantIndexFeatures.ALL).bool();
+
+        // Assert
+        assertThat(bool.must()).hasSize(2).allMatch(query -> query.isMultiMatch() || query.isBool());
+        assertThat(bool.filter()).hasSize(4);
+        assertThat(bool.filter().get(0).term().field()).isEqualTo("city.normalized");
+        assertThat(bool.filter().get(1).nested().query().terms().field()).isEqualTo("educations.degree.normalized");
+        assertThat(bool.filter().get(2).terms().field()).isEqualTo("skillIds");
+        assertThat(bool.filter().get(3).term().field()).isEqualTo("hasWorkExperience");
+        assertThat(bool.filter().get(3).term().value().booleanValue()).isTrue();
+        assertThat(bool.mustNot()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should plan equal criteria to the same query")
+    void shouldPlanCanonicalQuery() {
+        // Arrange
+        ApplicantSearchCriteria first = ApplicantSearchCriteria.of(
+                null, " java ", "Vietnam", true, List.of("Master", "Bachelor"), List.of(5L, 2L, 5L), "none");
+        ApplicantSearchCriteria second = ApplicantSearchCriteria.of(
+                "", "java", null, false, List.of("Bachelor", "Master", " "), List.of(2L, 5L), "NONE");
+
+        // Act
+        Query firstQuery = applicantQueryPlanner.plan(first, ApplicantIndexFeatures.ALL);
+        Query secondQuery = applicantQueryPlanner.plan(second, ApplicantIndexFeatures.ALL);
+
+        // Assert
+        assertThat(first).isEqualTo(second);
+        assertThat(firstQuery.toString()).isEqualTo(secondQuery.toString());
+        assertThat(firstQuery.bool().mustNot()).isEmpty();
+        assertThat(firstQuery.bool().filter().get(0).term().field()).isEqualTo("country.normalized");
+    }
+
+    @Test
+    @DisplayName("Should use the former filters when the index lacks the optional fields")
+    void shouldFallBackToRawKeywordFields() {
+        // Arrange
+        ApplicantSearchCriteria criteria = ApplicantSearchCriteria.of(
+                null, null, "Hanoi", false, List.of("Master"), null, "NONE");
+
+        // Act
+        BoolQuery bool = applicantQueryPlanner.plan(criteria, new ApplicantIndexFeatures(false, false)).bool();
+
+        // Assert
+        assertThat(bool.filter()).hasSize(2);
+        assertThat(bool.mustNot()).singleElement().satisfies(query ->
+                assertThat(query.nested().path()).isEqualTo("workExperiences"));
+        assertThat(bool.filter().get(0).match().field()).isEqualTo("city");
+        assertThat(bool.filter().get(1).nested().query().bool().should())
+                .extracting(query -> query.match().field())
+                .containsExactly("educations.degree");
+    }
+
+    @Test
+    @DisplayName("Should filter the comprehensive search on normalized city and country")
+    void shouldFilterComprehensiveSearch() {
+        // Act
+        BoolQuery bool = applicantQueryPlanner.planComprehensive(null, "Hà Nội", "vietnam", ApplicantIndexFeatures.ALL).bool();
+
+        // Assert
+        assertThat(bool.must()).isEmpty();
+        assertThat(bool.filter()).extracting(query -> query.term().field())
+                .containsExactly("city.normalized", "country.normalized");
+    }
+}
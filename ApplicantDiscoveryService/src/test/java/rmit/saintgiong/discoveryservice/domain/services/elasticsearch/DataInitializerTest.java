@@ -0,0 +1,96 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.BulkIndexResult;
+import rmit.saintgiong.discoveryservice.domain.services.job.BackgroundJobService;
+import rmit.saintgiong.discoveryservice.domain.services.job.JobContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for DataInitializer.
+ * Tests that the seed is only loaded when the index holds a different seed version.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DataInitializer Tests")
+class DataInitializerTest {
+
+    @Mock
+    private ApplicantBulkIngester applicantBulkIngester;
+
+    @Mock
+    private ApplicantIndexManager applicantIndexManager;
+
+    @Mock
+    private BackgroundJobService backgroundJobService;
+
+    @Mock
+    private JobContext jobContext;
+
+    private DataInitializer dataInitializer(String version) {
+        return new DataInitializer(applicantBulkIngester, applicantIndexManager, backgroundJobService,
+                // Configured like the application's mapper, which ignores unknown seed fields
+                new ObjectMapper().findAndRegisterModules().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES),
+                version);
+    }
+
+    @Test
+    @DisplayName("Should skip loading when the index holds the same seed version")
+    void shouldSkipLoadedVersion() {
+        // Arrange
+        when(applicantIndexManager.getMeta(DataInitializer.SEED_VERSION_META)).thenReturn("v2");
+
+        // Act
+        dataInitializer("v2").loadApplicants(jobContext);
+
+        // Assert
+        verify(applicantBulkIngester, never()).addAll(anyCollection());
+        verify(applicantIndexManager, never()).putMeta(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should bulk load the seed and record its version")
+    void shouldLoadNewVersion() {
+        // Arrange
+        when(applicantIndexManager.getMeta(DataInitializer.SEED_VERSION_META)).thenReturn("v1");
+        when(applicantBulkIngester.addAll(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(new BulkIndexResult(List.of("a"), Map.of())));
+
+        // Act
+        dataInitializer("v2").loadApplicants(jobContext);
+
+        // Assert
+        verify(applicantIndexManager).beginIngest(true);
+        verify(applicantIndexManager).putMeta(DataInitializer.SEED_VERSION_META, "v2");
+    }
+
+    @Test
+    @DisplayName("Should keep the old version when part of the seed failed to load")
+    void shouldNotRecordPartialLoad() {
+        // Arrange
+        when(applicantIndexManager.getMeta(DataInitializer.SEED_VERSION_META)).thenReturn(null);
+        when(applicantBulkIngester.addAll(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(new BulkIndexResult(List.of(), Map.of("a", "rejected"))));
+
+        // Act
+        dataInitializer("v2").loadApplicants(jobContext);
+
+        // Assert
+        verify(applicantIndexManager, never()).putMeta(eq(DataInitializer.SEED_VERSION_META), anyString());
+    }
+}
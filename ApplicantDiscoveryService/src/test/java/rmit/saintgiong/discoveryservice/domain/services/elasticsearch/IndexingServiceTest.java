@@ -0,0 +1,289 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.document.Education;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.BulkIndexResult;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for IndexingService.
+ * Tests the partial updates sent for applicants compared with their stored version, the hash documents are indexed
+ * with, and writes repeated while the index is rebuilt.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndexingService Tests")
+class IndexingServiceTest {
+
+    private static final UUID APPLICANT_ID = UUID.randomUUID();
+    private static final IndexCoordinates LIVE_INDEX = IndexCoordinates.of("applicants_write");
+    private static final IndexCoordinates REBUILD_INDEX = IndexCoordinates.of("applicants_v2");
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 8, 0);
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 3, 1, 9, 30);
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ApplicantIndexManager applicantIndexManager;
+
+    @Mock
+    private ApplicantIndexManager.WritePlan writePlan;
+
+    private ApplicantContentHasher hasher;
+    private IndexingService indexingService;
+
+    @BeforeEach
+    void setUp() {
+        ElasticsearchCustomConversions conversions = new ElasticsearchCustomConversions(Collections.emptyList());
+        SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(mappingContext);
+        converter.setConversions(conversions);
+        converter.afterPropertiesSet();
+        when(elasticsearchOperations.getElasticsearchConverter()).thenReturn(converter);
+        when(applicantIndexManager.execute(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
+        hasher = new ApplicantContentHasher(elasticsearchOperations, new ObjectMapper());
+        indexingService = new IndexingService(elasticsearchOperations, applicantIndexManager, hasher);
+    }
+
+    @Nested
+    @DisplayName("updateApplicants()")
+    class UpdateApplicants {
+
+        @Test
+        @DisplayName("Should send no update when only the timestamps differ")
+        void shouldSkipUnchangedApplicant() {
+            // Arrange
+            stored(applicant("Doe", "Engineer", CREATED_AT.minusYears(1), UPDATED_AT.minusDays(1)));
+
+            // Act
+            BulkIndexResult result = indexingService.updateApplicants(List.of(applicant("Doe", "Engineer", CREATED_AT, UPDATED_AT)));
+
+            // Assert
+            verify(elasticsearchOperations, never()).bulkUpdate(anyList(), any(IndexCoordinates.class));
+            verify(applicantIndexManager, never()).planWrite();
+            assertThat(result.indexedIds()).containsExactly(APPLICANT_ID.toString());
+            assertThat(result.failures()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should send only the changed fields and updatedAt, with the full document as upsert")
+        void shouldSendChangedFields() {
+            // Arrange
+            LocalDateTime storedCreatedAt = CREATED_AT.minusYears(1);
+            stored(applicant("Doe", "Engineer", storedCreatedAt, UPDATED_AT.minusDays(1)));
+            writesGoTo();
+
+            // Act
+            BulkIndexResult result = indexingService.updateApplicants(List.of(applicant("Smith", "Engineer", CREATED_AT, UPDATED_AT)));
+
+            // Assert
+            UpdateQuery query = sentUpdate();
+            Document changes = query.getDocument();
+            assertThat(changes.keySet()).containsExactlyInAnyOrder("lastName", "contentHash", "updatedAt");
+            assertThat(changes).contains(entry("lastName", "Smith"), entry("updatedAt", "2025-03-01T09:30:00"));
+            assertThat(query.getDocAsUpsert()).isNotEqualTo(Boolean.TRUE);
+            // The upsert keeps the stored createdAt instead of the time the event was mapped
+            assertThat(query.getUpsert()).contains(entry("lastName", "Smith"), entry("createdAt", "2024-01-01T08:00:00"));
+            assertThat(result.indexedIds()).containsExactly(APPLICANT_ID.toString());
+        }
+
+        @Test
+        @DisplayName("Should clear a field the update no longer carries")
+        void shouldClearRemovedField() {
+            // Arrange
+            stored(applicant("Doe", "Engineer", CREATED_AT, UPDATED_AT.minusDays(1)));
+            writesGoTo();
+
+            // Act
+            indexingService.updateApplicants(List.of(applicant("Doe", null, CREATED_AT, UPDATED_AT)));
+
+            // Assert
+            Document changes = sentUpdate().getDocument();
+            assertThat(changes).containsKey("biography");
+            assertThat(changes.get("biography")).isNull();
+            assertThat(changes).containsKey("updatedAt");
+        }
+
+        @Test
+        @DisplayName("Should upsert the whole document when the applicant is not indexed yet")
+        void shouldUpsertMissingApplicant() {
+            // Arrange
+            when(elasticsearchOperations.multiGet(any(Query.class), eq(ApplicantDocument.class), any(IndexCoordinates.class)))
+                    .thenReturn(List.of(MultiGetItem.of(null, null)));
+            writesGoTo();
+
+            // Act
+            BulkIndexResult result = indexingService.updateApplicants(List.of(applicant("Doe", "Engineer", CREATED_AT, UPDATED_AT)));
+
+            // Assert
+            UpdateQuery query = sentUpdate();
+            assertThat(query.getDocAsUpsert()).isTrue();
+            assertThat(query.getDocument()).contains(
+                    entry("lastName", "Doe"), entry("biography", "Engineer"), entry("createdAt", "2025-01-01T08:00:00"));
+            assertThat(query.getDocument()).containsKey("contentHash");
+            assertThat(result.indexedIds()).containsExactly(APPLICANT_ID.toString());
+        }
+    }
+
+    @Nested
+    @DisplayName("indexApplicants()")
+    class IndexApplicants {
+
+        @Test
+        @DisplayName("Should index a document already hashed by a sync without hashing it again")
+        void shouldKeepExistingHash() {
+            // Arrange
+            writesGoTo();
+            ApplicantDocument hashed = hasher.withHash(applicant("Doe", "Engineer", CREATED_AT, UPDATED_AT))
+                    .withContentHash("hash-from-sync");
+
+            // Act
+            indexingService.indexApplicants(List.of(hashed));
+
+            // Assert
+            assertThat(sentIndex().getObject()).isSameAs(hashed);
+        }
+
+        @Test
+        @DisplayName("Should summarize and hash a document without hash")
+        void shouldHashNewDocument() {
+            // Arrange
+            writesGoTo();
+            ApplicantDocument document = applicant("Doe", "Engineer", CREATED_AT, UPDATED_AT);
+
+            // Act
+            indexingService.indexApplicants(List.of(document));
+
+            // Assert
+            ApplicantDocument indexed = (ApplicantDocument) sentIndex().getObject();
+            assertThat(indexed.contentHash()).isEqualTo(hasher.hash(indexed));
+            assertThat(indexed.hasWorkExperience()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Writes during a rebuild")
+    class DuringRebuild {
+
+        @Test
+        @DisplayName("Should repeat a bulk write on the follow-up targets found after the first write")
+        void shouldRepeatBulkWriteOnFollowUpTargets() {
+            // Arrange
+            writesGoTo(REBUILD_INDEX);
+
+            // Act
+            BulkIndexResult result = indexingService.indexApplicants(List.of(applicant("Doe", "Engineer", CREATED_AT, UPDATED_AT)));
+
+            // Assert - the aliases are re-read only once the first write completed
+            InOrder inOrder = inOrder(elasticsearchOperations, writePlan);
+            inOrder.verify(elasticsearchOperations).bulkIndex(anyList(), eq(LIVE_INDEX));
+            inOrder.verify(writePlan).followUpTargets();
+            inOrder.verify(elasticsearchOperations).bulkIndex(anyList(), eq(REBUILD_INDEX));
+            assertThat(result.indexedIds()).containsExactly(APPLICANT_ID.toString());
+        }
+
+        @Test
+        @DisplayName("Should record a deletion made while a rebuild runs and delete from the index being built")
+        void shouldRecordDeletionDuringRebuild() {
+            // Arrange
+            writesGoTo(REBUILD_INDEX);
+            when(writePlan.rebuilding()).thenReturn(true);
+
+            // Act
+            indexingService.deleteApplicant(APPLICANT_ID.toString());
+
+            // Assert
+            verify(elasticsearchOperations).delete(APPLICANT_ID.toString(), LIVE_INDEX);
+            verify(applicantIndexManager).recordDeletion(APPLICANT_ID.toString());
+            verify(elasticsearchOperations).delete(APPLICANT_ID.toString(), REBUILD_INDEX);
+        }
+
+        @Test
+        @DisplayName("Should not record deletions outside a rebuild")
+        void shouldNotRecordDeletionOutsideRebuild() {
+            // Arrange
+            writesGoTo();
+
+            // Act
+            indexingService.deleteApplicant(APPLICANT_ID.toString());
+
+            // Assert
+            verify(elasticsearchOperations).delete(APPLICANT_ID.toString(), LIVE_INDEX);
+            verify(applicantIndexManager, never()).recordDeletion(anyString());
+        }
+    }
+
+    private void writesGoTo(IndexCoordinates... followUpTargets) {
+        when(applicantIndexManager.planWrite()).thenReturn(writePlan);
+        when(writePlan.target()).thenReturn(LIVE_INDEX);
+        when(writePlan.followUpTargets()).thenReturn(List.of(followUpTargets));
+    }
+
+    // Stored documents carry the hash they were indexed with
+    private void stored(ApplicantDocument document) {
+        when(elasticsearchOperations.multiGet(any(Query.class), eq(ApplicantDocument.class), any(IndexCoordinates.class)))
+                .thenReturn(List.of(MultiGetItem.of(hasher.withHash(document), null)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private IndexQuery sentIndex() {
+        ArgumentCaptor<List<IndexQuery>> queries = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations).bulkIndex(queries.capture(), eq(LIVE_INDEX));
+        assertThat(queries.getValue()).hasSize(1);
+        return queries.getValue().get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private UpdateQuery sentUpdate() {
+        ArgumentCaptor<List<UpdateQuery>> queries = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations).bulkUpdate(queries.capture(), eq(LIVE_INDEX));
+        assertThat(queries.getValue()).hasSize(1);
+        assertThat(queries.getValue().get(0).getId()).isEqualTo(APPLICANT_ID.toString());
+        return queries.getValue().get(0);
+    }
+
+    private static ApplicantDocument applicant(String lastName, String biography, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new ApplicantDocument(
+                APPLICANT_ID, "Jane", lastName, null, null, "Hanoi", biography, null, null, "Vietnam",
+                List.of(new Education("RMIT", "Bachelor of IT", 3.5, null, null, null, false)),
+                Collections.emptyList(), List.of(1L, 2L), List.of("Java", "Spring"), createdAt, updatedAt, null);
+    }
+}
@@ -0,0 +1,284 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.util.ObjectBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rmit.saintgiong.discoveryapi.internal.common.types.type.DegreeType;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
+import rmit.saintgiong.discoveryservice.domain.services.SearchProfileRepository;
+import rmit.saintgiong.discoveryservice.domain.services.matching.CompiledSearchProfile;
+import rmit.saintgiong.discoveryservice.domain.services.matching.MatchedSearchProfile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SearchProfilePercolatorService.
+ * Tests the percolate query built for a search profile, when profile changes reach the index, mapping updates of
+ * an existing index and reading every page of matches.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchProfilePercolatorService Tests")
+class SearchProfilePercolatorServiceTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private SearchProfileRepository searchProfileRepository;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    @Mock
+    private IndexOperations documentOps;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should filter on country, degree and any required skill")
+    @SuppressWarnings("unchecked")
+    void shouldTranslateAllCriteria() {
+        // Arrange
+        CompiledSearchProfile profile = CompiledSearchProfile.from(profile("Vietnam", DegreeType.MASTER, 12, 5));
+
+        // Act
+        Map<String, Object> query = SearchProfilePercolatorService.toQuery(profile);
+
+        // Assert
+        List<Object> filters = (List<Object>) ((Map<String, Object>) query.get("bool")).get("filter");
+        assertThat(filters).containsExactly(
+                Map.of("term", Map.of("country", Map.of("value", "vietnam", "case_insensitive", true))),
+                Map.of("nested", Map.of(
+                        "path", "educations",
+                        "query", Map.of("wildcard", Map.of("educations.degree",
+                                Map.of("value", "*MASTER*", "case_insensitive", true))))),
+                Map.of("terms", Map.of("skillIds", List.of(5, 12))));
+    }
+
+    @Test
+    @DisplayName("Should match every applicant when the profile has no criteria")
+    void shouldMatchAllWithoutCriteria() {
+        // Arrange
+        CompiledSearchProfile profile = CompiledSearchProfile.from(profile(null, null));
+
+        // Act
+        Map<String, Object> query = SearchProfilePercolatorService.toQuery(profile);
+
+        // Assert
+        assertThat(query).isEqualTo(Map.of("match_all", Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should register a profile only once the transaction commits")
+    @SuppressWarnings("unchecked")
+    void shouldRegisterAfterCommit() throws Exception {
+        // Arrange
+        SearchProfilePercolatorService service = new SearchProfilePercolatorService(
+                elasticsearchClient, elasticsearchOperations, searchProfileRepository, 100);
+        existingIndex(settings(true));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        service.register(profile("Vietnam", null, 3));
+        service.deregister(UUID.randomUUID());
+
+        // Assert - nothing is sent before the commit, and a rollback would discard both changes
+        verify(elasticsearchClient, never()).index(any(Function.class));
+        verify(elasticsearchClient, never()).delete(any(Function.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(elasticsearchClient).index(any(Function.class));
+        verify(elasticsearchClient).delete(any(Function.class));
+    }
+
+    @Test
+    @DisplayName("Should bring the mapping of an existing index up to date once per run")
+    void shouldUpdateMappingOnce() throws Exception {
+        // Arrange
+        SearchProfilePercolatorService service = new SearchProfilePercolatorService(
+                elasticsearchClient, elasticsearchOperations, searchProfileRepository, 100);
+        existingIndex(settings(true));
+
+        // Act
+        service.register(profile("Vietnam", null, 3));
+        service.register(profile("Vietnam", null, 4));
+
+        // Assert
+        Document mapping = sentMapping();
+        assertThat(field(mapping, "query")).isEqualTo(Map.of("type", "percolator"));
+        assertThat(field(mapping, "lastName")).containsKey("fields");
+        verify(elasticsearchClient, times(2)).index(any(Function.class));
+    }
+
+    @Test
+    @DisplayName("Should leave out the normalized subfields when the existing index has no normalizer")
+    void shouldUpdateMappingWithoutNormalizer() {
+        // Arrange
+        SearchProfilePercolatorService service = new SearchProfilePercolatorService(
+                elasticsearchClient, elasticsearchOperations, searchProfileRepository, 100);
+        existingIndex(settings(false));
+
+        // Act
+        service.register(profile("Vietnam", null, 3));
+
+        // Assert
+        assertThat(field(sentMapping(), "lastName")).doesNotContainKey("fields");
+    }
+
+    @Test
+    @DisplayName("Should read every page of matches instead of stopping at the page size")
+    @SuppressWarnings("unchecked")
+    void shouldReadAllPagesOfMatches() throws Exception {
+        // Arrange
+        SearchProfilePercolatorService service = new SearchProfilePercolatorService(
+                elasticsearchClient, elasticsearchOperations, searchProfileRepository, 2);
+        when(elasticsearchOperations.getElasticsearchConverter()).thenReturn(converter());
+        MatchedSearchProfile first = matched();
+        MatchedSearchProfile second = matched();
+        MatchedSearchProfile third = matched();
+        when(elasticsearchClient.search(any(Function.class), eq(MatchedSearchProfile.class)))
+                .thenReturn(page(first, second))
+                .thenReturn(page(third));
+
+        // Act
+        List<MatchedSearchProfile> matches = service.percolate(applicant());
+
+        // Assert
+        assertThat(matches).containsExactly(first, second, third);
+        ArgumentCaptor<Function<SearchRequest.Builder, ObjectBuilder<SearchRequest>>> requests =
+                ArgumentCaptor.forClass(Function.class);
+        verify(elasticsearchClient, times(2)).search(requests.capture(), eq(MatchedSearchProfile.class));
+        assertThat(SearchRequest.of(requests.getAllValues().get(0)).searchAfter()).isEmpty();
+        assertThat(SearchRequest.of(requests.getAllValues().get(1)).searchAfter())
+                .extracting(FieldValue::stringValue)
+                .containsExactly(second.profileId().toString());
+    }
+
+    private void existingIndex(Settings settings) {
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(indexOps);
+        when(elasticsearchOperations.indexOps(ApplicantDocument.class)).thenReturn(documentOps);
+        when(indexOps.exists()).thenReturn(true);
+        when(indexOps.getSettings()).thenReturn(settings);
+        when(documentOps.createMapping()).thenReturn(applicantMapping());
+    }
+
+    private Document sentMapping() {
+        ArgumentCaptor<Document> mapping = ArgumentCaptor.forClass(Document.class);
+        verify(indexOps).putMapping(mapping.capture());
+        return mapping.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> field(Document mapping, String name) {
+        return (Map<String, Object>) ((Map<String, Object>) mapping.get("properties")).get(name);
+    }
+
+    // One applicant field with a normalized subfield
+    private static Document applicantMapping() {
+        Map<String, Object> normalized = Map.of("type", "keyword", "normalizer", ApplicantDocument.KEYWORD_NORMALIZER);
+        Map<String, Object> lastName = new HashMap<>(Map.of(
+                "type", "text",
+                "fields", new HashMap<>(Map.of(ApplicantDocument.NORMALIZED, normalized))));
+        return Document.from(Map.of("properties", new HashMap<>(Map.of("lastName", lastName))));
+    }
+
+    private static Settings settings(boolean normalizer) {
+        Settings settings = new Settings();
+        if (normalizer) {
+            settings.put("index.analysis.normalizer." + ApplicantDocument.KEYWORD_NORMALIZER + ".type", "custom");
+        }
+        return settings;
+    }
+
+    private static MatchedSearchProfile matched() {
+        return new MatchedSearchProfile(UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    // A page of hits sorted by profile id, as percolated for a single applicant
+    private static SearchResponse<MatchedSearchProfile> page(MatchedSearchProfile... profiles) {
+        List<Hit<MatchedSearchProfile>> hits = Arrays.stream(profiles)
+                .map(profile -> Hit.<MatchedSearchProfile>of(hit -> hit
+                        .index(SearchProfilePercolatorService.PERCOLATOR_INDEX)
+                        .id(profile.profileId().toString())
+                        .source(profile)
+                        .sort(FieldValue.of(profile.profileId().toString()))))
+                .toList();
+        return SearchResponse.of(response -> response
+                .took(1)
+                .timedOut(false)
+                .shards(shards -> shards.total(1).successful(1).failed(0))
+                .hits(page -> page.hits(hits)));
+    }
+
+    private static MappingElasticsearchConverter converter() {
+        ElasticsearchCustomConversions conversions = new ElasticsearchCustomConversions(Collections.emptyList());
+        SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(mappingContext);
+        converter.setConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static ApplicantDocument applicant() {
+        return new ApplicantDocument(
+                UUID.randomUUID(), "Jane", "Doe", null, null, "Hanoi", null, null, null, "Vietnam",
+                Collections.emptyList(), Collections.emptyList(), List.of(3L), List.of("Java"), null, null, null);
+    }
+
+    private static SearchProfileEntity profile(String country, DegreeType degree, Integer... skillTagIds) {
+        SearchProfileEntity entity = SearchProfileEntity.builder()
+                .profileId(UUID.randomUUID())
+                .companyId(UUID.randomUUID())
+                .country(country)
+                .highestDegree(degree)
+                .build();
+        for (Integer tagId : skillTagIds) {
+            entity.addSkillTag(tagId);
+        }
+        return entity;
+    }
+}
@@ -0,0 +1,81 @@
+package rmit.saintgiong.discoveryservice.domain.services.elasticsearch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.document.WorkExperience;
+import rmit.saintgiong.discoveryapi.internal.document.WorkExperienceSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for WorkExperienceSummary.
+ * Tests the root-level work experience fields derived for applicant documents.
+ */
+@DisplayName("WorkExperienceSummary Tests")
+class WorkExperienceSummaryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 7, 1, 0, 0);
+
+    @Test
+    @DisplayName("Should count overlapping experiences once and current ones up to now")
+    void shouldMergeOverlappingExperiences() {
+        // Arrange
+        List<WorkExperience> experiences = List.of(
+                experience(LocalDateTime.of(2020, 1, 1, 0, 0), LocalDateTime.of(2021, 1, 1, 0, 0), false),
+                experience(LocalDateTime.of(2020, 7, 1, 0, 0), LocalDateTime.of(2021, 7, 1, 0, 0), false),
+                experience(LocalDateTime.of(2024, 7, 1, 0, 0), null, true));
+
+        // Act
+        WorkExperienceSummary summary = WorkExperienceSummary.of(experiences, NOW);
+
+        // Assert
+        assertThat(summary.hasWorkExperience()).isTrue();
+        assertThat(summary.workExperienceCount()).isEqualTo(3);
+        assertThat(summary.totalExperienceMonths()).isEqualTo(18 + 12);
+        assertThat(summary.currentlyEmployed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should report no experience for an empty list")
+    void shouldReportNoExperience() {
+        // Act
+        WorkExperienceSummary summary = WorkExperienceSummary.of(null, NOW);
+
+        // Assert
+        assertThat(summary).isEqualTo(new WorkExperienceSummary(false, 0, 0, false));
+    }
+
+    @Test
+    @DisplayName("Should derive the summary fields only when asked and keep them on copies and reads")
+    void shouldDeriveFieldsOnDocument() {
+        // Arrange
+        WorkExperience current = experience(LocalDateTime.of(2024, 7, 1, 0, 0), null, true);
+        ApplicantDocument document = new ApplicantDocument(UUID.randomUUID(), "Jane", "Doe", null, null, "Hanoi",
+                null, null, null, "Vietnam", List.of(), List.of(current), List.of(), List.of(), null, null, null);
+
+        // Act
+        ApplicantDocument summarized = document.withWorkExperienceSummary(NOW);
+        ApplicantDocument hashed = summarized.withContentHash("hash");
+        ApplicantDocument read = new ApplicantDocument(hashed.applicantId(), "Jane", "Doe", null, null, "Hanoi",
+                null, null, null, "Vietnam", List.of(), List.of(current), List.of(), List.of(), null, null, "hash",
+                true, 1, 12, true);
+
+        // Assert
+        assertThat(document.hasWorkExperience()).isFalse();
+        assertThat(summarized.hasWorkExperience()).isTrue();
+        assertThat(summarized.workExperienceCount()).isEqualTo(1);
+        assertThat(summarized.totalExperienceMonths()).isEqualTo(12);
+        assertThat(summarized.currentlyEmployed()).isTrue();
+        assertThat(hashed.totalExperienceMonths()).isEqualTo(12);
+        assertThat(read.totalExperienceMonths()).isEqualTo(12);
+    }
+
+    private static WorkExperience experience(LocalDateTime start, LocalDateTime end, boolean current) {
+        return new WorkExperience("Acme", "Engineer", null, "Vietnam", start, end, current);
+    }
+}
@@ -0,0 +1,185 @@
+package rmit.saintgiong.discoveryservice.domain.services.external;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rmit.saintgiong.discoveryapi.external.services.ExternalDiscoveryRequestInterface;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CompanyPremiumStatusCache.
+ * Tests shared in-flight lookups, the positive and negative TTLs, failed lookups and the status changes applied
+ * to the premium company registry. Lookups run inline, except where callers must wait on one in flight.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CompanyPremiumStatusCache Tests")
+class CompanyPremiumStatusCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(2);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(15);
+
+    @Mock
+    private ExternalDiscoveryRequestInterface externalDiscoveryRequestService;
+
+    @Mock
+    private PremiumCompanyRegistry premiumCompanyRegistry;
+
+    private final UUID companyId = UUID.randomUUID();
+    private final AtomicLong nanos = new AtomicLong();
+    private CompanyPremiumStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CompanyPremiumStatusCache(externalDiscoveryRequestService, premiumCompanyRegistry,
+                new SimpleMeterRegistry(), TTL, NEGATIVE_TTL, 100, nanos::get, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight lookup between concurrent callers")
+    void shouldCoalesceConcurrentLookups() throws Exception {
+        // Arrange - lookups run on their own thread here, so callers wait on the in-flight future
+        ExecutorService lookups = Executors.newSingleThreadExecutor();
+        CompanyPremiumStatusCache sharedCache = new CompanyPremiumStatusCache(externalDiscoveryRequestService,
+                premiumCompanyRegistry, new SimpleMeterRegistry(), TTL, NEGATIVE_TTL, 100, nanos::get, lookups);
+        CountDownLatch release = new CountDownLatch(1);
+        when(externalDiscoveryRequestService.sendGetCompanyPremiumStatusRequest(companyId)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        AtomicBoolean first = new AtomicBoolean();
+        AtomicBoolean second = new AtomicBoolean();
+        Thread firstCaller = new Thread(() -> first.set(sharedCache.isPremium(companyId)));
+        Thread secondCaller = new Thread(() -> second.set(sharedCache.isPremium(companyId)));
+
+        // Act - both callers wait on the blocked lookup before it is answered
+        firstCaller.start();
+        secondCaller.start();
+        awaitWaiting(firstCaller);
+        awaitWaiting(secondCaller);
+        release.countDown();
+        firstCaller.join(5000);
+        secondCaller.join(5000);
+        lookups.shutdown();
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(externalDiscoveryRequestService, times(1)).sendGetCompanyPremiumStatusRequest(companyId);
+    }
+
+    @Test
+    @DisplayName("Should keep a premium status for the TTL")
+    void shouldCachePremiumForTtl() {
+        // Arrange
+        when(externalDiscoveryRequestService.sendGetCompanyPremiumStatusRequest(companyId)).thenReturn(true);
+        cache.isPremium(companyId);
+
+        // Act & Assert
+        advance(NEGATIVE_TTL.plusSeconds(1));
+        assertThat(cache.isPremium(companyId)).isTrue();
+        verify(externalDiscoveryRequestService, times(1)).sendGetCompanyPremiumStatusRequest(companyId);
+
+        advance(TTL);
+        assertThat(cache.isPremium(companyId)).isTrue();
+        verify(externalDiscoveryRequestService, times(2)).sendGetCompanyPremiumStatusRequest(companyId);
+    }
+
+    @Test
+    @DisplayName("Should look up a non-premium company again after the shorter negative TTL")
+    void shouldCacheNonPremiumForNegativeTtl() {
+        // Arrange
+        when(externalDiscoveryRequestService.sendGetCompanyPremiumStatusRequest(companyId))
+                .thenReturn(false)
+                .thenReturn(true);
+        cache.isPremium(companyId);
+
+        // Act & Assert
+        advance(NEGATIVE_TTL.minusSeconds(1));
+        assertThat(cache.isPremium(companyId)).isFalse();
+
+        // The upgrade is picked up once the negative entry expired
+        advance(Duration.ofSeconds(2));
+        assertThat(cache.isPremium(companyId)).isTrue();
+        verify(externalDiscoveryRequestService, times(2)).sendGetCompanyPremiumStatusRequest(companyId);
+    }
+
+    @Test
+    @DisplayName("Should not cache a lookup that returned no status or threw")
+    void shouldNotCacheFailedLookups() {
+        // Arrange
+        when(externalDiscoveryRequestService.sendGetCompanyPremiumStatusRequest(companyId))
+                .thenReturn(null)
+                .thenThrow(new IllegalStateException("request timed out"))
+                .thenReturn(true);
+
+        // Act & Assert - failures count as not premium and are retried on the next call
+        assertThat(cache.isPremium(companyId)).isFalse();
+        assertThat(cache.isPremium(companyId)).isFalse();
+        assertThat(cache.isPremium(companyId)).isTrue();
+        verify(externalDiscoveryRequestService, times(3)).sendGetCompanyPremiumStatusRequest(companyId);
+        verify(premiumCompanyRegistry, times(1)).applyChange(eq(companyId), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should apply each answered status to the premium company registry")
+    void shouldApplyAnsweredStatusToRegistry() {
+        // Arrange
+        when(externalDiscoveryRequestService.sendGetCompanyPremiumStatusRequest(companyId))
+                .thenReturn(true)
+                .thenReturn(false);
+
+        // Act
+        cache.isPremium(companyId);
+        cache.invalidate(companyId);
+        cache.isPremium(companyId);
+
+        // Assert
+        verify(premiumCompanyRegistry).applyChange(companyId, true);
+        verify(premiumCompanyRegistry).applyChange(companyId, false);
+    }
+
+    @Test
+    @DisplayName("Should leave the registry untouched when a lookup fails")
+    void shouldNotApplyFailedLookup() {
+        // Arrange
+        when(externalDiscoveryRequestService.sendGetCompanyPremiumStatusRequest(companyId)).thenReturn(null);
+
+        // Act
+        cache.isPremium(companyId);
+
+        // Assert
+        verify(premiumCompanyRegistry, never()).applyChange(eq(companyId), anyBoolean());
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+}
@@ -0,0 +1,282 @@
+package rmit.saintgiong.discoveryservice.domain.services.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import rmit.saintgiong.discoveryapi.internal.common.dto.ApplicantSyncSummaryDto;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.IndexingInterface;
+import rmit.saintgiong.discoveryservice.domain.entity.SyncWatermarkEntity;
+import rmit.saintgiong.discoveryservice.domain.services.SyncWatermarkRepository;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.ApplicantBulkIngester;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.ApplicantContentHasher;
+import rmit.saintgiong.discoveryservice.domain.services.elasticsearch.ApplicantIndexManager;
+import rmit.saintgiong.discoveryservice.domain.services.job.BackgroundJobService;
+import rmit.saintgiong.discoveryservice.domain.services.job.JobContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.queryParam;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.queryParamCount;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Unit tests for ExternalUserProfileService.
+ * Tests full and delta syncs against a stubbed user profile service.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExternalUserProfileService Tests")
+class ExternalUserProfileServiceTest {
+
+    private static final String URL = "http://user-profile/applicants";
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2025, 1, 10, 8, 0);
+
+    @Mock
+    private ApplicantBulkIngester applicantBulkIngester;
+
+    @Mock
+    private IndexingInterface indexingInterface;
+
+    @Mock
+    private ApplicantContentHasher applicantContentHasher;
+
+    @Mock
+    private ApplicantIndexManager applicantIndexManager;
+
+    @Mock
+    private SyncWatermarkRepository syncWatermarkRepository;
+
+    @Mock
+    private BackgroundJobService backgroundJobService;
+
+    @Mock
+    private JobContext jobContext;
+
+    private MockRestServiceServer server;
+    private ExternalUserProfileService service;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        service = new ExternalUserProfileService(
+                applicantBulkIngester, indexingInterface, applicantContentHasher, applicantIndexManager, restTemplate, objectMapper, syncWatermarkRepository, backgroundJobService,
+                URL, 10, 2, false);
+    }
+
+    @Test
+    @DisplayName("Should request only applicants updated since the watermark and advance it")
+    void shouldRunDeltaSyncFromWatermark() {
+        // Arrange
+        when(syncWatermarkRepository.findById("applicants")).thenReturn(Optional.of(
+                SyncWatermarkEntity.builder().syncName("applicants").highWaterMark(WATERMARK).build()));
+        when(applicantBulkIngester.add(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(applicantContentHasher.withHash(any())).thenAnswer(invocation -> hashByLastName(invocation.getArgument(0)));
+        server.expect(requestTo(startsWith(URL)))
+                .andExpect(queryParam("updatedSince", "2025-01-10T08:00:00"))
+                .andRespond(withSuccess(
+                        "[" + profile(UUID.randomUUID(), "Doe", "2025-01-10T08:00:00") + ","
+                                + profile(UUID.randomUUID(), "Doe", "2025-01-11T09:30:00") + "]",
+                        MediaType.APPLICATION_JSON));
+
+        // Act
+        ApplicantSyncSummaryDto summary = service.syncApplicants(false, jobContext);
+
+        // Assert
+        server.verify();
+        assertThat(summary.getMode()).isEqualTo("DELTA");
+        assertThat(summary.getUpdatedSince()).isEqualTo(WATERMARK);
+        assertThat(summary.isCompleted()).isTrue();
+        assertThat(summary.getIndexed()).isEqualTo(2);
+        assertThat(summary.getCreated()).isEqualTo(2);
+
+        ArgumentCaptor<SyncWatermarkEntity> saved = ArgumentCaptor.forClass(SyncWatermarkEntity.class);
+        verify(syncWatermarkRepository).save(saved.capture());
+        assertThat(saved.getValue().getHighWaterMark()).isEqualTo(LocalDateTime.of(2025, 1, 11, 9, 30));
+        assertThat(saved.getValue().getLastSyncedAt()).isNotNull();
+        verify(applicantIndexManager, never()).markWorkExperienceSummaryComplete();
+        verify(applicantIndexManager, never()).beginIngest(anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should switch a delta sync to ingest mode once it reaches the page threshold")
+    void shouldEnterIngestModeForLargeDelta() {
+        // Arrange
+        when(syncWatermarkRepository.findById("applicants")).thenReturn(Optional.of(
+                SyncWatermarkEntity.builder().syncName("applicants").highWaterMark(WATERMARK).build()));
+        when(applicantBulkIngester.add(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(applicantContentHasher.withHash(any())).thenAnswer(invocation -> hashByLastName(invocation.getArgument(0)));
+        ApplicantIndexManager.IngestSession ingestSession = mock(ApplicantIndexManager.IngestSession.class);
+        when(applicantIndexManager.beginIngest(false)).thenReturn(ingestSession);
+        for (int page = 0; page < 3; page++) {
+            server.expect(requestTo(startsWith(URL)))
+                    .andExpect(queryParam("page", String.valueOf(page)))
+                    .andRespond(withSuccess(page(page < 2 ? 10 : 3), MediaType.APPLICATION_JSON));
+        }
+
+        // Act
+        ApplicantSyncSummaryDto summary = service.syncApplicants(false, jobContext);
+
+        // Assert
+        server.verify();
+        assertThat(summary.isCompleted()).isTrue();
+        assertThat(summary.getPages()).isEqualTo(3);
+        InOrder inOrder = inOrder(applicantIndexManager, applicantBulkIngester, ingestSession);
+        inOrder.verify(applicantIndexManager).beginIngest(false);
+        inOrder.verify(applicantBulkIngester).flush();
+        inOrder.verify(ingestSession).close();
+    }
+
+    @Test
+    @DisplayName("Should fail the sync without advancing the watermark when indexing outcomes stop arriving")
+    void shouldFailWhenIndexingTimesOut() {
+        // Arrange
+        when(syncWatermarkRepository.findById("applicants")).thenReturn(Optional.of(
+                SyncWatermarkEntity.builder().syncName("applicants").highWaterMark(WATERMARK).build()));
+        when(applicantBulkIngester.add(any())).thenReturn(new CompletableFuture<>());
+        when(applicantBulkIngester.requestTimeout()).thenReturn(Duration.ofMillis(50));
+        when(applicantContentHasher.withHash(any())).thenAnswer(invocation -> hashByLastName(invocation.getArgument(0)));
+        server.expect(requestTo(startsWith(URL)))
+                .andRespond(withSuccess("[" + profile(UUID.randomUUID(), "Doe", "2025-01-11T09:30:00") + "]",
+                        MediaType.APPLICATION_JSON));
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.syncApplicants(false, jobContext))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1 applicants");
+        verify(syncWatermarkRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should fetch every applicant on a full sync")
+    void shouldRunFullSyncWithoutWatermark() {
+        // Arrange
+        when(syncWatermarkRepository.findById("applicants")).thenReturn(Optional.of(
+                SyncWatermarkEntity.builder().syncName("applicants").highWaterMark(WATERMARK).build()));
+        server.expect(requestTo(startsWith(URL)))
+                .andExpect(queryParamCount(2))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // Act
+        ApplicantSyncSummaryDto summary = service.syncApplicants(true, jobContext);
+
+        // Assert
+        server.verify();
+        assertThat(summary.getMode()).isEqualTo("FULL");
+        assertThat(summary.getUpdatedSince()).isNull();
+        assertThat(summary.isCompleted()).isTrue();
+        verify(applicantIndexManager).beginIngest(false);
+        verify(applicantIndexManager).markWorkExperienceSummaryComplete();
+    }
+
+    @Test
+    @DisplayName("Should keep the watermark when the sync stops early")
+    void shouldKeepWatermarkOnFailure() {
+        // Arrange
+        when(syncWatermarkRepository.findById("applicants")).thenReturn(Optional.empty());
+        server.expect(requestTo(startsWith(URL))).andRespond(withServerError());
+
+        // Act
+        ApplicantSyncSummaryDto summary = service.syncApplicants(false, jobContext);
+
+        // Assert
+        assertThat(summary.isCompleted()).isFalse();
+        assertThat(summary.getErrors()).isNotEmpty();
+        verify(syncWatermarkRepository, never()).save(any());
+        verify(applicantIndexManager, never()).markWorkExperienceSummaryComplete();
+    }
+
+    @Test
+    @DisplayName("Should stop before the next page when the job is cancelled")
+    void shouldStopWhenCancelled() {
+        // Arrange
+        when(syncWatermarkRepository.findById("applicants")).thenReturn(Optional.empty());
+        when(jobContext.isCancelled()).thenReturn(true);
+
+        // Act
+        ApplicantSyncSummaryDto summary = service.syncApplicants(true, jobContext);
+
+        // Assert
+        server.verify();
+        assertThat(summary.isCompleted()).isFalse();
+        assertThat(summary.getPages()).isZero();
+        verify(syncWatermarkRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should only write applicants whose content hash changed")
+    void shouldSkipUnchangedApplicants() {
+        // Arrange
+        UUID unchangedId = UUID.randomUUID();
+        UUID changedId = UUID.randomUUID();
+        when(syncWatermarkRepository.findById("applicants")).thenReturn(Optional.empty());
+        when(applicantContentHasher.withHash(any())).thenAnswer(invocation -> hashByLastName(invocation.getArgument(0)));
+        when(indexingInterface.getContentHashes(List.of(unchangedId.toString(), changedId.toString())))
+                .thenReturn(Map.of(unchangedId.toString(), "hash-Doe", changedId.toString(), "hash-Smith"));
+        when(applicantBulkIngester.add(any())).thenReturn(CompletableFuture.completedFuture(null));
+        server.expect(requestTo(startsWith(URL)))
+                .andRespond(withSuccess("[" + profile(unchangedId, "Doe", "2025-01-12T10:00:00") + ","
+                        + profile(changedId, "Nguyen", "2025-01-12T11:00:00") + "]", MediaType.APPLICATION_JSON));
+
+        // Act
+        ApplicantSyncSummaryDto summary = service.syncApplicants(true, jobContext);
+
+        // Assert
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        assertThat(summary.getUpdated()).isEqualTo(1);
+        assertThat(summary.getCreated()).isZero();
+        ArgumentCaptor<ApplicantDocument> written = ArgumentCaptor.forClass(ApplicantDocument.class);
+        verify(applicantBulkIngester).add(written.capture());
+        assertThat(written.getValue().applicantId()).isEqualTo(changedId);
+        assertThat(written.getValue().contentHash()).isEqualTo("hash-Nguyen");
+    }
+
+    // Stands in for the real content hash, which ApplicantContentHasherTest covers
+    private static ApplicantDocument hashByLastName(ApplicantDocument document) {
+        return document.withContentHash("hash-" + document.lastName());
+    }
+
+    private static String page(int size) {
+        StringJoiner profiles = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < size; i++) {
+            profiles.add(profile(UUID.randomUUID(), "Doe", "2025-01-11T09:30:00"));
+        }
+        return profiles.toString();
+    }
+
+    private static String profile(UUID applicantId, String lastName, String updatedAt) {
+        return """
+                {"applicantId":"%s","firstName":"Jane","lastName":"%s","country":"VN",\
+                "createdAt":"2025-01-01T00:00:00","updatedAt":"%s"}"""
+                .formatted(applicantId, lastName, updatedAt);
+    }
+}
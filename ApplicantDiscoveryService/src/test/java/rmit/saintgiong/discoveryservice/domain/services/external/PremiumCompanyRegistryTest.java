@@ -0,0 +1,98 @@
+package rmit.saintgiong.discoveryservice.domain.services.external;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rmit.saintgiong.discoveryapi.external.services.ExternalDiscoveryRequestInterface;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PremiumCompanyRegistry.
+ * Tests the last good snapshot fallback and status changes applied between refreshes.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PremiumCompanyRegistry Tests")
+class PremiumCompanyRegistryTest {
+
+    @Mock
+    private ExternalDiscoveryRequestInterface externalDiscoveryRequestService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final UUID premiumCompany = UUID.randomUUID();
+    private final UUID upgradedCompany = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should keep serving the last good snapshot when a refresh returns null")
+    void shouldKeepLastGoodSnapshot() {
+        // Arrange
+        PremiumCompanyRegistry registry = new PremiumCompanyRegistry(
+                externalDiscoveryRequestService, meterRegistry, Duration.ofMinutes(5));
+        when(externalDiscoveryRequestService.sendGetAllPremiumCompaniesRequest())
+                .thenReturn(List.of(premiumCompany.toString(), "not-a-uuid"))
+                .thenReturn(null);
+        registry.refresh();
+
+        // Act
+        registry.refresh();
+
+        // Assert
+        assertThat(registry.getPremiumCompanyIds()).containsExactly(premiumCompany);
+        assertThat(meterRegistry.get("discovery.premium-companies.stale").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should report the kept snapshot as stale once it is older than the TTL")
+    void shouldReportStaleSnapshot() {
+        // Arrange
+        PremiumCompanyRegistry registry = new PremiumCompanyRegistry(
+                externalDiscoveryRequestService, meterRegistry, Duration.ZERO);
+        when(externalDiscoveryRequestService.sendGetAllPremiumCompaniesRequest())
+                .thenReturn(List.of(premiumCompany.toString()))
+                .thenReturn(null);
+        registry.refresh();
+
+        // Act
+        registry.refresh();
+
+        // Assert
+        assertThat(registry.isPremium(premiumCompany)).isTrue();
+        assertThat(meterRegistry.get("discovery.premium-companies.stale").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should apply a status change until the next refresh replaces the snapshot")
+    void shouldApplyChangeBetweenRefreshes() {
+        // Arrange
+        PremiumCompanyRegistry registry = new PremiumCompanyRegistry(
+                externalDiscoveryRequestService, meterRegistry, Duration.ofMinutes(5));
+        when(externalDiscoveryRequestService.sendGetAllPremiumCompaniesRequest())
+                .thenReturn(List.of(premiumCompany.toString()))
+                .thenReturn(List.of(upgradedCompany.toString()));
+        registry.refresh();
+
+        // Act
+        registry.applyChange(upgradedCompany, true);
+        registry.applyChange(premiumCompany, false);
+
+        // Assert
+        assertThat(registry.getPremiumCompanyIds()).containsExactly(upgradedCompany);
+        registry.refresh();
+        assertThat(registry.getPremiumCompanyIds()).containsExactly(upgradedCompany);
+    }
+}
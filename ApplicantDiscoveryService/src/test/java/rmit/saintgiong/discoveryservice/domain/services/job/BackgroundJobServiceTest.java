@@ -0,0 +1,242 @@
+package rmit.saintgiong.discoveryservice.domain.services.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rmit.saintgiong.discoveryapi.internal.common.dto.BackgroundJobDto;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobStatus;
+import rmit.saintgiong.discoveryapi.internal.common.types.job.JobType;
+import rmit.saintgiong.discoveryservice.domain.entity.BackgroundJobEntity;
+import rmit.saintgiong.discoveryservice.domain.services.BackgroundJobRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BackgroundJobService.
+ * Tests job locking, status reporting and cancellation, also of jobs running on another instance.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BackgroundJobService Tests")
+class BackgroundJobServiceTest {
+
+    @Mock
+    private JobLockService jobLockService;
+
+    @Mock
+    private BackgroundJobRepository backgroundJobRepository;
+
+    private BackgroundJobService backgroundJobService;
+
+    @BeforeEach
+    void setUp() {
+        backgroundJobService = new BackgroundJobService(
+                jobLockService, backgroundJobRepository, new ObjectMapper(), 2, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        backgroundJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run the job and report its result")
+    void shouldRunJobToCompletion() throws InterruptedException {
+        // Arrange
+        JobLockService.JobLock lock = mock(JobLockService.JobLock.class);
+        when(jobLockService.tryAcquire("applicant-sync")).thenReturn(Optional.of(lock));
+
+        // Act
+        BackgroundJobDto submitted = backgroundJobService.submit(JobType.APPLICANT_SYNC, context -> {
+            context.progress(42);
+            return "done";
+        }).orElseThrow();
+
+        // Assert
+        verify(lock, timeout(5000)).close();
+        BackgroundJobDto job = awaitFinished(submitted.getJobId());
+        assertThat(job.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(job.getProcessed()).isEqualTo(42);
+        assertThat(job.getResult()).isEqualTo("done");
+        assertThat(job.getFinishedAt()).isNotNull();
+        verify(backgroundJobRepository, timeout(5000)).markFinished(eq(submitted.getJobId()), eq(JobStatus.SUCCEEDED),
+                any(), eq(42L), eq(job.getFinishedAt()), eq("\"done\""), eq(null));
+    }
+
+    @Test
+    @DisplayName("Should mark unfinished jobs left by a stopped instance as failed before storing the new job")
+    void shouldFailJobsOfStoppedInstance() {
+        // Arrange
+        JobLockService.JobLock lock = mock(JobLockService.JobLock.class);
+        when(jobLockService.tryAcquire("applicant-sync")).thenReturn(Optional.of(lock));
+
+        // Act
+        backgroundJobService.submit(JobType.APPLICANT_SYNC, context -> "done");
+
+        // Assert
+        InOrder inOrder = inOrder(backgroundJobRepository);
+        inOrder.verify(backgroundJobRepository).failUnfinished(
+                eq(List.of(JobType.APPLICANT_SYNC)), eq(JobStatus.FAILED), any(LocalDateTime.class), anyString());
+        inOrder.verify(backgroundJobRepository).save(any(BackgroundJobEntity.class));
+        verify(lock, timeout(5000)).close();
+    }
+
+    @Test
+    @DisplayName("Should not start a job while another instance holds its lock")
+    void shouldRejectJobWhenLocked() {
+        // Arrange
+        when(jobLockService.tryAcquire("applicant-index-rebuild")).thenReturn(Optional.empty());
+
+        // Act
+        Optional<BackgroundJobDto> submitted = backgroundJobService.submit(JobType.APPLICANT_INDEX_REBUILD, context -> "never");
+
+        // Assert
+        assertThat(submitted).isEmpty();
+        assertThat(backgroundJobService.getJobs()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should mark a cancelled job as cancelled and release its lock")
+    void shouldCancelRunningJob() throws InterruptedException {
+        // Arrange
+        JobLockService.JobLock lock = mock(JobLockService.JobLock.class);
+        when(jobLockService.tryAcquire("applicant-sync")).thenReturn(Optional.of(lock));
+        CountDownLatch started = new CountDownLatch(1);
+
+        BackgroundJobDto submitted = backgroundJobService.submit(JobType.APPLICANT_SYNC, context -> {
+            started.countDown();
+            while (true) {
+                context.checkCancelled();
+                Thread.onSpinWait();
+            }
+        }).orElseThrow();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        backgroundJobService.cancel(submitted.getJobId());
+
+        // Assert
+        verify(lock, timeout(5000)).close();
+        assertThat(awaitFinished(submitted.getJobId()).getStatus()).isEqualTo(JobStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Should stop a running job once it sees a cancellation requested on another instance")
+    void shouldCancelJobFromAnotherInstance() throws InterruptedException {
+        // Arrange
+        JobLockService.JobLock lock = mock(JobLockService.JobLock.class);
+        when(jobLockService.tryAcquire("applicant-sync")).thenReturn(Optional.of(lock));
+        CountDownLatch started = new CountDownLatch(1);
+
+        BackgroundJobDto submitted = backgroundJobService.submit(JobType.APPLICANT_SYNC, context -> {
+            context.progress(7);
+            started.countDown();
+            while (true) {
+                context.checkCancelled();
+                Thread.onSpinWait();
+            }
+        }).orElseThrow();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        when(backgroundJobRepository.findCancelRequested(submitted.getJobId())).thenReturn(Optional.of(true));
+
+        // Act
+        backgroundJobService.syncJobs();
+
+        // Assert
+        verify(backgroundJobRepository).updateProgress(eq(submitted.getJobId()), any(), eq(7L));
+        verify(lock, timeout(5000)).close();
+        assertThat(awaitFinished(submitted.getJobId()).getStatus()).isEqualTo(JobStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Should read a job running on another instance from its row")
+    void shouldReadJobOfAnotherInstance() {
+        // Arrange
+        UUID jobId = UUID.randomUUID();
+        when(backgroundJobRepository.findById(jobId)).thenReturn(Optional.of(storedJob(jobId, false)));
+
+        // Act
+        Optional<BackgroundJobDto> job = backgroundJobService.getJob(jobId);
+
+        // Assert
+        assertThat(job).hasValueSatisfying(found -> {
+            assertThat(found.getStatus()).isEqualTo(JobStatus.RUNNING);
+            assertThat(found.getProcessed()).isEqualTo(1500);
+            assertThat(((JsonNode) found.getResult()).get("indexed").asInt()).isEqualTo(1500);
+        });
+    }
+
+    @Test
+    @DisplayName("Should store a cancellation request for a job running on another instance")
+    void shouldRequestCancelOfAnotherInstance() {
+        // Arrange
+        UUID jobId = UUID.randomUUID();
+        when(backgroundJobRepository.requestCancel(jobId)).thenReturn(1);
+        when(backgroundJobRepository.findById(jobId)).thenReturn(Optional.of(storedJob(jobId, true)));
+
+        // Act
+        Optional<BackgroundJobDto> cancelled = backgroundJobService.cancel(jobId);
+
+        // Assert
+        assertThat(cancelled).hasValueSatisfying(found -> assertThat(found.isCancelRequested()).isTrue());
+        verify(backgroundJobRepository).requestCancel(jobId);
+    }
+
+    @Test
+    @DisplayName("Should return empty when cancelling an unknown job")
+    void shouldReturnEmptyForUnknownJob() {
+        // Act
+        Optional<BackgroundJobDto> cancelled = backgroundJobService.cancel(UUID.randomUUID());
+
+        // Assert
+        assertThat(cancelled).isEmpty();
+        verify(jobLockService, never()).tryAcquire("applicant-sync");
+    }
+
+    private static BackgroundJobEntity storedJob(UUID jobId, boolean cancelRequested) {
+        return BackgroundJobEntity.builder()
+                .jobId(jobId)
+                .type(JobType.APPLICANT_SYNC)
+                .status(JobStatus.RUNNING)
+                .phase("Fetched page 3")
+                .processed(1500)
+                .cancelRequested(cancelRequested)
+                .submittedAt(LocalDateTime.now().minusMinutes(5))
+                .startedAt(LocalDateTime.now().minusMinutes(5))
+                .result("{\"indexed\":1500}")
+                .build();
+    }
+
+    private BackgroundJobDto awaitFinished(UUID jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        BackgroundJobDto job = backgroundJobService.getJob(jobId).orElseThrow();
+        while (!job.getStatus().isFinished() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            job = backgroundJobService.getJob(jobId).orElseThrow();
+        }
+        return job;
+    }
+}
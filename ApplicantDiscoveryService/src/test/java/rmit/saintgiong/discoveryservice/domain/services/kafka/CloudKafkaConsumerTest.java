@@ -0,0 +1,93 @@
+package rmit.saintgiong.discoveryservice.domain.services.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rmit.saintgiong.discoveryapi.internal.common.types.type.KafkaTopic;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.BulkIndexResult;
+import rmit.saintgiong.discoveryapi.internal.service.elasticsearch.IndexingInterface;
+import rmit.saintgiong.discoveryservice.domain.services.matching.MatchFingerprintService;
+import rmit.saintgiong.discoveryservice.domain.services.matching.MatchingPipeline;
+import rmit.saintgiong.jobapplicant.userprofile.avro.JaApplicantCreatedEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CloudKafkaConsumer.
+ * Tests that unreadable records are skipped without failing the rest of their batch.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CloudKafkaConsumer Tests")
+class CloudKafkaConsumerTest {
+
+    @Mock
+    private IndexingInterface indexingInterface;
+
+    @Mock
+    private MatchFingerprintService matchFingerprintService;
+
+    @Mock
+    private MatchingPipeline matchingPipeline;
+
+    private CloudKafkaConsumer cloudKafkaConsumer;
+
+    @BeforeEach
+    void setUp() {
+        cloudKafkaConsumer = new CloudKafkaConsumer(indexingInterface, matchFingerprintService, matchingPipeline);
+    }
+
+    @Test
+    @DisplayName("Should index and match the rest of a batch holding a record without value")
+    @SuppressWarnings("unchecked")
+    void shouldSkipRecordWithoutValue() {
+        // Arrange
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        List<ConsumerRecord<String, JaApplicantCreatedEvent>> records = List.of(
+                record(0, created(first)),
+                record(1, null),
+                record(2, created("not-a-uuid")),
+                record(3, created(second)));
+        when(indexingInterface.indexApplicants(any())).thenReturn(new BulkIndexResult(List.of(first, second), Map.of()));
+
+        // Act
+        cloudKafkaConsumer.consumeApplicantAdd(records);
+
+        // Assert
+        ArgumentCaptor<Collection<ApplicantDocument>> indexed = ArgumentCaptor.forClass(Collection.class);
+        verify(indexingInterface).indexApplicants(indexed.capture());
+        assertThat(new ArrayList<>(indexed.getValue()))
+                .extracting(document -> document.applicantId().toString())
+                .containsExactly(first, second);
+        verify(matchingPipeline, times(2)).submit(any(ApplicantDocument.class), eq(false));
+    }
+
+    private static ConsumerRecord<String, JaApplicantCreatedEvent> record(long offset, JaApplicantCreatedEvent event) {
+        return new ConsumerRecord<>(KafkaTopic.JA_APPLICANT_CREATED_TOPIC, 0, offset, null, event);
+    }
+
+    private static JaApplicantCreatedEvent created(String userId) {
+        JaApplicantCreatedEvent event = new JaApplicantCreatedEvent();
+        event.setUserId(userId);
+        event.setFirstName("Jane");
+        event.setCountry("Vietnam");
+        return event;
+    }
+}
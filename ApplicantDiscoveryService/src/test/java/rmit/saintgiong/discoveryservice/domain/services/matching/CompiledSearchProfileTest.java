@@ -0,0 +1,135 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import rmit.saintgiong.discoveryapi.internal.common.types.type.DegreeType;
+import rmit.saintgiong.discoveryapi.internal.common.types.type.EmploymentTypeEnum;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.document.Education;
+import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CompiledSearchProfile.
+ * Tests each compiled criterion against applicant features.
+ */
+@DisplayName("CompiledSearchProfile Tests")
+class CompiledSearchProfileTest {
+
+    @Nested
+    @DisplayName("from()")
+    class Compile {
+
+        @Test
+        @DisplayName("Should sort skills, normalize country and default open salary bounds")
+        void shouldCompileEntity() {
+            // Arrange
+            SearchProfileEntity entity = profile(" Vietnam ", DegreeType.MASTER, 12, 5, 8);
+
+            // Act
+            CompiledSearchProfile compiled = CompiledSearchProfile.from(entity);
+
+            // Assert
+            assertThat(compiled.skillTagIds()).containsExactly(5, 8, 12);
+            assertThat(compiled.country()).isEqualTo("vietnam");
+            assertThat(compiled.countryCode()).isEqualTo(CountryCodes.lookup("VIETNAM"));
+            assertThat(compiled.salaryMin()).isEqualTo(Double.NEGATIVE_INFINITY);
+            assertThat(compiled.salaryMax()).isEqualTo(Double.POSITIVE_INFINITY);
+        }
+    }
+
+    @Nested
+    @DisplayName("matches()")
+    class Matches {
+
+        @Test
+        @DisplayName("Should match when country, degree and one skill are satisfied")
+        void shouldMatchAllCriteria() {
+            // Arrange
+            CompiledSearchProfile compiled = CompiledSearchProfile.from(profile("Vietnam", DegreeType.MASTER, 2, 5));
+            ApplicantFeatures applicant = ApplicantFeatures.from(applicant("vietnam", List.of(9L, 5L), "Master of IT"));
+
+            // Act & Assert
+            assertThat(compiled.matches(applicant)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should not match another country, a missing degree or disjoint skills")
+        void shouldRejectUnsatisfiedCriteria() {
+            // Arrange
+            CompiledSearchProfile compiled = CompiledSearchProfile.from(profile("Vietnam", DegreeType.MASTER, 2, 5));
+
+            // Act & Assert
+            assertThat(compiled.matches(ApplicantFeatures.from(applicant("Laos", List.of(5L), "MASTER")))).isFalse();
+            assertThat(compiled.matches(ApplicantFeatures.from(applicant("Vietnam", List.of(5L), "BACHELOR")))).isFalse();
+            assertThat(compiled.matches(ApplicantFeatures.from(applicant("Vietnam", List.of(3L, 4L), "MASTER")))).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should compare countries outside the code table by name")
+        void shouldMatchCountryOutsideTableByName() {
+            // Arrange
+            CompiledSearchProfile compiled = CompiledSearchProfile.from(profile("Atlantis", null));
+
+            // Act & Assert
+            assertThat(compiled.matches(ApplicantFeatures.from(applicant(" ATLANTIS ", List.of(), null)))).isTrue();
+            assertThat(compiled.matches(ApplicantFeatures.from(applicant("Lemuria", List.of(), null)))).isFalse();
+            assertThat(compiled.matches(ApplicantFeatures.from(applicant("Vietnam", List.of(), null)))).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should apply employment type and salary range when the applicant provides them")
+        void shouldApplyEmploymentAndSalary() {
+            // Arrange
+            SearchProfileEntity entity = profile(null, null);
+            BitSet employmentType = new BitSet();
+            employmentType.set(EmploymentTypeEnum.FULL_TIME.getBitIndex());
+            entity.setEmploymentType(employmentType);
+            entity.setSalaryMin(1000.0);
+            entity.setSalaryMax(2000.0);
+            CompiledSearchProfile compiled = CompiledSearchProfile.from(entity);
+
+            long partTime = 1L << EmploymentTypeEnum.PART_TIME.getBitIndex();
+            long fullTime = 1L << EmploymentTypeEnum.FULL_TIME.getBitIndex();
+
+            // Act & Assert - unknown preferences never exclude a profile
+            assertThat(compiled.matches(features(0L, Double.NaN))).isTrue();
+            assertThat(compiled.matches(features(fullTime, 1500.0))).isTrue();
+            assertThat(compiled.matches(features(partTime, 1500.0))).isFalse();
+            assertThat(compiled.matches(features(fullTime, 2500.0))).isFalse();
+        }
+    }
+
+    private static ApplicantFeatures features(long employmentMask, double expectedSalary) {
+        return new ApplicantFeatures(UUID.randomUUID(), new int[0], CountryCodes.NONE, null, 0, employmentMask, expectedSalary);
+    }
+
+    private static SearchProfileEntity profile(String country, DegreeType degree, Integer... skillTagIds) {
+        SearchProfileEntity entity = SearchProfileEntity.builder()
+                .profileId(UUID.randomUUID())
+                .companyId(UUID.randomUUID())
+                .country(country)
+                .highestDegree(degree)
+                .build();
+        for (Integer tagId : skillTagIds) {
+            entity.addSkillTag(tagId);
+        }
+        return entity;
+    }
+
+    private static ApplicantDocument applicant(String country, List<Long> skillIds, String degree) {
+        return new ApplicantDocument(
+                UUID.randomUUID(), "Jane", "Doe", null, null, null, null, null, null,
+                country, List.of(new Education("RMIT", degree, 3.5, null, null, null, false)),
+                Collections.emptyList(), skillIds, Collections.emptyList(),
+                LocalDateTime.now(), LocalDateTime.now(), null);
+    }
+}
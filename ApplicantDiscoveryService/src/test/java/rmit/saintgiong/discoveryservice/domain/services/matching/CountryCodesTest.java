@@ -0,0 +1,37 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CountryCodes.
+ * Tests lookups against the fixed country table.
+ */
+@DisplayName("CountryCodes Tests")
+class CountryCodesTest {
+
+    @Test
+    @DisplayName("Should resolve ISO codes and names case-insensitively, each spelling with its own code")
+    void shouldResolveKnownCountries() {
+        // Act
+        int vietnam = CountryCodes.lookup("Vietnam");
+
+        // Assert
+        assertThat(vietnam).isNotNegative();
+        assertThat(CountryCodes.lookup(" VIETNAM ")).isEqualTo(vietnam);
+        assertThat(CountryCodes.lookup("VN")).isNotNegative().isNotEqualTo(vietnam);
+        assertThat(CountryCodes.lookup("USA")).isNotNegative();
+        assertThat(CountryCodes.lookup("Antigua and Barbuda")).isNotNegative();
+    }
+
+    @Test
+    @DisplayName("Should map blank values to NONE and countries outside the table to UNKNOWN")
+    void shouldMapOtherValuesToSentinels() {
+        // Act & Assert
+        assertThat(CountryCodes.lookup(null)).isEqualTo(CountryCodes.NONE);
+        assertThat(CountryCodes.lookup("  ")).isEqualTo(CountryCodes.NONE);
+        assertThat(CountryCodes.lookup("Atlantis")).isEqualTo(CountryCodes.UNKNOWN);
+    }
+}
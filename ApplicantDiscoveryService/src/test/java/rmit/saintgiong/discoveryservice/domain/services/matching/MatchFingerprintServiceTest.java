@@ -0,0 +1,122 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.document.Education;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for MatchFingerprintService.
+ * Tests fingerprint normalization and the skip decision for applicant updates.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MatchFingerprintService Tests")
+class MatchFingerprintServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MatchFingerprintService matchFingerprintService;
+
+    private final UUID applicantId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        matchFingerprintService = new MatchFingerprintService(redisTemplate, meterRegistry, Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("Should ignore fields that matching does not depend on")
+    void shouldIgnoreNonMatchFields() {
+        // Arrange
+        ApplicantDocument original = applicant("0901", "Vietnam", "Master of IT", List.of(3L, 1L));
+        ApplicantDocument phoneChanged = applicant("0999", "VIETNAM", "MASTER", List.of(1L, 3L));
+        ApplicantDocument skillsChanged = applicant("0901", "Vietnam", "Master of IT", List.of(1L, 4L));
+
+        // Act & Assert
+        assertThat(MatchFingerprintService.fingerprintOf(phoneChanged))
+                .isEqualTo(MatchFingerprintService.fingerprintOf(original));
+        assertThat(MatchFingerprintService.fingerprintOf(skillsChanged))
+                .isNotEqualTo(MatchFingerprintService.fingerprintOf(original));
+    }
+
+    @Test
+    @DisplayName("Should skip when the stored fingerprint is identical and expose the skip ratio")
+    void shouldSkipUnchangedApplicant() {
+        // Arrange
+        ApplicantDocument document = applicant("0901", "Vietnam", "MASTER", List.of(1L));
+        String fingerprint = MatchFingerprintService.fingerprintOf(document);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString()))
+                .thenReturn(null)
+                .thenReturn(fingerprint);
+
+        // Act
+        boolean firstSeen = matchFingerprintService.hasChanged(document);
+        boolean unchanged = matchFingerprintService.hasChanged(document);
+
+        // Assert
+        assertThat(firstSeen).isTrue();
+        assertThat(unchanged).isFalse();
+        assertThat(meterRegistry.get("discovery.matching.fingerprint.skip.ratio").gauge().value()).isEqualTo(0.5);
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Should store the fingerprint only when it is recorded after matching")
+    void shouldRecordFingerprint() {
+        // Arrange
+        ApplicantDocument document = applicant("0901", "Vietnam", "MASTER", List.of(1L));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // Act
+        matchFingerprintService.record(document);
+
+        // Assert
+        verify(valueOperations).set("discovery:match-fingerprint:" + applicantId,
+                MatchFingerprintService.fingerprintOf(document), Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("Should treat the applicant as changed when Redis is unavailable")
+    void shouldNotSkipWhenRedisFails() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenThrow(new IllegalStateException("Redis down"));
+
+        // Act & Assert
+        assertThat(matchFingerprintService.hasChanged(applicant("0901", "Vietnam", "MASTER", List.of(1L)))).isTrue();
+    }
+
+    private ApplicantDocument applicant(String phone, String country, String degree, List<Long> skillIds) {
+        return new ApplicantDocument(
+                applicantId, "Jane", "Doe", phone, null, null, null, null, null,
+                country, List.of(new Education("RMIT", degree, 3.5, null, null, null, false)),
+                Collections.emptyList(), skillIds, Collections.emptyList(),
+                LocalDateTime.now(), LocalDateTime.now(), null);
+    }
+}
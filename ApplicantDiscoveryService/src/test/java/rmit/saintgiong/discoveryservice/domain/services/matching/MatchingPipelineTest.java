@@ -0,0 +1,194 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import rmit.saintgiong.discoveryapi.external.services.ExternalDiscoveryRequestInterface;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.shared.dto.avro.notification.ApplicantMatchNotificationRecord;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for MatchingPipeline.
+ * Tests listener backpressure at the queue watermarks, blocking hand-off and draining on shutdown.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MatchingPipeline Tests")
+class MatchingPipelineTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Mock
+    private ApplicantMatchingService applicantMatchingService;
+
+    @Mock
+    private MatchFingerprintService matchFingerprintService;
+
+    @Mock
+    private ExternalDiscoveryRequestInterface externalDiscoveryRequestService;
+
+    @Mock
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Mock
+    private MessageListenerContainer createdContainer;
+
+    @Mock
+    private MessageListenerContainer updatedContainer;
+
+    // Each match call reports its start, then waits for a permit, so the test controls the queue depth
+    private final BlockingQueue<UUID> started = new LinkedBlockingQueue<>();
+    private final Semaphore permits = new Semaphore(0);
+    private MatchingPipeline matchingPipeline;
+
+    @BeforeEach
+    void setUp() {
+        when(applicantMatchingService.match(any(ApplicantDocument.class))).thenAnswer(invocation -> {
+            started.put(invocation.<ApplicantDocument>getArgument(0).applicantId());
+            permits.acquire();
+            return List.of(mock(ApplicantMatchNotificationRecord.class));
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        permits.release(1000);
+        matchingPipeline.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should pause the listeners at 80% of the queue and resume them at 50%")
+    void shouldPauseAndResumeAtWatermarks() throws InterruptedException {
+        // Arrange - one worker and 10 slots: pause at 8 queued tasks, resume at 5
+        when(kafkaListenerEndpointRegistry.getListenerContainer(MatchingPipeline.APPLICANT_CREATED_LISTENER_ID))
+                .thenReturn(createdContainer);
+        when(kafkaListenerEndpointRegistry.getListenerContainer(MatchingPipeline.APPLICANT_UPDATED_LISTENER_ID))
+                .thenReturn(updatedContainer);
+        matchingPipeline = pipeline(10);
+        submitAndAwaitStart();
+
+        // Act & Assert - filling the queue
+        submit(7);
+        verify(createdContainer, never()).pause();
+        submit(1);
+        verify(createdContainer).pause();
+        verify(updatedContainer).pause();
+
+        // Act & Assert - draining the queue one task at a time
+        for (int queued = 7; queued > 5; queued--) {
+            releaseAndAwaitNext();
+            verify(createdContainer, never()).resume();
+        }
+        releaseAndAwaitNext();
+        verify(createdContainer).resume();
+        verify(updatedContainer).resume();
+    }
+
+    @Test
+    @DisplayName("Should block the submitter while the queue is full instead of dropping the applicant")
+    void shouldBlockWhenQueueIsFull() throws InterruptedException {
+        // Arrange
+        matchingPipeline = pipeline(1);
+        submitAndAwaitStart();
+        submit(1);
+
+        // Act
+        Thread submitter = new Thread(() -> matchingPipeline.submit(applicant(), true));
+        submitter.start();
+        submitter.join(200);
+
+        // Assert
+        assertThat(submitter.isAlive()).isTrue();
+        permits.release(3);
+        submitter.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertThat(submitter.isAlive()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should run queued matches and notifications on shutdown and reject new applicants")
+    void shouldDrainOnShutdown() throws InterruptedException {
+        // Arrange
+        matchingPipeline = pipeline(10);
+        submitAndAwaitStart();
+        submit(3);
+
+        // Act
+        Thread shutdown = new Thread(() -> {
+            try {
+                matchingPipeline.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        shutdown.start();
+        while (shutdown.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+
+        // Assert
+        assertThatThrownBy(() -> matchingPipeline.submit(applicant(), false))
+                .isInstanceOf(RejectedExecutionException.class);
+        permits.release(4);
+        shutdown.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertThat(shutdown.isAlive()).isFalse();
+        verify(applicantMatchingService, times(4)).match(any(ApplicantDocument.class));
+        verify(externalDiscoveryRequestService, times(4)).sendMatchNotification(any(), anyBoolean());
+        verify(matchFingerprintService, times(4)).record(any(ApplicantDocument.class));
+    }
+
+    private MatchingPipeline pipeline(int queueCapacity) {
+        return new MatchingPipeline(applicantMatchingService, matchFingerprintService, externalDiscoveryRequestService,
+                kafkaListenerEndpointRegistry, new SimpleMeterRegistry(), 1, 1, queueCapacity);
+    }
+
+    // Occupies the single match worker, so the following submissions stay queued
+    private void submitAndAwaitStart() throws InterruptedException {
+        submit(1);
+        assertThat(started.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    // Finishes the running match and waits until the worker took the next task (and checked the low watermark)
+    private void releaseAndAwaitNext() throws InterruptedException {
+        permits.release();
+        assertThat(started.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    private void submit(int count) {
+        for (int i = 0; i < count; i++) {
+            matchingPipeline.submit(applicant(), true);
+        }
+    }
+
+    private static ApplicantDocument applicant() {
+        return new ApplicantDocument(
+                UUID.randomUUID(), "Jane", "Doe", null, null, null, null, null, null,
+                "Vietnam", Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList(), LocalDateTime.now(), LocalDateTime.now(), null);
+    }
+}
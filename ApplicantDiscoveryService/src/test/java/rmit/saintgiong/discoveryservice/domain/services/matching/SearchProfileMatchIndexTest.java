@@ -0,0 +1,212 @@
+package rmit.saintgiong.discoveryservice.domain.services.matching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rmit.saintgiong.discoveryapi.internal.common.types.type.DegreeType;
+import rmit.saintgiong.discoveryapi.internal.document.ApplicantDocument;
+import rmit.saintgiong.discoveryapi.internal.document.Education;
+import rmit.saintgiong.discoveryservice.domain.entity.SearchProfileEntity;
+import rmit.saintgiong.discoveryservice.domain.services.SearchProfileRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SearchProfileMatchIndex.
+ * Tests candidate pre-selection through the skill, country and degree posting lists.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchProfileMatchIndex Tests")
+class SearchProfileMatchIndexTest {
+
+    @Mock
+    private SearchProfileRepository searchProfileRepository;
+
+    @InjectMocks
+    private SearchProfileMatchIndex searchProfileMatchIndex;
+
+    private SearchProfileEntity reactVietnamProfile;
+    private SearchProfileEntity pythonMasterProfile;
+    private SearchProfileEntity openProfile;
+
+    @BeforeEach
+    void setUp() {
+        // Requires React (5) or Docker (12) in Vietnam
+        reactVietnamProfile = profile("Vietnam", null, 5, 12);
+        // Requires Python (2) and a Master degree anywhere
+        pythonMasterProfile = profile(null, DegreeType.MASTER, 2);
+        // No constraints at all
+        openProfile = profile(null, null);
+
+        when(searchProfileRepository.findAllWithSkillTags())
+                .thenReturn(List.of(reactVietnamProfile, pythonMasterProfile, openProfile));
+        searchProfileMatchIndex.loadAll();
+    }
+
+    @Nested
+    @DisplayName("findCandidates()")
+    class FindCandidates {
+
+        @Test
+        @DisplayName("Should return profiles sharing a skill plus profiles without skill constraint")
+        void shouldReturnProfilesSharingSkill() {
+            // Arrange
+            ApplicantDocument applicant = applicant("vietnam", List.of(5L), null);
+
+            // Act
+            List<CompiledSearchProfile> candidates = searchProfileMatchIndex.findCandidates(ApplicantFeatures.from(applicant));
+
+            // Assert - country comparison is case-insensitive
+            assertThat(candidates)
+                    .extracting(CompiledSearchProfile::profileId)
+                    .containsExactlyInAnyOrder(reactVietnamProfile.getProfileId(), openProfile.getProfileId());
+        }
+
+        @Test
+        @DisplayName("Should exclude profiles whose country does not match")
+        void shouldExcludeProfilesWithOtherCountry() {
+            // Arrange
+            ApplicantDocument applicant = applicant("Singapore", List.of(5L), null);
+
+            // Act
+            List<CompiledSearchProfile> candidates = searchProfileMatchIndex.findCandidates(ApplicantFeatures.from(applicant));
+
+            // Assert
+            assertThat(candidates)
+                    .extracting(CompiledSearchProfile::profileId)
+                    .containsExactly(openProfile.getProfileId());
+        }
+
+        @Test
+        @DisplayName("Should select profiles requiring a country outside the code table by its name")
+        void shouldSelectProfilesWithCountryOutsideTable() {
+            // Arrange
+            SearchProfileEntity atlantisProfile = profile("Atlantis", null);
+            searchProfileMatchIndex.upsert(atlantisProfile);
+
+            // Act & Assert
+            assertThat(searchProfileMatchIndex.findCandidates(features("atlantis", List.of(), null)))
+                    .extracting(CompiledSearchProfile::profileId)
+                    .containsExactlyInAnyOrder(atlantisProfile.getProfileId(), openProfile.getProfileId());
+            assertThat(searchProfileMatchIndex.findCandidates(features("Lemuria", List.of(), null)))
+                    .extracting(CompiledSearchProfile::profileId)
+                    .containsExactly(openProfile.getProfileId());
+        }
+
+        @Test
+        @DisplayName("Should require the applicant to hold the profile's degree")
+        void shouldRequireDegree() {
+            // Arrange
+            ApplicantDocument withoutDegree = applicant("Singapore", List.of(2L), null);
+            ApplicantDocument withDegree = applicant("Singapore", List.of(2L), "Master of Science");
+
+            // Act & Assert
+            assertThat(searchProfileMatchIndex.findCandidates(ApplicantFeatures.from(withoutDegree)))
+                    .extracting(CompiledSearchProfile::profileId)
+                    .containsExactly(openProfile.getProfileId());
+            assertThat(searchProfileMatchIndex.findCandidates(ApplicantFeatures.from(withDegree)))
+                    .extracting(CompiledSearchProfile::profileId)
+                    .containsExactlyInAnyOrder(pythonMasterProfile.getProfileId(), openProfile.getProfileId());
+        }
+    }
+
+    @Nested
+    @DisplayName("upsert() / remove()")
+    class Maintenance {
+
+        @Test
+        @DisplayName("Should replace posting lists when a profile is updated")
+        void shouldReplacePostingListsOnUpsert() {
+            // Arrange - the React profile now requires Python (2) instead
+            SearchProfileEntity updated = profile("Vietnam", null, 2);
+            updated.setProfileId(reactVietnamProfile.getProfileId());
+            updated.getSkillTags().forEach(tag -> tag.getSkillTagId().setProfileId(updated.getProfileId()));
+
+            // Act
+            searchProfileMatchIndex.upsert(updated);
+
+            // Assert
+            assertThat(searchProfileMatchIndex.findCandidates(features("Vietnam", List.of(5L), null)))
+                    .extracting(CompiledSearchProfile::profileId)
+                    .containsExactly(openProfile.getProfileId());
+            assertThat(searchProfileMatchIndex.findCandidates(features("Vietnam", List.of(2L), null)))
+                    .extracting(CompiledSearchProfile::profileId)
+                    .contains(reactVietnamProfile.getProfileId());
+            assertThat(searchProfileMatchIndex.size()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should defer patches until the surrounding transaction commits")
+        void shouldDeferPatchUntilCommit() {
+            // Arrange
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // Act
+                searchProfileMatchIndex.remove(openProfile.getProfileId());
+
+                // Assert - still visible before commit
+                assertThat(searchProfileMatchIndex.size()).isEqualTo(3);
+
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(TransactionSynchronization::afterCommit);
+                assertThat(searchProfileMatchIndex.size()).isEqualTo(2);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("Should drop a removed profile from every posting list")
+        void shouldDropRemovedProfile() {
+            // Act
+            searchProfileMatchIndex.remove(openProfile.getProfileId());
+
+            // Assert
+            assertThat(searchProfileMatchIndex.findCandidates(features("Singapore", List.of(), null))).isEmpty();
+            assertThat(searchProfileMatchIndex.size()).isEqualTo(2);
+        }
+    }
+
+    private static SearchProfileEntity profile(String country, DegreeType degree, Integer... skillTagIds) {
+        SearchProfileEntity entity = SearchProfileEntity.builder()
+                .profileId(UUID.randomUUID())
+                .companyId(UUID.randomUUID())
+                .country(country)
+                .highestDegree(degree)
+                .skillTags(new HashSet<>())
+                .build();
+        for (Integer tagId : skillTagIds) {
+            entity.addSkillTag(tagId);
+        }
+        return entity;
+    }
+
+    private static ApplicantFeatures features(String country, List<Long> skillIds, String degree) {
+        return ApplicantFeatures.from(applicant(country, skillIds, degree));
+    }
+
+    private static ApplicantDocument applicant(String country, List<Long> skillIds, String degree) {
+        List<Education> educations = (degree != null)
+                ? List.of(new Education("RMIT", degree, 3.5, null, null, null, false))
+                : Collections.emptyList();
+
+        return new ApplicantDocument(
+                UUID.randomUUID(), "Jane", "Doe", null, null, null, null, null, null,
+                country, educations, Collections.emptyList(), skillIds, Collections.emptyList(),
+                LocalDateTime.now(), LocalDateTime.now(), null);
+    }
+}